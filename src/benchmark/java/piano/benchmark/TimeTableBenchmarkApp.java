@@ -0,0 +1,175 @@
+package piano.benchmark;
+
+import ai.timefold.solver.benchmark.api.PlannerBenchmark;
+import ai.timefold.solver.benchmark.api.PlannerBenchmarkFactory;
+import ai.timefold.solver.benchmark.config.PlannerBenchmarkConfig;
+import ai.timefold.solver.benchmark.config.SolverBenchmarkConfig;
+import ai.timefold.solver.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import ai.timefold.solver.core.config.constructionheuristic.ConstructionHeuristicType;
+import ai.timefold.solver.core.config.heuristic.selector.move.MoveSelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.composite.UnionMoveSelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.generic.ChangeMoveSelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.generic.SwapMoveSelectorConfig;
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.localsearch.decider.acceptor.LocalSearchAcceptorConfig;
+import ai.timefold.solver.core.config.localsearch.decider.forager.LocalSearchForagerConfig;
+import ai.timefold.solver.core.config.phase.PhaseConfig;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import piano.Arguments;
+import piano.PlanGenerator;
+import piano.PlanParser;
+import piano.TimeTableApp;
+import piano.domain.TimeTable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs the Timefold benchmarker over every plan file in a directory and writes the HTML report.
+ * <p>
+ * Every combination of the configured construction heuristics, local search algorithms,
+ * move selectors and move thread counts is benchmarked. Arguments are key=value pairs:
+ * <pre>
+ * datasets=local/benchmarkData   directory with plan.txt files, generated if empty
+ * report=local/benchmarkReport
+ * spentLimit=PT30S                per problem and solver configuration
+ * constructionHeuristics=GREEDY,FIRST_FIT,CHEAPEST_INSERTION   GREEDY runs piano.solver.GreedyInitializer first
+ * localSearch=TABU_SEARCH,LATE_ACCEPTANCE,SIMULATED_ANNEALING
+ * moveSelectors=CHANGE_SWAP,CHANGE,CUSTOM     CUSTOM adds the window aware moves of piano.solver.move
+ * moveThreadCounts=NONE       only NONE, move threads need Timefold Enterprise Edition
+ * </pre>
+ */
+public class TimeTableBenchmarkApp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimeTableBenchmarkApp.class);
+
+    private static final int[] GENERATED_STUDENT_COUNTS = {10, 100, 1000};
+
+    public static void main(String[] args) throws IOException {
+        Arguments arguments = new Arguments(args);
+
+        Path datasetDirectory = Path.of(arguments.get("datasets", "local/benchmarkData"));
+        File reportDirectory = new File(arguments.get("report", "local/benchmarkReport"));
+        Duration spentLimit = Duration.parse(arguments.get("spentLimit", "PT30S"));
+
+        List<TimeTable> problems = loadDatasets(datasetDirectory);
+
+        List<SolverBenchmarkConfig> solverBenchmarkConfigs = new ArrayList<>();
+        for (String constructionHeuristic : list(arguments, "constructionHeuristics", "GREEDY,FIRST_FIT,CHEAPEST_INSERTION")) {
+            for (String localSearch : list(arguments, "localSearch", "TABU_SEARCH,LATE_ACCEPTANCE,SIMULATED_ANNEALING")) {
+                for (String moveSelector : list(arguments, "moveSelectors", "CHANGE_SWAP,CHANGE,CUSTOM")) {
+                    for (String moveThreadCount : list(arguments, "moveThreadCounts", SolverConfig.MOVE_THREAD_COUNT_NONE)) {
+                        List<PhaseConfig> phaseConfigs = new ArrayList<>();
+                        if (constructionHeuristic.equals("GREEDY")) {
+                            phaseConfigs.add(TimeTableApp.createGreedyInitializerPhaseConfig());
+                            phaseConfigs.add(new ConstructionHeuristicPhaseConfig());
+                        } else {
+                            phaseConfigs.add(new ConstructionHeuristicPhaseConfig()
+                                    .withConstructionHeuristicType(ConstructionHeuristicType.valueOf(constructionHeuristic)));
+                        }
+                        phaseConfigs.add(createLocalSearchPhaseConfig(localSearch, moveSelector));
+                        SolverConfig solverConfig = TimeTableApp.createSolverConfig()
+                                .withTerminationSpentLimit(spentLimit)
+                                .withMoveThreadCount(TimeTableApp.checkMoveThreadCount(moveThreadCount))
+                                .withPhaseList(phaseConfigs);
+                        solverBenchmarkConfigs.add(new SolverBenchmarkConfig()
+                                .withName(constructionHeuristic + " " + localSearch + " " + moveSelector + " threads=" + moveThreadCount)
+                                .withSolverConfig(solverConfig));
+                    }
+                }
+            }
+        }
+
+        PlannerBenchmarkConfig benchmarkConfig = new PlannerBenchmarkConfig();
+        benchmarkConfig.setBenchmarkDirectory(reportDirectory);
+        benchmarkConfig.setSolverBenchmarkConfigList(solverBenchmarkConfigs);
+
+        PlannerBenchmark benchmark = PlannerBenchmarkFactory.create(benchmarkConfig)
+                .buildPlannerBenchmark(problems.toArray(new TimeTable[0]));
+        benchmark.benchmark();
+        LOGGER.info("Benchmark report written to {}", reportDirectory.getAbsolutePath());
+    }
+
+    private static List<String> list(Arguments arguments, String key, String defaultValue) {
+        return Arrays.asList(arguments.get(key, defaultValue).split(","));
+    }
+
+    private static List<TimeTable> loadDatasets(Path datasetDirectory) throws IOException {
+        Files.createDirectories(datasetDirectory);
+        List<Path> planFiles = listPlanFiles(datasetDirectory);
+        if (planFiles.isEmpty()) {
+            for (int studentCount : GENERATED_STUDENT_COUNTS) {
+                Files.writeString(datasetDirectory.resolve("plan-" + studentCount + ".txt"),
+                        PlanGenerator.generatePlan(studentCount, studentCount));
+            }
+            planFiles = listPlanFiles(datasetDirectory);
+        }
+        PlanParser planParser = new PlanParser();
+        List<TimeTable> problems = new ArrayList<>();
+        for (Path planFile : planFiles) {
+            LOGGER.info("Loading dataset {}", planFile);
+            problems.add(planParser.parse(planFile));
+        }
+        return problems;
+    }
+
+    private static List<Path> listPlanFiles(Path datasetDirectory) throws IOException {
+        try (Stream<Path> files = Files.list(datasetDirectory)) {
+            return files.filter(file -> file.toString().endsWith(".txt"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static LocalSearchPhaseConfig createLocalSearchPhaseConfig(String localSearch, String moveSelector) {
+        LocalSearchAcceptorConfig acceptorConfig = new LocalSearchAcceptorConfig();
+        LocalSearchForagerConfig foragerConfig = new LocalSearchForagerConfig();
+        switch (localSearch) {
+            case "TABU_SEARCH":
+                acceptorConfig.setEntityTabuSize(7);
+                foragerConfig.setAcceptedCountLimit(1000);
+                break;
+            case "LATE_ACCEPTANCE":
+                acceptorConfig.setLateAcceptanceSize(400);
+                foragerConfig.setAcceptedCountLimit(1);
+                break;
+            case "SIMULATED_ANNEALING":
+                acceptorConfig.setSimulatedAnnealingStartingTemperature("0hard/500soft");
+                foragerConfig.setAcceptedCountLimit(1);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported local search (" + localSearch + ").");
+        }
+
+        MoveSelectorConfig<?> moveSelectorConfig;
+        switch (moveSelector) {
+            case "CHANGE_SWAP":
+                moveSelectorConfig = new UnionMoveSelectorConfig(List.of(new ChangeMoveSelectorConfig(), new SwapMoveSelectorConfig()));
+                break;
+            case "CHANGE":
+                moveSelectorConfig = new ChangeMoveSelectorConfig();
+                break;
+            case "CUSTOM":
+                moveSelectorConfig = TimeTableApp.createMoveSelectorConfig();
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported move selector (" + moveSelector + ").");
+        }
+
+        LocalSearchPhaseConfig phaseConfig = new LocalSearchPhaseConfig();
+        phaseConfig.setAcceptorConfig(acceptorConfig);
+        phaseConfig.setForagerConfig(foragerConfig);
+        phaseConfig.setMoveSelectorConfig(moveSelectorConfig);
+        return phaseConfig;
+    }
+}
@@ -0,0 +1,76 @@
+package piano.benchmark;
+
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import piano.PlanGenerator;
+import piano.PlanParser;
+import piano.TimeTableApp;
+import piano.domain.TimeTable;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Best score reached within a fixed time budget. JMH only reports the (constant) time,
+ * the scores are logged after every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class BestScoreBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BestScoreBenchmark.class);
+
+    @Param({"10", "100", "1000", "10000"})
+    public int lessonCount;
+
+    @Param({"1", "10", "60"})
+    public int timeBudgetInSeconds;
+
+    private SolverFactory<TimeTable> solverFactory;
+    private String plan;
+    private TimeTable problem;
+    private TimeTable solution;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        solverFactory = SolverFactory.create(TimeTableApp.createSolverConfig()
+                .withTerminationSpentLimit(Duration.ofSeconds(timeBudgetInSeconds)));
+        plan = PlanGenerator.generatePlan(lessonCount, 0L);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() throws IOException {
+        problem = new PlanParser().parse(new StringReader(plan));
+    }
+
+    @TearDown(Level.Invocation)
+    public void logScore() {
+        LOGGER.info("{} lessons, {}s: best score {}", lessonCount, timeBudgetInSeconds, solution.getScore());
+    }
+
+    @Benchmark
+    public TimeTable solveWithinBudget() {
+        solution = solverFactory.buildSolver().solve(problem);
+        return solution;
+    }
+}
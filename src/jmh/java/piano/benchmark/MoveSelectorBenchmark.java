@@ -0,0 +1,102 @@
+package piano.benchmark;
+
+import ai.timefold.solver.core.api.solver.Solver;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.composite.UnionMoveSelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.generic.ChangeMoveSelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.generic.SwapMoveSelectorConfig;
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import piano.PlanGenerator;
+import piano.PlanParser;
+import piano.SolverTelemetry;
+import piano.TimeTableApp;
+import piano.domain.TimeTable;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The generic change and swap moves against the default moves with the window aware ones of piano.solver.move,
+ * from the same construction heuristic and within the same time. JMH only reports the (constant) time, the best
+ * score and the score calculation speed are logged after every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class MoveSelectorBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MoveSelectorBenchmark.class);
+
+    @Param({"100", "1000"})
+    public int lessonCount;
+
+    @Param({"CHANGE_SWAP", "CUSTOM"})
+    public String moveSelector;
+
+    @Param({"10"})
+    public int timeBudgetInSeconds;
+
+    private SolverFactory<TimeTable> solverFactory;
+    private String plan;
+    private TimeTable problem;
+    private TimeTable solution;
+    private SolverTelemetry telemetry;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        LocalSearchPhaseConfig localSearchPhaseConfig = new LocalSearchPhaseConfig().withMoveSelectorConfig(
+                moveSelector.equals("CUSTOM")
+                        ? TimeTableApp.createMoveSelectorConfig()
+                        : new UnionMoveSelectorConfig(List.of(new ChangeMoveSelectorConfig(), new SwapMoveSelectorConfig())));
+        SolverConfig solverConfig = TimeTableApp.createSolverConfig()
+                .withPhases(TimeTableApp.createGreedyInitializerPhaseConfig(), new ConstructionHeuristicPhaseConfig(),
+                        localSearchPhaseConfig)
+                .withTerminationSpentLimit(Duration.ofSeconds(timeBudgetInSeconds));
+        solverFactory = SolverFactory.create(solverConfig);
+        plan = PlanGenerator.generatePlan(lessonCount, 0L);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() throws IOException {
+        problem = new PlanParser().parse(new StringReader(plan));
+        telemetry = new SolverTelemetry("MoveSelectorBenchmark");
+    }
+
+    @TearDown(Level.Invocation)
+    public void logScore() {
+        LOGGER.info("{} lessons, {}, {}s: best score {}, {} score calculations per second", lessonCount, moveSelector,
+                timeBudgetInSeconds, solution.getScore(), telemetry.getScoreCalculationSpeed());
+        telemetry.close();
+    }
+
+    @Benchmark
+    public TimeTable solveWithinBudget() {
+        Solver<TimeTable> solver = solverFactory.buildSolver();
+        telemetry.attach(solver);
+        solution = solver.solve(problem);
+        return solution;
+    }
+}
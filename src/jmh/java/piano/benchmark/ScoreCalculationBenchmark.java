@@ -0,0 +1,108 @@
+package piano.benchmark;
+
+import ai.timefold.solver.core.api.score.Score;
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+import ai.timefold.solver.core.impl.solver.DefaultSolverFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import piano.PlanGenerator;
+import piano.PlanParser;
+import piano.TimeTableApp;
+import piano.domain.Lesson;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Score calculation throughput of {@link piano.solver.TimeTableConstraintProvider}:
+ * incremental (one lesson changes its timeslot, like a change move) and from scratch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoreCalculationBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int lessonCount;
+
+    private SolutionManager<TimeTable, HardSoftScore> solutionManager;
+    private InnerScoreDirector<TimeTable, ?> scoreDirector;
+    private TimeTable fullProblem;
+    private List<Lesson> lessons;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SolverFactory<TimeTable> solverFactory = SolverFactory.create(TimeTableApp.createSolverConfig());
+        solutionManager = SolutionManager.create(solverFactory);
+        fullProblem = createInitializedProblem(lessonCount);
+
+        TimeTable incrementalProblem = createInitializedProblem(lessonCount);
+        lessons = incrementalProblem.getLessonList();
+        scoreDirector = (InnerScoreDirector<TimeTable, ?>) ((DefaultSolverFactory<TimeTable>) solverFactory)
+                .getScoreDirectorFactory().buildScoreDirector();
+        scoreDirector.setWorkingSolution(incrementalProblem);
+        scoreDirector.calculateScore();
+        random = new Random(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scoreDirector.close();
+    }
+
+    /**
+     * Synthetic problem with every lesson at a random value of its own value ranges.
+     */
+    static TimeTable createInitializedProblem(int lessonCount) throws IOException {
+        TimeTable problem = new PlanParser().parse(new StringReader(PlanGenerator.generatePlan(lessonCount, 0L)));
+        Random random = new Random(0);
+        for (Lesson lesson : problem.getLessonList()) {
+            lesson.setTimeslot(pick(lesson.getPossibleTimeslotList(), random));
+            lesson.setRoom(pick(lesson.getPossibleRoomList(), random));
+        }
+        return problem;
+    }
+
+    private static <T> T pick(List<T> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    @Benchmark
+    public Score<?> incremental() {
+        Lesson lesson = pick(lessons, random);
+        Timeslot timeslot = pick(lesson.getPossibleTimeslotList(), random);
+        scoreDirector.beforeVariableChanged(lesson, "timeslot");
+        lesson.setTimeslot(timeslot);
+        scoreDirector.afterVariableChanged(lesson, "timeslot");
+        scoreDirector.triggerVariableListeners();
+        return scoreDirector.calculateScore();
+    }
+
+    @Benchmark
+    public HardSoftScore fromScratch() {
+        return solutionManager.update(fullProblem);
+    }
+}
@@ -0,0 +1,65 @@
+package piano.benchmark;
+
+import ai.timefold.solver.core.api.solver.Solver;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import piano.PlanGenerator;
+import piano.PlanParser;
+import piano.TimeTableApp;
+import piano.domain.TimeTable;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall clock time until the solver finds the first feasible solution, capped at one minute.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TimeToFeasibleBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int lessonCount;
+
+    private SolverFactory<TimeTable> solverFactory;
+    private String plan;
+    private TimeTable problem;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        solverFactory = SolverFactory.create(TimeTableApp.createSolverConfig()
+                .withTerminationConfig(new TerminationConfig()
+                        .withBestScoreFeasible(true)
+                        .withSpentLimit(Duration.ofMinutes(1))));
+        plan = PlanGenerator.generatePlan(lessonCount, 0L);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() throws IOException {
+        problem = new PlanParser().parse(new StringReader(plan));
+    }
+
+    @Benchmark
+    public TimeTable solveUntilFeasible() {
+        Solver<TimeTable> solver = solverFactory.buildSolver();
+        return solver.solve(problem);
+    }
+}
@@ -0,0 +1,334 @@
+package piano;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.solver.SolverManager;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import piano.domain.Horizon;
+import piano.domain.Lesson;
+import piano.domain.Room;
+import piano.domain.Student;
+import piano.domain.Teacher;
+import piano.domain.TimeTable;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Termination that depends on the problem instead of a fixed time. The solver stops at whichever comes first:
+ * <ul>
+ * <li>the target: the best possible score of the problem, see {@link #bestPossibleScore(TimeTable)}, or the
+ * first feasible score</li>
+ * <li>a plateau: no improvement for a base time plus a time per lesson that isn't pinned</li>
+ * <li>the spent limit as a hard cap</li>
+ * </ul>
+ * Small problems and components often reach the bound, larger ones usually stop on the plateau, which gives them
+ * more time to improve.
+ * <p>
+ * Arguments are key=value pairs:
+ * <pre>
+ * spentLimit=PT3S              hard cap
+ * target=bound                 bound, feasible or none
+ * plateau=PT0.5S               time without improvement before stopping, plus
+ * plateauPerLesson=PT0.01S     for every lesson that isn't pinned
+ * </pre>
+ */
+public class AdaptiveTermination {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveTermination.class);
+
+    private static final DayOfWeek[] DAYS = DayOfWeek.values();
+
+    public enum Target {
+        /** Stop at {@link #bestPossibleScore(TimeTable)} */
+        BOUND,
+        /** Stop at the first feasible solution */
+        FEASIBLE,
+        /** Only the plateau and the spent limit apply */
+        NONE
+    }
+
+    private final Duration spentLimit;
+    private final Target target;
+    private final Duration plateau;
+    private final Duration plateauPerLesson;
+
+    public AdaptiveTermination(Duration spentLimit, Target target, Duration plateau, Duration plateauPerLesson) {
+        this.spentLimit = spentLimit;
+        this.target = target;
+        this.plateau = plateau;
+        this.plateauPerLesson = plateauPerLesson;
+    }
+
+    public static AdaptiveTermination of(Arguments arguments, Duration defaultSpentLimit) {
+        return new AdaptiveTermination(
+                Duration.parse(arguments.get("spentLimit", defaultSpentLimit.toString())),
+                Target.valueOf(arguments.get("target", "bound").toUpperCase()),
+                Duration.parse(arguments.get("plateau", "PT0.5S")),
+                Duration.parse(arguments.get("plateauPerLesson", "PT0.01S")));
+    }
+
+    /**
+     * Termination of a single solver for this problem.
+     */
+    public TerminationConfig createTerminationConfig(TimeTable problem) {
+        TerminationConfig terminationConfig = new TerminationConfig()
+                .withSpentLimit(spentLimit)
+                .withUnimprovedSpentLimit(getPlateau(problem));
+        switch (target) {
+            case BOUND -> terminationConfig.setBestScoreLimit(bestPossibleScore(problem).toString());
+            case FEASIBLE -> terminationConfig.setBestScoreFeasible(true);
+            case NONE -> {
+            }
+        }
+        return terminationConfig;
+    }
+
+    /**
+     * Termination shared by all problems of a {@link SolverManager}, only the hard cap.
+     * The rest is applied per problem by a {@link Monitor}.
+     */
+    public TerminationConfig createSharedTerminationConfig() {
+        return new TerminationConfig().withSpentLimit(spentLimit);
+    }
+
+    /**
+     * @return a monitor that applies the target and the plateau to every problem it watches
+     */
+    public <ProblemId_> Monitor<ProblemId_> createMonitor(SolverManager<TimeTable, ProblemId_> solverManager) {
+        return new Monitor<>(solverManager);
+    }
+
+    /**
+     * @return the same termination with another hard cap, e.g. for a part of a decomposed problem
+     */
+    public AdaptiveTermination withSpentLimit(Duration spentLimit) {
+        return new AdaptiveTermination(spentLimit, target, plateau, plateauPerLesson);
+    }
+
+    public Duration getSpentLimit() {
+        return spentLimit;
+    }
+
+    public Duration getPlateau(TimeTable problem) {
+        long unpinnedLessonCount = problem.getLessonList().stream()
+                .filter(lesson -> !lesson.isPinned())
+                .count();
+        return plateau.plus(plateauPerLesson.multipliedBy(unpinnedLessonCount));
+    }
+
+    /**
+     * @return the target score of the problem, null if only the plateau and the spent limit apply
+     */
+    public HardSoftScore getTargetScore(TimeTable problem) {
+        return switch (target) {
+            case BOUND -> bestPossibleScore(problem);
+            case FEASIBLE -> HardSoftScore.of(0, Integer.MIN_VALUE);
+            case NONE -> null;
+        };
+    }
+
+    /**
+     * A score that no solution of the problem can exceed, cheap enough to compute before every solve.
+     * <p>
+     * The hard score is at best 0. The only reward is consecutiveLessonsConstraint: on every day a teacher teaches,
+     * the lessons can follow each other at best without a gap, so in a week with n lessons on d days the teacher
+     * gets at most n - d rewards, and on a single day at most one less than the lessons that can take place on
+     * it. The number of days is at least the days of the lessons that can only take place on one day.
+     * The penalties are at best 0, except for locationStabilityConstraint: lessons that can only take place in
+     * one room on one day force a room change between every two of these rooms on that day.
+     */
+    public static HardSoftScore bestPossibleScore(TimeTable problem) {
+        Horizon horizon = problem.getHorizon();
+        Map<Teacher, List<Lesson>> lessonsByTeacher = new HashMap<>();
+        for (Lesson lesson : problem.getLessonList()) {
+            lessonsByTeacher.computeIfAbsent(lesson.getTeacher(), teacher -> new ArrayList<>()).add(lesson);
+        }
+        long soft = 0L;
+        for (List<Lesson> lessons : lessonsByTeacher.values()) {
+            // Per lesson, the days it can take place on, and the room if it is fixed, else null
+            List<DayOfWeek[]> daysByLesson = new ArrayList<>(lessons.size());
+            List<Room> fixedRooms = new ArrayList<>(lessons.size());
+            for (Lesson lesson : lessons) {
+                if (lesson.isPinned() && lesson.getTimeslot() != null) {
+                    daysByLesson.add(new DayOfWeek[] {lesson.getTimeslot().getDayOfWeek()});
+                    fixedRooms.add(lesson.getRoom());
+                    continue;
+                }
+                Student student = lesson.getStudent();
+                DayOfWeek[] days = Arrays.stream(DAYS).filter(student::isAvailable).toArray(DayOfWeek[]::new);
+                daysByLesson.add(days);
+                fixedRooms.add(days.length == 1 ? findSingleRoom(student, days[0], problem.getRoomList().size()) : null);
+            }
+
+            for (int week = 0; week < horizon.getWeekCount(); week++) {
+                long weekBit = 1L << week;
+                int lessonCount = 0;
+                int[] lessonCountByDay = new int[DAYS.length];
+                boolean[] usedDays = new boolean[DAYS.length];
+                List<Set<Room>> fixedRoomsByDay = new ArrayList<>(DAYS.length);
+                for (int day = 0; day < DAYS.length; day++) {
+                    fixedRoomsByDay.add(new HashSet<>());
+                }
+                for (int i = 0; i < lessons.size(); i++) {
+                    long[] weekMasks = lessons.get(i).getWeekMasks();
+                    DayOfWeek[] days = daysByLesson.get(i);
+                    boolean takesPlace = false;
+                    for (DayOfWeek day : days) {
+                        if ((weekMasks[day.ordinal()] & weekBit) != 0L) {
+                            lessonCountByDay[day.ordinal()]++;
+                            takesPlace = true;
+                        }
+                    }
+                    if (!takesPlace) {
+                        continue;
+                    }
+                    lessonCount++;
+                    if (days.length == 1) {
+                        usedDays[days[0].ordinal()] = true;
+                        if (fixedRooms.get(i) != null) {
+                            fixedRoomsByDay.get(days[0].ordinal()).add(fixedRooms.get(i));
+                        }
+                    }
+                }
+                if (lessonCount == 0) {
+                    continue;
+                }
+                int usedDayCount = 0;
+                int dayBound = 0;
+                for (int day = 0; day < DAYS.length; day++) {
+                    usedDayCount += usedDays[day] ? 1 : 0;
+                    dayBound += Math.max(0, lessonCountByDay[day] - 1);
+                    int roomChangeCount = fixedRoomsByDay.get(day).size() - 1;
+                    if (roomChangeCount >= 2) {
+                        soft -= roomChangeCount == 2 ? 100 : 1000;
+                    }
+                }
+                soft += Math.min(lessonCount - Math.max(1, usedDayCount), dayBound);
+            }
+        }
+        return HardSoftScore.of(0, (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, soft)));
+    }
+
+    /**
+     * @return the only room of the student's windows on the day that fit a lesson, null if there are several
+     */
+    private static Room findSingleRoom(Student student, DayOfWeek day, int roomCount) {
+        Room singleRoom = null;
+        for (Combination combination : student.getCombinations()) {
+            Room room = combination.location;
+            if (combination.timeSlot.getDayOfWeek() != day || room.getIndex() < 0 || room.getIndex() >= roomCount
+                    || combination.timeSlot.getEndMinuteOfDay() - combination.timeSlot.getStartMinuteOfDay()
+                            < student.getDurationInMin()) {
+                continue;
+            }
+            if (singleRoom != null && singleRoom != room) {
+                return null;
+            }
+            singleRoom = room;
+        }
+        return singleRoom;
+    }
+
+    /**
+     * Applies the target and the plateau per problem of a {@link SolverManager}, whose solver configuration can
+     * only have a termination shared by all problems. Every problem is watched from its first best solution and
+     * terminated early through the solver manager, from the monitor's own thread.
+     */
+    public class Monitor<ProblemId_> implements AutoCloseable {
+
+        private final SolverManager<TimeTable, ProblemId_> solverManager;
+        private final Map<ProblemId_, Progress> progressByProblem = new ConcurrentHashMap<>();
+        private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "AdaptiveTermination");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        private Monitor(SolverManager<TimeTable, ProblemId_> solverManager) {
+            this.solverManager = solverManager;
+            scheduler.scheduleWithFixedDelay(this::terminatePlateaus, 100L, 100L, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * @return the best solution consumer for {@link SolverManager#solveAndListen}
+         */
+        public Consumer<TimeTable> watch(ProblemId_ problemId, TimeTable problem) {
+            Progress progress = new Progress(getTargetScore(problem), getPlateau(problem).toNanos());
+            progressByProblem.put(problemId, progress);
+            return solution -> {
+                HardSoftScore score = solution.getScore();
+                if (score == null || !score.isSolutionInitialized()) {
+                    return;
+                }
+                progress.improved(score);
+                if (progress.targetScore != null && score.hardScore() >= progress.targetScore.hardScore()
+                        && score.softScore() >= progress.targetScore.softScore()) {
+                    terminate(problemId, "reached the target score " + progress.targetScore);
+                }
+            };
+        }
+
+        private void terminatePlateaus() {
+            long now = System.nanoTime();
+            progressByProblem.forEach((problemId, progress) -> {
+                if (progress.lastImprovementNanos != 0L && now - progress.lastImprovementNanos > progress.plateauNanos) {
+                    terminate(problemId, "didn't improve for " + Duration.ofNanos(progress.plateauNanos));
+                }
+            });
+        }
+
+        private void terminate(ProblemId_ problemId, String reason) {
+            if (progressByProblem.remove(problemId) != null) {
+                LOGGER.info("Terminating {} early, it {}.", problemId, reason);
+                // terminateEarly waits for the solver to end, which waits for the best solution consumer to return,
+                // so it must not run on the consumer thread
+                try {
+                    scheduler.execute(() -> solverManager.terminateEarly(problemId));
+                } catch (RejectedExecutionException e) {
+                    // Closed, the solver has already ended
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            // Not interrupted, a running terminateEarly waits for its solver to end
+            scheduler.shutdown();
+        }
+    }
+
+    private static class Progress {
+
+        private final HardSoftScore targetScore;
+        private final long plateauNanos;
+        private HardSoftScore bestScore;
+        private volatile long lastImprovementNanos;
+
+        private Progress(HardSoftScore targetScore, long plateauNanos) {
+            this.targetScore = targetScore;
+            this.plateauNanos = plateauNanos;
+        }
+
+        private synchronized void improved(HardSoftScore score) {
+            if (bestScore == null || score.compareTo(bestScore) > 0) {
+                bestScore = score;
+                lastImprovementNanos = System.nanoTime();
+            }
+        }
+    }
+}
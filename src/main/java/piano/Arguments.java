@@ -0,0 +1,30 @@
+package piano;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line arguments of the form key=value.
+ */
+public class Arguments {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    public Arguments(String[] args) {
+        for (String arg : args) {
+            String[] keyValue = arg.split("=", 2);
+            if (keyValue.length != 2) {
+                throw new IllegalArgumentException("Argument (" + arg + ") is not of the form key=value.");
+            }
+            values.put(keyValue[0], keyValue[1]);
+        }
+    }
+
+    public String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public boolean has(String key) {
+        return values.containsKey(key);
+    }
+}
@@ -0,0 +1,111 @@
+package piano;
+
+import ai.timefold.solver.core.api.solver.event.BestSolutionChangedEvent;
+import ai.timefold.solver.core.api.solver.event.SolverEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import piano.domain.TimeTable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Publishes new best solutions to sinks at most once per interval, off the solver thread.
+ * <p>
+ * The solver thread only stores a reference to the new best solution (latest wins). Timefold never
+ * changes a best solution after it was published, so the snapshot can safely be taken later on the
+ * publisher thread. Closing the publisher delivers the last pending best solution.
+ */
+public class BestSolutionPublisher implements SolverEventListener<TimeTable>, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BestSolutionPublisher.class);
+
+    private final AtomicReference<TimeTable> pendingBestSolution = new AtomicReference<>();
+    private final List<Consumer<TimetableSnapshot>> sinks;
+    private final ScheduledExecutorService executor;
+
+    public BestSolutionPublisher(Duration interval, List<Consumer<TimetableSnapshot>> sinks) {
+        this.sinks = List.copyOf(sinks);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "BestSolutionPublisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = interval.toMillis();
+        executor.scheduleWithFixedDelay(this::publish, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void bestSolutionChanged(BestSolutionChangedEvent<TimeTable> event) {
+        pendingBestSolution.set(event.getNewBestSolution());
+    }
+
+    private void publish() {
+        TimeTable bestSolution = pendingBestSolution.getAndSet(null);
+        if (bestSolution == null) {
+            return;
+        }
+        TimetableSnapshot snapshot = TimetableSnapshot.of(bestSolution);
+        for (Consumer<TimetableSnapshot> sink : sinks) {
+            try {
+                sink.accept(snapshot);
+            } catch (RuntimeException e) {
+                // A failing sink must neither stop the other sinks nor later publications
+                LOGGER.warn("Publishing the best solution failed.", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        publish();
+    }
+
+    /**
+     * Logs the score and one line per lesson.
+     */
+    public static Consumer<TimetableSnapshot> logSink(Logger logger) {
+        return snapshot -> {
+            logger.info("-------");
+            for (String line : snapshot.toLines()) {
+                logger.info(line);
+            }
+            logger.info("Score: {}", snapshot.score());
+        };
+    }
+
+    /**
+     * Replaces the file atomically, so readers never see a half written timetable.
+     */
+    public static Consumer<TimetableSnapshot> fileSink(Path file) {
+        return snapshot -> {
+            List<String> lines = new ArrayList<>();
+            lines.add("Score: " + snapshot.score());
+            lines.addAll(snapshot.toLines());
+            try {
+                Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+                Files.write(tempFile, lines);
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Writing the best solution to (" + file + ") failed.", e);
+            }
+        };
+    }
+}
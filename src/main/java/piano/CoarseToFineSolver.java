@@ -0,0 +1,113 @@
+package piano;
+
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import ai.timefold.solver.core.config.heuristic.selector.common.SelectionCacheType;
+import ai.timefold.solver.core.config.heuristic.selector.move.composite.UnionMoveSelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.factory.MoveIteratorFactoryConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.factory.MoveListFactoryConfig;
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import piano.domain.Lesson;
+import piano.domain.Student;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+import piano.solver.move.AdjacentLessonSwapMoveListFactory;
+import piano.solver.move.ShiftLessonMoveIteratorFactory;
+
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Solves on a coarse grid first and refines on finer grids, e.g. 30, 15 and then 5 minutes.
+ * <p>
+ * The coarse grid has far fewer start slots, so the solver finds a good structure quickly. Every result is
+ * mapped onto the next grid, which contains all coarser starts as long as the steps divide each other, and
+ * only nudged there: the local search on the finer grids uses moves that shift lessons to the nearest starts
+ * or swap neighbours.
+ */
+public class CoarseToFineSolver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoarseToFineSolver.class);
+
+    private final SolverConfig solverConfig;
+    private final int[] gridStepsInMin;
+    private final AdaptiveTermination gridTermination;
+
+    /**
+     * @param solverConfig without termination, used on the coarsest grid
+     * @param gridStepsInMin from coarse to fine, e.g. {30, 15, 5}
+     * @param termination applied to every grid, with an equal share of the spent limit
+     */
+    public CoarseToFineSolver(SolverConfig solverConfig, int[] gridStepsInMin, AdaptiveTermination termination) {
+        this.solverConfig = solverConfig;
+        this.gridStepsInMin = gridStepsInMin.clone();
+        // Termination limits are in milliseconds
+        this.gridTermination = termination.withSpentLimit(
+                Duration.ofMillis(termination.getSpentLimit().toMillis() / gridStepsInMin.length));
+    }
+
+    /**
+     * @return a new solution on the finest grid, the problem is not changed
+     */
+    public TimeTable solve(TimeTable problem) {
+        TimeTable solution = problem;
+        for (int i = 0; i < gridStepsInMin.length; i++) {
+            TimeTable gridProblem = TimeTableApp.regrid(problem, gridStepsInMin[i]);
+            int mappedCount = mapAssignments(solution, gridProblem);
+            SolverConfig gridSolverConfig = new SolverConfig(solverConfig)
+                    .withTerminationConfig(gridTermination.createTerminationConfig(gridProblem));
+            if (i > 0) {
+                gridSolverConfig.withPhases(
+                        TimeTableApp.createGreedyInitializerPhaseConfig(),
+                        new ConstructionHeuristicPhaseConfig(),
+                        createNearbyLocalSearchPhaseConfig());
+            }
+            solution = SolverFactory.<TimeTable>create(gridSolverConfig).buildSolver().solve(gridProblem);
+            LOGGER.info("Solved on the {} minute grid with score {} ({} of {} lessons mapped from the previous grid).",
+                    gridStepsInMin[i], solution.getScore(), mappedCount, gridProblem.getLessonList().size());
+        }
+        return solution;
+    }
+
+    /**
+     * Gives every lesson the timeslot and room of its student's lesson in the source, if that start exists on the grid.
+     *
+     * @return the number of lessons that got an assignment
+     */
+    private static int mapAssignments(TimeTable source, TimeTable target) {
+        Map<Student, Lesson> sourceLessons = new IdentityHashMap<>();
+        for (Lesson lesson : source.getLessonList()) {
+            sourceLessons.put(lesson.getStudent(), lesson);
+        }
+        int mappedCount = 0;
+        for (Lesson lesson : target.getLessonList()) {
+            Lesson sourceLesson = sourceLessons.get(lesson.getStudent());
+            if (sourceLesson == null || sourceLesson.getTimeslot() == null || sourceLesson.getRoom() == null) {
+                continue;
+            }
+            Timeslot timeslot = lesson.findPossibleTimeslot(sourceLesson.getTimeslot().getStartMinuteOfWeek());
+            if (timeslot == null || !lesson.getPossibleRoomList().contains(sourceLesson.getRoom())) {
+                continue;
+            }
+            lesson.setTimeslot(timeslot);
+            lesson.setRoom(sourceLesson.getRoom());
+            lesson.setPinned(sourceLesson.isPinned());
+            mappedCount++;
+        }
+        return mappedCount;
+    }
+
+    private static LocalSearchPhaseConfig createNearbyLocalSearchPhaseConfig() {
+        MoveListFactoryConfig adjacentSwapConfig = new MoveListFactoryConfig()
+                .withMoveListFactoryClass(AdjacentLessonSwapMoveListFactory.class);
+        adjacentSwapConfig.setCacheType(SelectionCacheType.STEP);
+        return new LocalSearchPhaseConfig().withMoveSelectorConfig(new UnionMoveSelectorConfig(List.of(
+                new MoveIteratorFactoryConfig().withMoveIteratorFactoryClass(ShiftLessonMoveIteratorFactory.class),
+                adjacentSwapConfig)));
+    }
+}
@@ -0,0 +1,137 @@
+package piano;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.api.solver.SolverJob;
+import ai.timefold.solver.core.api.solver.SolverManager;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.SolverManagerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import piano.domain.Lesson;
+import piano.domain.TimeTable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Presolves a problem with the {@link Presolver} and solves its independent components in parallel.
+ * <p>
+ * Unlike the days of the {@link DayDecompositionSolver}, the components don't interact at all, so the merged
+ * solution is as good as the components. Components in which every lesson is pinned are not solved.
+ * Lessons without any possible placement stay unassigned instead of costing solver time.
+ * <p>
+ * With a {@link SolutionCache}, every component is looked up by its own fingerprint, so after a change to a
+ * plan only the components that contain the change are solved again.
+ */
+public class ComponentSolver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ComponentSolver.class);
+
+    private final SolverConfig solverConfig;
+    private final AdaptiveTermination termination;
+    private final String parallelSolverCount;
+    private final SolutionCache cache;
+
+    /**
+     * @param solverConfig without termination, used for every component
+     * @param termination applied to every component on its own
+     * @param parallelSolverCount number of components solved at the same time, e.g. AUTO
+     */
+    public ComponentSolver(SolverConfig solverConfig, AdaptiveTermination termination, String parallelSolverCount) {
+        this(solverConfig, termination, parallelSolverCount, null);
+    }
+
+    /**
+     * @param cache of component solutions, null for none
+     */
+    public ComponentSolver(SolverConfig solverConfig, AdaptiveTermination termination, String parallelSolverCount,
+            SolutionCache cache) {
+        this.solverConfig = solverConfig;
+        this.termination = termination;
+        this.parallelSolverCount = parallelSolverCount;
+        this.cache = cache;
+    }
+
+    /**
+     * @return the problem with the assignments of all components, its lessons with a single placement are pinned
+     */
+    public TimeTable solve(TimeTable problem) throws InterruptedException {
+        Presolver.Result presolved = Presolver.presolve(problem);
+        for (Presolver.Issue issue : presolved.issues()) {
+            if (issue.infeasible()) {
+                LOGGER.error("Infeasible: {}", issue);
+            } else {
+                LOGGER.warn("{}", issue);
+            }
+        }
+        LOGGER.info("Fixed {} lessons, left {} infeasible lessons unassigned, split into {} components.",
+                presolved.fixedLessons().size(), presolved.infeasibleLessons().size(), presolved.components().size());
+
+        Map<Long, Lesson> lessonsById = problem.getLessonList().stream()
+                .collect(Collectors.toMap(Lesson::getId, lesson -> lesson));
+        SolverConfig componentSolverConfig = new SolverConfig(solverConfig)
+                .withTerminationConfig(termination.createSharedTerminationConfig());
+        SolverManagerConfig solverManagerConfig = new SolverManagerConfig()
+                .withParallelSolverCount(parallelSolverCount);
+        try (SolverManager<TimeTable, Integer> solverManager = SolverManager.create(componentSolverConfig, solverManagerConfig);
+                AdaptiveTermination.Monitor<Integer> monitor = termination.createMonitor(solverManager)) {
+            List<SolverJob<TimeTable, Integer>> solverJobs = new ArrayList<>();
+            Map<Integer, String> fingerprints = new HashMap<>();
+            int cachedCount = 0;
+            for (int i = 0; i < presolved.components().size(); i++) {
+                TimeTable component = presolved.components().get(i);
+                if (component.getLessonList().stream().allMatch(Lesson::isPinned)) {
+                    continue;
+                }
+                if (cache != null) {
+                    String fingerprint = ProblemFingerprint.of(component, componentSolverConfig, "component");
+                    TimeTable cachedSolution = cache.get(fingerprint);
+                    if (cachedSolution != null && SolutionCache.apply(cachedSolution, component)) {
+                        merge(component, lessonsById);
+                        cachedCount++;
+                        continue;
+                    }
+                    fingerprints.put(i, fingerprint);
+                }
+                solverJobs.add(solverManager.solveAndListen(i, id -> component, monitor.watch(i, component)));
+            }
+            if (cache != null) {
+                LOGGER.info("Reused {} cached components, solving {}.", cachedCount, solverJobs.size());
+            }
+            for (SolverJob<TimeTable, Integer> solverJob : solverJobs) {
+                TimeTable componentSolution;
+                try {
+                    componentSolution = solverJob.getFinalBestSolution();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Solving component " + solverJob.getProblemId() + " failed.",
+                            e.getCause());
+                }
+                LOGGER.info("Solved component {} ({} lessons) with score {}", solverJob.getProblemId(),
+                        componentSolution.getLessonList().size(), componentSolution.getScore());
+                merge(componentSolution, lessonsById);
+                if (cache != null) {
+                    cache.put(fingerprints.get(solverJob.getProblemId()), componentSolution);
+                }
+            }
+        }
+
+        // Recalculates the next lessons and the score of the whole problem
+        SolutionManager<TimeTable, HardSoftScore> solutionManager = SolutionManager.create(SolverFactory.create(solverConfig));
+        solutionManager.update(problem);
+        return problem;
+    }
+
+    private static void merge(TimeTable componentSolution, Map<Long, Lesson> lessonsById) {
+        for (Lesson componentLesson : componentSolution.getLessonList()) {
+            Lesson lesson = lessonsById.get(componentLesson.getId());
+            lesson.setTimeslot(componentLesson.getTimeslot());
+            lesson.setRoom(componentLesson.getRoom());
+        }
+    }
+}
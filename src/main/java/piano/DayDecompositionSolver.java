@@ -0,0 +1,162 @@
+package piano;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.Solver;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.api.solver.SolverJob;
+import ai.timefold.solver.core.api.solver.SolverManager;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.SolverManagerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import piano.domain.Lesson;
+import piano.domain.Student;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Solves a week as independent days.
+ * <p>
+ * All constraints only relate lessons of the same day, so once every lesson has a day the days
+ * don't interact anymore. A short solve of the whole week assigns the days, then every day is
+ * solved on its own in parallel with its lessons restricted to that day, and the results are
+ * merged back. Lessons can't change their day after the first solve, which may cost some quality.
+ * Lessons that the first solve didn't assign in time are left out of the days.
+ */
+public class DayDecompositionSolver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DayDecompositionSolver.class);
+
+    private final SolverConfig solverConfig;
+    private final AdaptiveTermination dayAssignmentTermination;
+    private final AdaptiveTermination dayTermination;
+    private final String parallelSolverCount;
+
+    /**
+     * @param solverConfig without termination, used for the day assignment and for every day
+     * @param termination a quarter of its spent limit assigns the days, the rest solves the days
+     * @param parallelSolverCount number of days solved at the same time, e.g. AUTO
+     */
+    public DayDecompositionSolver(SolverConfig solverConfig, AdaptiveTermination termination,
+            String parallelSolverCount) {
+        this.solverConfig = solverConfig;
+        // Termination limits are in milliseconds
+        Duration dayAssignmentSpentLimit = Duration.ofMillis(termination.getSpentLimit().toMillis() / 4L);
+        this.dayAssignmentTermination = termination.withSpentLimit(dayAssignmentSpentLimit);
+        this.dayTermination = termination.withSpentLimit(termination.getSpentLimit().minus(dayAssignmentSpentLimit));
+        this.parallelSolverCount = parallelSolverCount;
+    }
+
+    /**
+     * @return a new solution, the problem is not changed
+     */
+    public TimeTable solve(TimeTable problem) throws InterruptedException {
+        Solver<TimeTable> dayAssignmentSolver = SolverFactory.<TimeTable>create(
+                new SolverConfig(solverConfig).withTerminationConfig(
+                        dayAssignmentTermination.createTerminationConfig(problem))).buildSolver();
+        TimeTable solution = dayAssignmentSolver.solve(problem);
+        LOGGER.info("Assigned days with score {}", solution.getScore());
+        long unassignedCount = solution.getLessonList().stream()
+                .filter(lesson -> lesson.getTimeslot() == null)
+                .count();
+        if (unassignedCount > 0L) {
+            LOGGER.warn("{} lessons got no day within {} and stay unassigned.", unassignedCount,
+                    dayAssignmentTermination.getSpentLimit());
+        }
+
+        Map<DayOfWeek, TimeTable> dayProblems = splitByDay(solution);
+        Map<Long, Lesson> lessonsById = solution.getLessonList().stream()
+                .collect(Collectors.toMap(Lesson::getId, lesson -> lesson));
+
+        SolverConfig daySolverConfig = new SolverConfig(solverConfig)
+                .withTerminationConfig(dayTermination.createSharedTerminationConfig());
+        SolverManagerConfig solverManagerConfig = new SolverManagerConfig()
+                .withParallelSolverCount(parallelSolverCount);
+        try (SolverManager<TimeTable, DayOfWeek> solverManager = SolverManager.create(daySolverConfig, solverManagerConfig);
+                AdaptiveTermination.Monitor<DayOfWeek> monitor = dayTermination.createMonitor(solverManager)) {
+            Map<DayOfWeek, SolverJob<TimeTable, DayOfWeek>> solverJobs = new EnumMap<>(DayOfWeek.class);
+            for (Map.Entry<DayOfWeek, TimeTable> entry : dayProblems.entrySet()) {
+                TimeTable dayProblem = entry.getValue();
+                solverJobs.put(entry.getKey(), solverManager.solveAndListen(entry.getKey(), day -> dayProblem,
+                        monitor.watch(entry.getKey(), dayProblem)));
+            }
+            for (Map.Entry<DayOfWeek, SolverJob<TimeTable, DayOfWeek>> entry : solverJobs.entrySet()) {
+                TimeTable daySolution;
+                try {
+                    daySolution = entry.getValue().getFinalBestSolution();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Solving " + entry.getKey() + " failed.", e.getCause());
+                }
+                LOGGER.info("Solved {} with score {}", entry.getKey(), daySolution.getScore());
+                for (Lesson dayLesson : daySolution.getLessonList()) {
+                    Lesson lesson = lessonsById.get(dayLesson.getId());
+                    lesson.setTimeslot(dayLesson.getTimeslot());
+                    lesson.setRoom(dayLesson.getRoom());
+                }
+            }
+        }
+
+        // Recalculates the next lessons and the score of the merged week
+        SolutionManager<TimeTable, HardSoftScore> solutionManager = SolutionManager.create(SolverFactory.create(solverConfig));
+        solutionManager.update(solution);
+        return solution;
+    }
+
+    /**
+     * Creates one problem per day that has lessons, with copies of the lessons that can only move within their day.
+     */
+    private static Map<DayOfWeek, TimeTable> splitByDay(TimeTable solution) {
+        Map<DayOfWeek, List<Timeslot>> timeslotsByDay = new EnumMap<>(DayOfWeek.class);
+        for (Timeslot timeslot : solution.getTimeslotList()) {
+            timeslotsByDay.computeIfAbsent(timeslot.getDayOfWeek(), day -> new ArrayList<>()).add(timeslot);
+        }
+        // Sorted by start minute of week, like the possible timeslots of a lesson
+        for (List<Timeslot> timeslots : timeslotsByDay.values()) {
+            timeslots.sort((a, b) -> Integer.compare(a.getStartMinuteOfWeek(), b.getStartMinuteOfWeek()));
+        }
+
+        Map<DayOfWeek, List<Lesson>> lessonsByDay = new EnumMap<>(DayOfWeek.class);
+        for (Lesson lesson : solution.getLessonList()) {
+            // The day assignment ran out of time before it placed the lesson, it stays unassigned
+            if (lesson.getTimeslot() == null) {
+                continue;
+            }
+            DayOfWeek day = lesson.getTimeslot().getDayOfWeek();
+            Lesson dayLesson = new Lesson(lesson.getId(), lesson.getSubject(), lesson.getStudent(),
+                    lesson.getStudentGroup(), lesson.getTimeslot(), lesson.getRoom());
+            List<Timeslot> possibleTimeslotList = lesson.getPossibleTimeslotList().stream()
+                    .filter(timeslot -> timeslot.getDayOfWeek() == day)
+                    .collect(Collectors.toList());
+            // The day assignment may have used the fallback range, keep the whole day then
+            dayLesson.setPossibleTimeslotList(possibleTimeslotList.contains(lesson.getTimeslot())
+                    ? possibleTimeslotList : timeslotsByDay.get(day));
+            dayLesson.setPossibleRoomList(lesson.getPossibleRoomList());
+            dayLesson.setWeekMasks(lesson.getWeekMasks());
+            lessonsByDay.computeIfAbsent(day, d -> new ArrayList<>()).add(dayLesson);
+        }
+
+        Map<DayOfWeek, TimeTable> dayProblems = new EnumMap<>(DayOfWeek.class);
+        for (Map.Entry<DayOfWeek, List<Lesson>> entry : lessonsByDay.entrySet()) {
+            List<Student> studentList = new ArrayList<>(entry.getValue().stream()
+                    .map(Lesson::getStudent)
+                    .collect(Collectors.toCollection(LinkedHashSet::new)));
+            TimeTable dayProblem = new TimeTable(timeslotsByDay.get(entry.getKey()),
+                    solution.getRoomList(), solution.getTeacherList(), studentList, entry.getValue());
+            dayProblem.setTravelTimeMatrix(solution.getTravelTimeMatrix());
+            dayProblem.setHorizon(solution.getHorizon());
+            dayProblems.put(entry.getKey(), dayProblem);
+        }
+        return dayProblems;
+    }
+}
@@ -1,11 +0,0 @@
-package piano;
-
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
-public class Global {
-
-    public static Map<String, List<Combination>> map = new HashMap<>();
-    public static Map<String, Integer> durations = new HashMap<>();
-}
@@ -0,0 +1,64 @@
+package piano;
+
+import java.util.Random;
+
+/**
+ * Generates synthetic problems in the plan.txt format, e.g. for benchmarks.
+ */
+public class PlanGenerator {
+
+    private static final String[] DAYS = {"MO", "TU", "WE", "TH", "FR", "SA"};
+    private static final String[] LOCATIONS = {"Innsbruck", "Sistrans"};
+    private static final int[] DURATIONS = {30, 30, 45, 60};
+
+    private static final int FIRST_START_IN_MIN = 8 * 60;
+    private static final int LAST_END_IN_MIN = 19 * 60;
+
+    public static String generatePlan(int studentCount, long seed) {
+        return generatePlan(studentCount, 1, seed);
+    }
+
+    /**
+     * @param teacherCount the students are split evenly between the teachers, who share the locations,
+     *                     every location holds a lesson of every teacher at the same time
+     */
+    public static String generatePlan(int studentCount, int teacherCount, long seed) {
+        Random random = new Random(seed);
+        StringBuilder plan = new StringBuilder();
+        for (String location : LOCATIONS) {
+            plan.append('@').append(location).append(' ').append(teacherCount).append('\n');
+        }
+        int studentsPerTeacher = (studentCount + teacherCount - 1) / teacherCount;
+        for (int i = 0; i < studentCount; i++) {
+            if (teacherCount > 1 && i % studentsPerTeacher == 0) {
+                plan.append('*').append("Teacher").append(i / studentsPerTeacher).append('\n');
+            }
+            int durationInMin = DURATIONS[random.nextInt(DURATIONS.length)];
+            plan.append('+').append("Student").append(i).append('\n');
+            plan.append('.').append(durationInMin).append('\n');
+
+            int windowCount = 1 + random.nextInt(3);
+            for (int j = 0; j < windowCount; j++) {
+                // Window is between the lesson duration and 3 hours longer, on the 5 minute grid
+                int lengthInMin = durationInMin + 5 * random.nextInt(37);
+                int latestStart = LAST_END_IN_MIN - lengthInMin;
+                int start = FIRST_START_IN_MIN + 5 * random.nextInt((latestStart - FIRST_START_IN_MIN) / 5 + 1);
+
+                plan.append('-').append(LOCATIONS[random.nextInt(LOCATIONS.length)]).append('\n');
+                plan.append(DAYS[random.nextInt(DAYS.length)]).append(' ');
+                appendTime(plan, start);
+                plan.append('-');
+                appendTime(plan, start + lengthInMin);
+                plan.append('\n');
+            }
+            plan.append('\n');
+        }
+        return plan.toString();
+    }
+
+    private static void appendTime(StringBuilder plan, int minuteOfDay) {
+        int hour = minuteOfDay / 60;
+        int minute = minuteOfDay % 60;
+        plan.append(hour < 10 ? "0" : "").append(hour).append(':').append(minute < 10 ? "0" : "").append(minute);
+    }
+}
@@ -0,0 +1,31 @@
+package piano;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Thrown by {@link PlanParser} with every error found in a plan, not only the first one.
+ */
+public class PlanParseException extends RuntimeException {
+
+    private final List<LineError> errors;
+
+    public PlanParseException(List<LineError> errors) {
+        super(errors.size() + " error(s) in plan:\n" + errors.stream()
+                .map(LineError::toString)
+                .collect(Collectors.joining("\n")));
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<LineError> getErrors() {
+        return errors;
+    }
+
+    public record LineError(int lineNumber, String line, String message) {
+
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + " (" + line + "): " + message;
+        }
+    }
+}
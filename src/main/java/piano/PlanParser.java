@@ -0,0 +1,474 @@
+package piano;
+
+import piano.domain.Horizon;
+import piano.domain.Recurrence;
+import piano.domain.Room;
+import piano.domain.Student;
+import piano.domain.Teacher;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads problems in the plan.txt format in a single pass:
+ * <pre>
+ * =2024-09-02 12     term of 12 weeks starting on that Monday, optional for a single undated week
+ * !2024-10-28        holiday, no lessons on that date
+ * @Innsbruck 2       location that holds 2 lessons at the same time, the capacity is optional and defaults to 1
+ * *Anna              teacher of the following students, optional for a single teacher
+ * +Thomas            student
+ * .30                lesson duration in minutes
+ * /2+1               every 2 weeks starting with week 1 (the second week), optional for weekly lessons
+ * !2024-11-04        inside a student: exception, this student has no lesson on that date
+ * -Sistrans          location of the following windows
+ * MO 11:00-15:30     window, MO TU WE TH FR SA SU
+ *                    blank line or end of file ends the student
+ * # Comment          ignored, also inside a student
+ * </pre>
+ * The term comes before any holiday or exception. Dates outside the term are ignored. The rooms of the problem are
+ * the declared locations and the locations of the windows, in the order of their first line. Once a location is
+ * declared, or rooms are passed to the parser, every location has to be declared before its first window.
+ * Location names are trimmed.
+ * Every error is collected with its line number and reported at the end in a {@link PlanParseException}.
+ */
+public class PlanParser {
+
+    private static final String DEFAULT_TEACHER_NAME = "Teacher";
+
+    private final List<Room> roomList;
+
+    /**
+     * Takes the rooms from the plan.
+     */
+    public PlanParser() {
+        this(List.of());
+    }
+
+    /**
+     * @param roomList rooms known before the plan, with the indexes 0 to size - 1, e.g. from the travel times,
+     *                 the plan can declare more, but every location must be declared
+     */
+    public PlanParser(List<Room> roomList) {
+        this.roomList = List.copyOf(roomList);
+    }
+
+    public TimeTable parse(Path path) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    public TimeTable parse(InputStream inputStream) throws IOException {
+        return parse(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    public TimeTable parse(Reader reader) throws IOException {
+        BufferedReader bufferedReader = reader instanceof BufferedReader
+                ? (BufferedReader) reader
+                : new BufferedReader(reader, 64 * 1024);
+        State state = new State();
+        String line;
+        while ((line = bufferedReader.readLine()) != null) {
+            state.lineNumber++;
+            parseLine(state, line);
+        }
+        state.endStudent();
+        if (!state.errors.isEmpty()) {
+            throw new PlanParseException(state.errors);
+        }
+        Horizon horizon = state.firstMonday == null
+                ? Horizon.ONE_WEEK
+                : new Horizon(state.firstMonday, state.weekCount, state.holidays);
+        // The students index their windows by room, so they are created once all rooms are known
+        int roomCount = state.roomList.size();
+        List<Student> studentList = new ArrayList<>(state.students.size());
+        for (StudentDefinition student : state.students) {
+            studentList.add(new Student(student.name(), student.teacher(), student.durationInMin(),
+                    student.recurrence(), student.combinations(), roomCount));
+        }
+        return TimeTableApp.createTimeTable(state.roomList, state.teacherList, studentList,
+                TimeTableApp.DEFAULT_GRID_STEP_IN_MIN, horizon);
+    }
+
+    private void parseLine(State state, String line) {
+        int length = line.length();
+        while (length > 0 && Character.isWhitespace(line.charAt(length - 1))) {
+            length--;
+        }
+        if (length == 0) {
+            state.endStudent();
+            return;
+        }
+        switch (line.charAt(0)) {
+            case '#':
+                break;
+            case '=':
+                state.endStudent();
+                parseTerm(state, line, length);
+                break;
+            case '!':
+                LocalDate date = parseDate(state, line, 1, length);
+                if (date == null) {
+                    break;
+                }
+                if (state.firstMonday == null) {
+                    state.error(line, "Date before the term (=YYYY-MM-DD Weeks).");
+                } else if (state.studentName != null) {
+                    state.exceptions.add(date);
+                } else {
+                    state.holidays.add(date);
+                }
+                break;
+            case '/':
+                if (state.requireStudent(line)) {
+                    parseRecurrence(state, line, length);
+                }
+                break;
+            case '@':
+                state.endStudent();
+                parseRoom(state, line, length);
+                break;
+            case '*':
+                state.endStudent();
+                String teacherName = line.substring(1, length);
+                if (teacherName.isEmpty()) {
+                    state.error(line, "Teacher name is empty.");
+                } else {
+                    state.teacher = state.teacher(teacherName);
+                }
+                break;
+            case '+':
+                // A missing blank line between two students is tolerated
+                state.endStudent();
+                state.studentName = line.substring(1, length);
+                state.studentLineNumber = state.lineNumber;
+                state.studentLine = line;
+                if (state.studentName.isEmpty()) {
+                    state.error(line, "Student name is empty.");
+                } else {
+                    // Names identify students, e.g. in problem changes
+                    Integer firstLineNumber = state.studentLineNumbers.putIfAbsent(state.studentName, state.lineNumber);
+                    if (firstLineNumber != null) {
+                        state.error(line, "Student (" + state.studentName + ") is already defined in line "
+                                + firstLineNumber + ".");
+                    }
+                }
+                break;
+            case '.':
+                if (state.requireStudent(line)) {
+                    int durationInMin = parseNumber(line, 1, length);
+                    if (durationInMin <= 0) {
+                        state.error(line, "Duration must be a positive number of minutes.");
+                    } else {
+                        state.durationInMin = durationInMin;
+                    }
+                }
+                break;
+            case '-':
+                if (state.requireStudent(line)) {
+                    String name = line.substring(1, length).trim();
+                    if (name.isEmpty()) {
+                        state.error(line, "Location name is empty.");
+                    } else {
+                        Room room = state.roomsByName.get(name);
+                        if (room != null) {
+                            state.roomLineNumbers.putIfAbsent(name, state.lineNumber);
+                            state.location = room;
+                        } else if (state.roomsDeclared) {
+                            state.error(line, "Unknown location (" + name + "), declare it with @" + name
+                                    + " before its first window.");
+                        } else {
+                            state.location = state.addRoom(name, Room.DEFAULT_CAPACITY);
+                        }
+                    }
+                }
+                break;
+            default:
+                if (state.requireStudent(line)) {
+                    parseWindow(state, line, length);
+                }
+        }
+    }
+
+    /**
+     * @Innsbruck or @Innsbruck 2
+     */
+    private static void parseRoom(State state, String line, int length) {
+        int space = line.lastIndexOf(' ', length - 1);
+        int capacity = space < 0 ? -1 : parseNumber(line, space + 1, length);
+        String name = line.substring(1, capacity < 0 ? length : space).trim();
+        if (name.isEmpty()) {
+            state.error(line, "Location name is empty.");
+        } else if (capacity == 0) {
+            state.error(line, "Capacity must be a positive number of lessons.");
+        } else if (state.roomLineNumbers.containsKey(name)) {
+            state.error(line, "Location (" + name + ") is already declared or used in line "
+                    + state.roomLineNumbers.get(name) + ".");
+        } else {
+            state.roomsDeclared = true;
+            Room knownRoom = state.roomsByName.get(name);
+            if (knownRoom == null) {
+                state.addRoom(name, capacity < 0 ? Room.DEFAULT_CAPACITY : capacity);
+            } else {
+                // A room known before the plan, e.g. from the travel times, takes the capacity of the plan
+                Room room = new Room(knownRoom.getIndex(), name,
+                        capacity < 0 ? knownRoom.getCapacity() : capacity);
+                state.roomList.set(room.getIndex(), room);
+                state.roomsByName.put(name, room);
+                state.roomLineNumbers.put(name, state.lineNumber);
+            }
+        }
+    }
+
+    /**
+     * =2024-09-02 12
+     */
+    private static void parseTerm(State state, String line, int length) {
+        if (state.firstMonday != null) {
+            state.error(line, "The term is already defined.");
+            return;
+        }
+        int space = line.indexOf(' ');
+        if (space < 0 || space >= length) {
+            state.error(line, "Expected a term like \"=2024-09-02 12\".");
+            return;
+        }
+        LocalDate firstMonday = parseDate(state, line, 1, space);
+        if (firstMonday == null) {
+            return;
+        }
+        int weekCount = parseNumber(line, space + 1, length);
+        if (firstMonday.getDayOfWeek() != DayOfWeek.MONDAY) {
+            state.error(line, "The term must start on a Monday.");
+        } else if (weekCount < 1 || weekCount > Horizon.MAX_WEEK_COUNT) {
+            state.error(line, "The term must have 1 to " + Horizon.MAX_WEEK_COUNT + " weeks.");
+        } else {
+            state.firstMonday = firstMonday;
+            state.weekCount = weekCount;
+        }
+    }
+
+    /**
+     * /2 or /2+1
+     */
+    private static void parseRecurrence(State state, String line, int length) {
+        int plus = line.indexOf('+');
+        int end = plus < 0 || plus >= length ? length : plus;
+        int intervalInWeeks = parseNumber(line, 1, end);
+        int firstWeek = end == length ? 0 : parseNumber(line, end + 1, length);
+        if (intervalInWeeks < 1 || firstWeek < 0) {
+            state.error(line, "Expected a recurrence like \"/2\" or \"/2+1\".");
+        } else if (firstWeek >= intervalInWeeks) {
+            state.error(line, "The first week must be smaller than the interval.");
+        } else {
+            state.intervalInWeeks = intervalInWeeks;
+            state.firstWeek = firstWeek;
+        }
+    }
+
+    /**
+     * @return the YYYY-MM-DD date between begin and end, null after reporting an error if it is invalid
+     */
+    private static LocalDate parseDate(State state, String line, int begin, int end) {
+        try {
+            return LocalDate.parse(line.substring(begin, end));
+        } catch (DateTimeParseException e) {
+            state.error(line, "Invalid date, expected YYYY-MM-DD.");
+            return null;
+        }
+    }
+
+    /**
+     * MO 11:00-15:30
+     */
+    private void parseWindow(State state, String line, int length) {
+        if (state.location == null) {
+            state.error(line, "Window before any location (-Location).");
+            return;
+        }
+        if (length != 14 || line.charAt(2) != ' ' || line.charAt(8) != '-') {
+            state.error(line, "Expected a window like \"MO 11:00-15:30\".");
+            return;
+        }
+        DayOfWeek dayOfWeek = parseDay(line.charAt(0), line.charAt(1));
+        if (dayOfWeek == null) {
+            state.error(line, "Unknown day (" + line.substring(0, 2) + "), expected MO, TU, WE, TH, FR, SA or SU.");
+            return;
+        }
+        int from = parseTime(line, 3);
+        int to = parseTime(line, 9);
+        if (from < 0 || to < 0) {
+            state.error(line, "Invalid time, expected HH:MM.");
+            return;
+        }
+        if (from >= to) {
+            state.error(line, "Window must end after it starts.");
+            return;
+        }
+        Combination combination = new Combination(state.location);
+        combination.timeSlot = new Timeslot(dayOfWeek, Timeslot.toLocalTime(from), Timeslot.toLocalTime(to));
+        state.combinations.add(combination);
+    }
+
+    private static DayOfWeek parseDay(char first, char second) {
+        switch (first) {
+            case 'M':
+                return second == 'O' ? DayOfWeek.MONDAY : null;
+            case 'T':
+                return second == 'U' ? DayOfWeek.TUESDAY : second == 'H' ? DayOfWeek.THURSDAY : null;
+            case 'W':
+                return second == 'E' ? DayOfWeek.WEDNESDAY : null;
+            case 'F':
+                return second == 'R' ? DayOfWeek.FRIDAY : null;
+            case 'S':
+                return second == 'A' ? DayOfWeek.SATURDAY : second == 'U' ? DayOfWeek.SUNDAY : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return minute of day of HH:MM at the given offset, -1 if invalid
+     */
+    private static int parseTime(String line, int offset) {
+        if (line.charAt(offset + 2) != ':') {
+            return -1;
+        }
+        int hour = parseNumber(line, offset, offset + 2);
+        int minute = parseNumber(line, offset + 3, offset + 5);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return -1;
+        }
+        return hour * 60 + minute;
+    }
+
+    /**
+     * @return the non-negative number between begin and end, -1 if it contains anything but digits
+     */
+    private static int parseNumber(String line, int begin, int end) {
+        if (begin >= end || end - begin > 9) {
+            return -1;
+        }
+        int number = 0;
+        for (int i = begin; i < end; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    private class State {
+
+        private final List<StudentDefinition> students = new ArrayList<>();
+        private final List<Room> roomList;
+        private final Map<String, Room> roomsByName = new HashMap<>();
+        // Line of the declaration or first use of every room of the plan
+        private final Map<String, Integer> roomLineNumbers = new HashMap<>();
+        // Once rooms are declared, a location must be one of them
+        private boolean roomsDeclared;
+        private final List<PlanParseException.LineError> errors = new ArrayList<>();
+        private final Map<String, Integer> studentLineNumbers = new HashMap<>();
+        private final List<Teacher> teacherList = new ArrayList<>();
+        private final Map<String, Teacher> teachersByName = new HashMap<>();
+        private Teacher teacher = null;
+        private int lineNumber = 0;
+        private LocalDate firstMonday = null;
+        private int weekCount = 1;
+        private final Set<LocalDate> holidays = new HashSet<>();
+
+        private String studentName = null;
+        private int studentLineNumber;
+        private String studentLine;
+        private int durationInMin = 0;
+        private Room location = null;
+        private List<Combination> combinations = new ArrayList<>();
+        private int intervalInWeeks = 1;
+        private int firstWeek = 0;
+        private Set<LocalDate> exceptions = new HashSet<>();
+
+        private State() {
+            roomList = new ArrayList<>(PlanParser.this.roomList);
+            for (Room room : roomList) {
+                roomsByName.put(room.getName(), room);
+            }
+            roomsDeclared = !roomList.isEmpty();
+        }
+
+        private boolean requireStudent(String line) {
+            if (studentName == null) {
+                error(line, "Line outside of a student (+Name).");
+                return false;
+            }
+            return true;
+        }
+
+        private void endStudent() {
+            if (studentName == null) {
+                return;
+            }
+            if (durationInMin == 0) {
+                errors.add(new PlanParseException.LineError(studentLineNumber, studentLine,
+                        "Student (" + studentName + ") has no duration (.Minutes)."));
+            } else {
+                if (teacher == null) {
+                    teacher = teacher(DEFAULT_TEACHER_NAME);
+                }
+                Recurrence recurrence = intervalInWeeks == 1 && exceptions.isEmpty()
+                        ? Recurrence.WEEKLY
+                        : new Recurrence(intervalInWeeks, firstWeek, exceptions);
+                students.add(new StudentDefinition(studentName, teacher, durationInMin, recurrence, combinations));
+            }
+            studentName = null;
+            durationInMin = 0;
+            location = null;
+            combinations = new ArrayList<>();
+            intervalInWeeks = 1;
+            firstWeek = 0;
+            exceptions = new HashSet<>();
+        }
+
+        private Room addRoom(String name, int capacity) {
+            Room room = new Room(roomList.size(), name, capacity);
+            roomList.add(room);
+            roomsByName.put(name, room);
+            roomLineNumbers.put(name, lineNumber);
+            return room;
+        }
+
+        private Teacher teacher(String name) {
+            return teachersByName.computeIfAbsent(name, n -> {
+                Teacher newTeacher = new Teacher(teacherList.size(), n);
+                teacherList.add(newTeacher);
+                return newTeacher;
+            });
+        }
+
+        private void error(String line, String message) {
+            errors.add(new PlanParseException.LineError(lineNumber, line, message));
+        }
+    }
+
+    private record StudentDefinition(String name, Teacher teacher, int durationInMin, Recurrence recurrence,
+            List<Combination> combinations) {
+    }
+}
@@ -0,0 +1,270 @@
+package piano;
+
+import piano.domain.Lesson;
+import piano.domain.Room;
+import piano.domain.Student;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analyses a problem before solving, so that what the solver can't fix doesn't cost a full solve:
+ * <ul>
+ * <li>Windows that are shorter than the lesson or in an unknown location are reported. Students without a
+ * single possible start and room are reported as infeasible, their lessons are left out of the components.</li>
+ * <li>Lessons with exactly one possible start and room are assigned and pinned.</li>
+ * <li>The other lessons are split into independent components. Lessons of the same teacher with a common day
+ * and lessons whose windows overlap in a room are connected, nothing else relates two lessons in the constraints.</li>
+ * </ul>
+ */
+public class Presolver {
+
+    private static final DayOfWeek[] DAYS = DayOfWeek.values();
+
+    /**
+     * Assigns and pins the lessons that have a single possible placement in the problem itself.
+     *
+     * @return the issues and a problem per component, with copies of the lessons
+     */
+    public static Result presolve(TimeTable problem) {
+        List<Issue> issues = new ArrayList<>();
+        int roomCount = problem.getRoomList().size();
+        for (Student student : problem.getStudentList()) {
+            findWindowIssues(student, roomCount, issues);
+        }
+
+        List<Lesson> fixedLessons = new ArrayList<>();
+        List<Lesson> infeasibleLessons = new ArrayList<>();
+        List<Lesson> componentLessons = new ArrayList<>();
+        for (Lesson lesson : problem.getLessonList()) {
+            if (lesson.isPinned() && lesson.getTimeslot() != null && lesson.getRoom() != null) {
+                componentLessons.add(lesson);
+                continue;
+            }
+            List<Placement> placements = findPlacements(lesson, 2);
+            if (placements.isEmpty()) {
+                issues.add(new Issue(lesson.getStudent(), true, "No start on the grid fits any window."));
+                infeasibleLessons.add(lesson);
+                continue;
+            }
+            if (placements.size() == 1) {
+                lesson.setTimeslot(placements.get(0).timeslot());
+                lesson.setRoom(placements.get(0).room());
+                lesson.setPinned(true);
+                fixedLessons.add(lesson);
+            }
+            componentLessons.add(lesson);
+        }
+        findPinnedOverlaps(componentLessons, issues);
+
+        List<TimeTable> components = new ArrayList<>();
+        for (List<Lesson> lessons : findComponents(componentLessons, roomCount)) {
+            components.add(createComponent(problem, lessons));
+        }
+        return new Result(List.copyOf(issues), List.copyOf(fixedLessons), List.copyOf(infeasibleLessons),
+                List.copyOf(components));
+    }
+
+    private static void findWindowIssues(Student student, int roomCount, List<Issue> issues) {
+        for (Combination combination : student.getCombinations()) {
+            Timeslot window = combination.timeSlot;
+            String description = window.getDayOfWeek() + " " + window.getStartTime() + "-" + window.getEndTime()
+                    + " in " + combination.location;
+            if (combination.location.getIndex() < 0 || combination.location.getIndex() >= roomCount) {
+                issues.add(new Issue(student, false, "Window " + description + " is in an unknown location."));
+            } else if (window.getEndMinuteOfDay() - window.getStartMinuteOfDay() < student.getDurationInMin()) {
+                issues.add(new Issue(student, false, "Window " + description + " is shorter than the "
+                        + student.getDurationInMin() + " min lesson."));
+            }
+        }
+    }
+
+    /**
+     * @return the first placements that fit a window, at most limit
+     */
+    private static List<Placement> findPlacements(Lesson lesson, int limit) {
+        Student student = lesson.getStudent();
+        List<Placement> placements = new ArrayList<>(limit);
+        for (Timeslot timeslot : lesson.getPossibleTimeslotList()) {
+            for (Room room : lesson.getPossibleRoomList()) {
+                if (student.isAvailable(timeslot.getDayOfWeek(), room, timeslot.getStartMinuteOfDay())) {
+                    placements.add(new Placement(timeslot, room));
+                    if (placements.size() == limit) {
+                        return placements;
+                    }
+                }
+            }
+        }
+        return placements;
+    }
+
+    /**
+     * Pinned lessons of a teacher that overlap in a common week can never be feasible.
+     * Every lesson is compared with all lessons of the teacher that are still running when it starts, not only
+     * with the previous one: a long lesson can cover several later ones.
+     */
+    private static void findPinnedOverlaps(List<Lesson> lessons, List<Issue> issues) {
+        List<Lesson> pinnedLessons = lessons.stream()
+                .filter(Lesson::isPinned)
+                .sorted(Comparator.comparingInt((Lesson lesson) -> lesson.getTeacher().getIndex())
+                        .thenComparingInt(Lesson::getStartMinuteOfWeek))
+                .toList();
+        List<Lesson> runningLessons = new ArrayList<>();
+        for (Lesson nextLesson : pinnedLessons) {
+            if (!runningLessons.isEmpty() && runningLessons.get(0).getTeacher() != nextLesson.getTeacher()) {
+                runningLessons.clear();
+            }
+            runningLessons.removeIf(lesson -> lesson.getEndMinuteOfWeek() <= nextLesson.getStartMinuteOfWeek());
+            for (Lesson lesson : runningLessons) {
+                if ((lesson.getWeekMask() & nextLesson.getWeekMask()) != 0L) {
+                    issues.add(new Issue(nextLesson.getStudent(), true, "Fixed at " + nextLesson.getTimeslot()
+                            + ", which overlaps the fixed lesson of " + lesson.getStudent() + "."));
+                }
+            }
+            runningLessons.add(nextLesson);
+        }
+    }
+
+    /**
+     * @return the connected components of the conflict graph, in the order of their first lesson
+     */
+    private static List<List<Lesson>> findComponents(List<Lesson> lessons, int roomCount) {
+        int[] parents = new int[lessons.size()];
+        for (int i = 0; i < parents.length; i++) {
+            parents[i] = i;
+        }
+        // Lessons of a teacher are related on every day they have in common, e.g. by the travel time
+        Map<Integer, Integer> firstLessonByTeacherDay = new HashMap<>();
+        // {room * 7 + day, from, to, lesson} for every window, or the placement of a pinned lesson
+        List<int[]> roomIntervals = new ArrayList<>();
+        for (int i = 0; i < lessons.size(); i++) {
+            Lesson lesson = lessons.get(i);
+            int teacherDay = lesson.getTeacher().getIndex() * DAYS.length;
+            if (lesson.isPinned()) {
+                int day = lesson.getTimeslot().getDayOfWeek().ordinal();
+                Integer first = firstLessonByTeacherDay.putIfAbsent(teacherDay + day, i);
+                if (first != null) {
+                    union(parents, first, i);
+                }
+                roomIntervals.add(new int[] {lesson.getRoom().getIndex() * DAYS.length + day,
+                        lesson.getStartMinuteOfDay(), lesson.getEndMinuteOfDay(), i});
+                continue;
+            }
+            Student student = lesson.getStudent();
+            for (DayOfWeek day : DAYS) {
+                if (student.isAvailable(day)) {
+                    Integer first = firstLessonByTeacherDay.putIfAbsent(teacherDay + day.ordinal(), i);
+                    if (first != null) {
+                        union(parents, first, i);
+                    }
+                }
+            }
+            for (Combination combination : student.getCombinations()) {
+                int roomIndex = combination.location.getIndex();
+                Timeslot window = combination.timeSlot;
+                if (roomIndex >= 0 && roomIndex < roomCount
+                        && window.getEndMinuteOfDay() - window.getStartMinuteOfDay() >= student.getDurationInMin()) {
+                    roomIntervals.add(new int[] {roomIndex * DAYS.length + window.getDayOfWeek().ordinal(),
+                            window.getStartMinuteOfDay(), window.getEndMinuteOfDay(), i});
+                }
+            }
+        }
+
+        // Sweep every room and day, overlapping windows form a cluster
+        roomIntervals.sort(Comparator.<int[]>comparingInt(interval -> interval[0])
+                .thenComparingInt(interval -> interval[1]));
+        int clusterKey = -1;
+        int clusterEnd = -1;
+        int clusterLesson = -1;
+        for (int[] interval : roomIntervals) {
+            if (interval[0] == clusterKey && interval[1] < clusterEnd) {
+                union(parents, clusterLesson, interval[3]);
+                clusterEnd = Math.max(clusterEnd, interval[2]);
+            } else {
+                clusterKey = interval[0];
+                clusterEnd = interval[2];
+                clusterLesson = interval[3];
+            }
+        }
+
+        Map<Integer, List<Lesson>> components = new LinkedHashMap<>();
+        for (int i = 0; i < lessons.size(); i++) {
+            components.computeIfAbsent(find(parents, i), root -> new ArrayList<>()).add(lessons.get(i));
+        }
+        return new ArrayList<>(components.values());
+    }
+
+    private static int find(int[] parents, int i) {
+        while (parents[i] != i) {
+            // Path halving
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parents, int a, int b) {
+        int rootA = find(parents, a);
+        int rootB = find(parents, b);
+        if (rootA != rootB) {
+            parents[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    /**
+     * @return a problem with copies of the lessons and the facts of the whole problem
+     */
+    private static TimeTable createComponent(TimeTable problem, List<Lesson> lessons) {
+        List<Lesson> lessonCopies = new ArrayList<>(lessons.size());
+        LinkedHashSet<Student> students = new LinkedHashSet<>();
+        for (Lesson lesson : lessons) {
+            Lesson copy = new Lesson(lesson.getId(), lesson.getSubject(), lesson.getStudent(), lesson.getStudentGroup(),
+                    lesson.getTimeslot(), lesson.getRoom());
+            copy.setPinned(lesson.isPinned());
+            copy.setPossibleTimeslotList(lesson.getPossibleTimeslotList());
+            copy.setPossibleRoomList(lesson.getPossibleRoomList());
+            copy.setWeekMasks(lesson.getWeekMasks());
+            lessonCopies.add(copy);
+            students.add(lesson.getStudent());
+        }
+        TimeTable component = new TimeTable(problem.getTimeslotList(), problem.getRoomList(), problem.getTeacherList(),
+                new ArrayList<>(students), lessonCopies);
+        component.setTravelTimeMatrix(problem.getTravelTimeMatrix());
+        component.setHorizon(problem.getHorizon());
+        return component;
+    }
+
+    /**
+     * @param infeasible true if the student's lesson can never be placed without breaking a hard constraint
+     */
+    public record Issue(Student student, boolean infeasible, String message) {
+
+        @Override
+        public String toString() {
+            return student + ": " + message;
+        }
+    }
+
+    /**
+     * @param fixedLessons lessons of the problem that were assigned and pinned
+     * @param infeasibleLessons lessons of the problem without any possible placement, in no component
+     */
+    public record Result(List<Issue> issues, List<Lesson> fixedLessons, List<Lesson> infeasibleLessons,
+            List<TimeTable> components) {
+
+        public boolean isFeasible() {
+            return issues.stream().noneMatch(Issue::infeasible);
+        }
+    }
+
+    private record Placement(Timeslot timeslot, Room room) {
+    }
+}
@@ -0,0 +1,175 @@
+package piano;
+
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import piano.domain.Horizon;
+import piano.domain.Lesson;
+import piano.domain.Recurrence;
+import piano.domain.Room;
+import piano.domain.Student;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+import piano.domain.TravelTimeMatrix;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Canonical SHA-256 hash of a problem and the solver configuration, the key of the {@link SolutionCache}.
+ * <p>
+ * The hash covers everything a solution depends on: rooms, travel times, horizon, grid, the students with
+ * their teacher, duration, recurrence and windows, the pinned assignments and the solver configuration.
+ * Students are hashed by name and windows by time, so reordering a plan file doesn't change the hash.
+ * Lesson ids and the assignments of lessons that are not pinned are not part of it.
+ */
+public class ProblemFingerprint {
+
+    private static final Comparator<Combination> WINDOW_ORDER = Comparator
+            .comparingInt((Combination combination) -> combination.timeSlot.getStartMinuteOfWeek())
+            .thenComparingInt(combination -> combination.timeSlot.getEndMinuteOfDay())
+            .thenComparing(combination -> combination.location.getName());
+
+    /**
+     * @param variant anything else that changes how the problem is solved, e.g. "presolve=true"
+     */
+    public static String of(TimeTable problem, SolverConfig solverConfig, String variant) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+        try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+            write(out, problem);
+            writeString(out, toXml(solverConfig));
+            writeString(out, variant);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * The solver configuration as the XML of its public JAXB bindings, which covers every setting.
+     */
+    private static String toXml(SolverConfig solverConfig) {
+        StringWriter xml = new StringWriter();
+        try {
+            SolverConfigContext.INSTANCE.createMarshaller().marshal(solverConfig, xml);
+        } catch (JAXBException e) {
+            throw new IllegalStateException("Writing the solver configuration failed.", e);
+        }
+        return xml.toString();
+    }
+
+    private static void write(DataOutputStream out, TimeTable problem) throws IOException {
+        List<Room> roomList = problem.getRoomList();
+        out.writeInt(roomList.size());
+        for (Room room : roomList) {
+            writeString(out, room.getName());
+            out.writeInt(room.getCapacity());
+        }
+        TravelTimeMatrix travelTimeMatrix = problem.getTravelTimeMatrix();
+        for (Room from : roomList) {
+            for (Room to : roomList) {
+                out.writeInt(travelTimeMatrix.getTravelTimeInMin(from, to));
+            }
+        }
+
+        Horizon horizon = problem.getHorizon();
+        out.writeLong(horizon.getFirstMonday() == null ? Long.MIN_VALUE : horizon.getFirstMonday().toEpochDay());
+        out.writeInt(horizon.getWeekCount());
+        writeDates(out, horizon.getHolidays());
+
+        int[] starts = problem.getTimeslotList().stream().mapToInt(Timeslot::getStartMinuteOfWeek).sorted().toArray();
+        out.writeInt(starts.length);
+        for (int start : starts) {
+            out.writeInt(start);
+        }
+
+        List<Student> students = problem.getStudentList().stream()
+                .sorted(Comparator.comparing(Student::getName))
+                .toList();
+        out.writeInt(students.size());
+        for (Student student : students) {
+            writeString(out, student.getName());
+            writeString(out, student.getTeacher().getName());
+            out.writeInt(student.getDurationInMin());
+            Recurrence recurrence = student.getRecurrence();
+            out.writeInt(recurrence.intervalInWeeks());
+            out.writeInt(recurrence.firstWeek());
+            writeDates(out, recurrence.exceptions());
+            List<Combination> windows = student.getCombinations().stream().sorted(WINDOW_ORDER).toList();
+            out.writeInt(windows.size());
+            for (Combination window : windows) {
+                writeString(out, window.location.getName());
+                out.writeInt(window.timeSlot.getStartMinuteOfWeek());
+                out.writeInt(window.timeSlot.getEndMinuteOfDay());
+            }
+        }
+
+        List<Lesson> lessons = problem.getLessonList().stream()
+                .sorted(Comparator.comparing((Lesson lesson) -> lesson.getStudent().getName())
+                        .thenComparingInt(ProblemFingerprint::pinnedStartMinuteOfWeek))
+                .toList();
+        out.writeInt(lessons.size());
+        for (Lesson lesson : lessons) {
+            writeString(out, lesson.getStudent().getName());
+            out.writeBoolean(lesson.isPinned());
+            if (lesson.isPinned()) {
+                out.writeInt(pinnedStartMinuteOfWeek(lesson));
+                writeString(out, lesson.getRoom() == null ? "" : lesson.getRoom().getName());
+            }
+        }
+    }
+
+    private static int pinnedStartMinuteOfWeek(Lesson lesson) {
+        return lesson.isPinned() && lesson.getTimeslot() != null ? lesson.getTimeslot().getStartMinuteOfWeek() : -1;
+    }
+
+    private static void writeDates(DataOutputStream out, Set<LocalDate> dates) throws IOException {
+        long[] epochDays = dates.stream()
+                .mapToLong(LocalDate::toEpochDay)
+                .sorted()
+                .toArray();
+        out.writeInt(epochDays.length);
+        for (long epochDay : epochDays) {
+            out.writeLong(epochDay);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Created on first use, creating a JAXB context takes a while.
+     */
+    private static class SolverConfigContext {
+
+        private static final JAXBContext INSTANCE;
+
+        static {
+            try {
+                INSTANCE = JAXBContext.newInstance(SolverConfig.class);
+            } catch (JAXBException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package piano;
+
+import ai.timefold.solver.core.api.solver.SolverManager;
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import piano.domain.Student;
+import piano.domain.TimeTable;
+import piano.solver.change.AddStudentProblemChange;
+import piano.solver.change.ChangeStudentProblemChange;
+import piano.solver.change.PinLessonsProblemChange;
+import piano.solver.change.RemoveStudentProblemChange;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a solver alive for one time table and re-plans when students change.
+ * <p>
+ * The solver runs as a daemon: once it hasn't improved for the unimproved spent limit it waits for the
+ * next change instead of returning. A change restarts it from the current best solution, so only new or
+ * no longer fitting lessons are placed again by the construction phases and the local search repairs
+ * around them. Pin the lessons that must not move at all.
+ */
+public class ReplanningService implements AutoCloseable {
+
+    private static final Long PROBLEM_ID = 0L;
+
+    private final SolverManager<TimeTable, Long> solverManager;
+    private final AtomicReference<TimeTable> bestSolution = new AtomicReference<>();
+    private final Consumer<TimeTable> bestSolutionConsumer;
+
+    /**
+     * @param solverConfig without termination
+     * @param bestSolutionConsumer called on a solver thread for every new best solution
+     */
+    public ReplanningService(SolverConfig solverConfig, Duration unimprovedSpentLimit,
+            Consumer<TimeTable> bestSolutionConsumer) {
+        SolverConfig daemonConfig = new SolverConfig(solverConfig)
+                .withDaemon(true)
+                .withTerminationConfig(new TerminationConfig().withUnimprovedSpentLimit(unimprovedSpentLimit));
+        this.solverManager = SolverManager.create(daemonConfig);
+        this.bestSolutionConsumer = bestSolutionConsumer;
+    }
+
+    public void start(TimeTable problem) {
+        bestSolution.set(problem);
+        solverManager.solveAndListen(PROBLEM_ID, problemId -> problem, solution -> {
+            bestSolution.set(solution);
+            bestSolutionConsumer.accept(solution);
+        });
+    }
+
+    /**
+     * Takes the subject and the student group from a lesson of the same teacher.
+     *
+     * @param student with locations from the room list of the time table
+     */
+    public CompletableFuture<Void> addStudent(Student student) {
+        return addProblemChange(new AddStudentProblemChange(student));
+    }
+
+    /**
+     * @param student with locations from the room list of the time table
+     */
+    public CompletableFuture<Void> addStudent(Student student, String subject, String studentGroup) {
+        return addProblemChange(new AddStudentProblemChange(student, subject, studentGroup));
+    }
+
+    public CompletableFuture<Void> removeStudent(String studentName) {
+        return addProblemChange(new RemoveStudentProblemChange(studentName));
+    }
+
+    /**
+     * Replaces the student with the same name, e.g. to change windows or the duration.
+     */
+    public CompletableFuture<Void> changeStudent(Student student) {
+        return addProblemChange(new ChangeStudentProblemChange(student));
+    }
+
+    public CompletableFuture<Void> pinLessons(Set<Long> lessonIds, boolean pinned) {
+        return addProblemChange(new PinLessonsProblemChange(lessonIds, pinned));
+    }
+
+    /**
+     * @return completes once the change is applied to the working solution, not once re-planning is done
+     */
+    public CompletableFuture<Void> addProblemChange(ProblemChange<TimeTable> problemChange) {
+        return solverManager.addProblemChange(PROBLEM_ID, problemChange);
+    }
+
+    /**
+     * @return the last best solution, the problem before the first one was found
+     */
+    public TimeTable getBestSolution() {
+        return bestSolution.get();
+    }
+
+    @Override
+    public void close() {
+        solverManager.terminateEarly(PROBLEM_ID);
+        solverManager.close();
+    }
+}
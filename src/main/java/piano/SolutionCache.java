@@ -0,0 +1,161 @@
+package piano;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import piano.domain.Lesson;
+import piano.domain.Room;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Solutions on disk, keyed by {@link ProblemFingerprint}, so that a problem that was solved before is answered
+ * without solving.
+ * <p>
+ * Every solution is a {@link TimeTableBinaryFormat} file named after its fingerprint. A hit refreshes the
+ * modification time of the file, and when the files take more than the maximum size together, the least
+ * recently used ones are deleted.
+ */
+public class SolutionCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SolutionCache.class);
+
+    private final Path directory;
+    private final long maxSizeInBytes;
+
+    public SolutionCache(Path directory, long maxSizeInBytes) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    /**
+     * @return the cached solution, null if there is none or it can't be read
+     */
+    public synchronized TimeTable get(String fingerprint) {
+        Path file = file(fingerprint);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            TimeTable solution = TimeTableBinaryFormat.read(file);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return solution;
+        } catch (IOException e) {
+            LOGGER.warn("Dropping the unreadable cached solution ({}).", file, e);
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    public synchronized void put(String fingerprint, TimeTable solution) {
+        Path file = file(fingerprint);
+        try {
+            // Readers never see a partly written file
+            Path temporaryFile = Files.createTempFile(directory, fingerprint, ".tmp");
+            TimeTableBinaryFormat.write(solution, temporaryFile);
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            evict();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Caching the solution (" + file + ") failed.", e);
+        }
+    }
+
+    /**
+     * Deletes the least recently used solutions until the cache fits its maximum size.
+     */
+    private void evict() throws IOException {
+        List<Path> files = new ArrayList<>();
+        long sizeInBytes = 0L;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + TimeTableBinaryFormat.FILE_EXTENSION)) {
+            for (Path file : stream) {
+                files.add(file);
+                sizeInBytes += Files.size(file);
+            }
+        }
+        if (sizeInBytes <= maxSizeInBytes) {
+            return;
+        }
+        Map<Path, FileTime> lastUsed = new HashMap<>();
+        for (Path file : files) {
+            lastUsed.put(file, Files.getLastModifiedTime(file));
+        }
+        files.sort(Comparator.comparing(lastUsed::get));
+        for (Path file : files) {
+            if (sizeInBytes <= maxSizeInBytes) {
+                break;
+            }
+            sizeInBytes -= Files.size(file);
+            deleteQuietly(file);
+        }
+    }
+
+    private Path file(String fingerprint) {
+        return directory.resolve(fingerprint + TimeTableBinaryFormat.FILE_EXTENSION);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warn("Deleting the cached solution ({}) failed.", file, e);
+        }
+    }
+
+    /**
+     * Gives the lessons of the problem the timeslots and rooms of the cached solution of the same problem.
+     * Students can have several lessons, they are matched in order.
+     *
+     * @return false without changing the problem if a lesson has no counterpart in the cached solution
+     */
+    public static boolean apply(TimeTable cachedSolution, TimeTable problem) {
+        Map<String, Room> roomsByName = new HashMap<>();
+        for (Room room : problem.getRoomList()) {
+            roomsByName.put(room.getName(), room);
+        }
+        Map<String, Deque<Lesson>> cachedLessonsByStudent = new HashMap<>();
+        for (Lesson cachedLesson : cachedSolution.getLessonList()) {
+            cachedLessonsByStudent.computeIfAbsent(cachedLesson.getStudent().getName(), name -> new ArrayDeque<>())
+                    .add(cachedLesson);
+        }
+        List<Timeslot> timeslots = new ArrayList<>(problem.getLessonList().size());
+        List<Room> rooms = new ArrayList<>(problem.getLessonList().size());
+        for (Lesson lesson : problem.getLessonList()) {
+            Deque<Lesson> cachedLessons = cachedLessonsByStudent.get(lesson.getStudent().getName());
+            Lesson cachedLesson = cachedLessons == null ? null : cachedLessons.poll();
+            if (cachedLesson == null) {
+                return false;
+            }
+            Timeslot timeslot = null;
+            Room room = null;
+            if (cachedLesson.getTimeslot() != null && cachedLesson.getRoom() != null) {
+                timeslot = lesson.findPossibleTimeslot(cachedLesson.getTimeslot().getStartMinuteOfWeek());
+                room = roomsByName.get(cachedLesson.getRoom().getName());
+                if (timeslot == null || room == null) {
+                    return false;
+                }
+            }
+            timeslots.add(timeslot);
+            rooms.add(room);
+        }
+        for (int i = 0; i < problem.getLessonList().size(); i++) {
+            problem.getLessonList().get(i).setTimeslot(timeslots.get(i));
+            problem.getLessonList().get(i).setRoom(rooms.get(i));
+        }
+        problem.setScore(cachedSolution.getScore());
+        return true;
+    }
+}
@@ -0,0 +1,260 @@
+package piano;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.score.constraint.ConstraintMatchTotal;
+import ai.timefold.solver.core.api.score.stream.Constraint;
+import ai.timefold.solver.core.api.score.stream.ConstraintFactory;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.Solver;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.api.solver.event.BestSolutionChangedEvent;
+import ai.timefold.solver.core.api.solver.event.SolverEventListener;
+import ai.timefold.solver.core.config.score.director.ScoreDirectorFactoryConfig;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.monitoring.MonitoringConfig;
+import ai.timefold.solver.core.config.solver.monitoring.SolverMetric;
+import ai.timefold.solver.core.impl.localsearch.scope.LocalSearchStepScope;
+import ai.timefold.solver.core.impl.phase.event.PhaseLifecycleListenerAdapter;
+import ai.timefold.solver.core.impl.phase.scope.AbstractPhaseScope;
+import ai.timefold.solver.core.impl.phase.scope.AbstractStepScope;
+import ai.timefold.solver.core.impl.solver.DefaultSolver;
+import ai.timefold.solver.core.impl.solver.scope.SolverScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import piano.domain.TimeTable;
+import piano.solver.TimeTableConstraintProvider;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records what a solver spends its time on: score calculation and move evaluation speed, the best score
+ * timeline and the time to the first feasible solution.
+ * <p>
+ * Live values are exposed as the JMX bean piano:type=SolverTelemetry. Timefold's own Micrometer metrics,
+ * including the score per constraint, are enabled with {@link #withMetrics(SolverConfig)} and published to
+ * Micrometer's global registry. {@link #logSummary(TimeTable, SolutionManager)} logs the totals and the
+ * matches and score per constraint at the end of a run, {@link #logConstraintCosts(TimeTable, SolverConfig)}
+ * the time every constraint takes.
+ */
+public class SolverTelemetry implements SolverEventListener<TimeTable>, SolverTelemetryMXBean, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SolverTelemetry.class);
+
+    private static final int CONSTRAINT_COST_WARM_UP_COUNT = 3;
+    private static final int CONSTRAINT_COST_MEASUREMENT_COUNT = 10;
+
+    private final List<TimelineEntry> bestScoreTimeline = new ArrayList<>();
+    private final ObjectName objectName;
+
+    // Written by the solver thread, read by JMX
+    private volatile String bestScore;
+    private volatile long timeToFeasibleMillis = -1L;
+    private volatile long timeMillisSpent;
+    private volatile long scoreCalculationCount;
+    private volatile long moveEvaluationCount;
+    private volatile long stepCount;
+
+    public SolverTelemetry(String name) {
+        try {
+            objectName = new ObjectName("piano:type=SolverTelemetry,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Registering the telemetry bean (" + name + ") failed.", e);
+        }
+    }
+
+    public static SolverConfig withMetrics(SolverConfig solverConfig) {
+        return solverConfig.withMonitoringConfig(new MonitoringConfig().withSolverMetricList(List.of(
+                SolverMetric.SOLVE_DURATION,
+                SolverMetric.SCORE_CALCULATION_COUNT,
+                SolverMetric.BEST_SCORE,
+                SolverMetric.MOVE_COUNT_PER_STEP,
+                SolverMetric.CONSTRAINT_MATCH_TOTAL_BEST_SCORE)));
+    }
+
+    public void attach(Solver<TimeTable> solver) {
+        solver.addEventListener(this);
+        // Step and phase events are not part of the public API
+        ((DefaultSolver<TimeTable>) solver).addPhaseLifecycleListener(new PhaseLifecycleListenerAdapter<>() {
+
+            private long phaseStartingScoreCalculationCount;
+
+            @Override
+            public void solvingStarted(SolverScope<TimeTable> solverScope) {
+                moveEvaluationCount = 0L;
+                stepCount = 0L;
+            }
+
+            @Override
+            public void phaseStarted(AbstractPhaseScope<TimeTable> phaseScope) {
+                phaseStartingScoreCalculationCount = phaseScope.getSolverScope().getScoreCalculationCount();
+            }
+
+            @Override
+            public void stepEnded(AbstractStepScope<TimeTable> stepScope) {
+                if (stepScope instanceof LocalSearchStepScope<TimeTable> localSearchStepScope
+                        && localSearchStepScope.getSelectedMoveCount() != null) {
+                    moveEvaluationCount += localSearchStepScope.getSelectedMoveCount();
+                }
+                stepCount++;
+                SolverScope<TimeTable> solverScope = stepScope.getPhaseScope().getSolverScope();
+                scoreCalculationCount = solverScope.getScoreCalculationCount();
+                timeMillisSpent = solverScope.calculateTimeMillisSpentUpToNow();
+            }
+
+            @Override
+            public void phaseEnded(AbstractPhaseScope<TimeTable> phaseScope) {
+                // The solver notifies its listeners before the phase scope records its end
+                long phaseTimeMillisSpent = phaseScope.calculatePhaseTimeMillisSpentUpToNow();
+                long phaseScoreCalculationCount = phaseScope.getSolverScope().getScoreCalculationCount()
+                        - phaseStartingScoreCalculationCount;
+                LOGGER.info("{} took {} ms at {} score calculations/s, best score {}.",
+                        phaseScope.getClass().getSimpleName(), phaseTimeMillisSpent,
+                        phaseTimeMillisSpent == 0L ? 0L : phaseScoreCalculationCount * 1000L / phaseTimeMillisSpent,
+                        phaseScope.getBestScore());
+            }
+
+            @Override
+            public void solvingEnded(SolverScope<TimeTable> solverScope) {
+                scoreCalculationCount = solverScope.getScoreCalculationCount();
+                timeMillisSpent = solverScope.calculateTimeMillisSpentUpToNow();
+            }
+        });
+    }
+
+    @Override
+    public void bestSolutionChanged(BestSolutionChangedEvent<TimeTable> event) {
+        HardSoftScore score = event.getNewBestSolution().getScore();
+        synchronized (bestScoreTimeline) {
+            bestScoreTimeline.add(new TimelineEntry(event.getTimeMillisSpent(), score));
+        }
+        bestScore = score.toString();
+        if (timeToFeasibleMillis < 0L && score.isFeasible()) {
+            timeToFeasibleMillis = event.getTimeMillisSpent();
+        }
+    }
+
+    /**
+     * Logs the totals and, scoring the solution once, the matches and score of every constraint.
+     */
+    public void logSummary(TimeTable solution, SolutionManager<TimeTable, HardSoftScore> solutionManager) {
+        LOGGER.info("Solved in {} ms: {} steps, {} score calculations/s, {} moves/s, feasible after {} ms, {} best scores.",
+                timeMillisSpent, stepCount, getScoreCalculationSpeed(), getMoveEvaluationSpeed(),
+                timeToFeasibleMillis < 0L ? "never" : timeToFeasibleMillis, getBestScoreTimeline().size());
+        solutionManager.explain(solution).getConstraintMatchTotalMap().values().stream()
+                .sorted(Comparator.comparing(ConstraintMatchTotal::getScore))
+                .forEach(constraintMatchTotal -> LOGGER.info("  {}: {} matches, score {}",
+                        constraintMatchTotal.getConstraintRef().constraintName(), constraintMatchTotal.getConstraintMatchCount(),
+                        constraintMatchTotal.getScore()));
+    }
+
+    /**
+     * Logs the time each constraint takes to score the solution from scratch on its own, the slowest first.
+     * Timefold 1.4 doesn't measure the time per constraint while solving, so every constraint is scored alone with
+     * a {@link SingleConstraintProvider}. Incremental scoring costs less, but a constraint whose lambdas
+     * suddenly dominate shows up here as well.
+     *
+     * @return the average milliseconds per score calculation by constraint name
+     */
+    public Map<String, Double> logConstraintCosts(TimeTable solution, SolverConfig solverConfig) {
+        HardSoftScore score = solution.getScore();
+        List<String> constraintNames = SolutionManager.<TimeTable, HardSoftScore>create(SolverFactory.create(solverConfig))
+                .explain(solution).getConstraintMatchTotalMap().values().stream()
+                .map(constraintMatchTotal -> constraintMatchTotal.getConstraintRef().constraintName())
+                .toList();
+        Map<String, Double> costs = new LinkedHashMap<>();
+        for (String constraintName : constraintNames) {
+            SolverConfig singleConstraintConfig = new SolverConfig(solverConfig)
+                    .withScoreDirectorFactory(new ScoreDirectorFactoryConfig()
+                            .withConstraintProviderClass(SingleConstraintProvider.class)
+                            .withConstraintProviderCustomProperties(Map.of("constraintName", constraintName)));
+            SolutionManager<TimeTable, HardSoftScore> solutionManager =
+                    SolutionManager.create(SolverFactory.create(singleConstraintConfig));
+            for (int i = 0; i < CONSTRAINT_COST_WARM_UP_COUNT; i++) {
+                solutionManager.update(solution);
+            }
+            long startNanos = System.nanoTime();
+            for (int i = 0; i < CONSTRAINT_COST_MEASUREMENT_COUNT; i++) {
+                solutionManager.update(solution);
+            }
+            costs.put(constraintName, (System.nanoTime() - startNanos) / 1_000_000.0 / CONSTRAINT_COST_MEASUREMENT_COUNT);
+        }
+        // Scored with a single constraint last
+        solution.setScore(score);
+        costs.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .forEach(entry -> LOGGER.info("  {}: {} ms per score calculation",
+                        entry.getKey(), String.format("%.3f", entry.getValue())));
+        return costs;
+    }
+
+    public List<TimelineEntry> getBestScoreTimeline() {
+        synchronized (bestScoreTimeline) {
+            return List.copyOf(bestScoreTimeline);
+        }
+    }
+
+    @Override
+    public String getBestScore() {
+        return bestScore;
+    }
+
+    @Override
+    public long getTimeToFeasibleMillis() {
+        return timeToFeasibleMillis;
+    }
+
+    @Override
+    public long getTimeMillisSpent() {
+        return timeMillisSpent;
+    }
+
+    @Override
+    public long getScoreCalculationSpeed() {
+        return timeMillisSpent == 0L ? 0L : scoreCalculationCount * 1000L / timeMillisSpent;
+    }
+
+    @Override
+    public long getMoveEvaluationSpeed() {
+        return timeMillisSpent == 0L ? 0L : moveEvaluationCount * 1000L / timeMillisSpent;
+    }
+
+    @Override
+    public void close() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            LOGGER.warn("Unregistering the telemetry bean failed.", e);
+        }
+    }
+
+    public record TimelineEntry(long timeMillisSpent, HardSoftScore bestScore) {
+    }
+
+    /**
+     * Only the constraint of {@link TimeTableConstraintProvider} that is named by the custom property constraintName.
+     */
+    public static class SingleConstraintProvider extends TimeTableConstraintProvider {
+
+        private String constraintName;
+
+        @Override
+        public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+            return Arrays.stream(super.defineConstraints(constraintFactory))
+                    .filter(constraint -> constraint.getConstraintRef().constraintName().equals(constraintName))
+                    .toArray(Constraint[]::new);
+        }
+
+        public void setConstraintName(String constraintName) {
+            this.constraintName = constraintName;
+        }
+    }
+}
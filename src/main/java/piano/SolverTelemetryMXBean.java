@@ -0,0 +1,23 @@
+package piano;
+
+/**
+ * Live solver values, see {@link SolverTelemetry}.
+ */
+public interface SolverTelemetryMXBean {
+
+    String getBestScore();
+
+    /**
+     * @return -1 while no feasible solution has been found
+     */
+    long getTimeToFeasibleMillis();
+
+    long getTimeMillisSpent();
+
+    long getScoreCalculationSpeed();
+
+    /**
+     * @return moves evaluated per second by the local search
+     */
+    long getMoveEvaluationSpeed();
+}
@@ -1,174 +1,466 @@
 package piano;
 
+import ai.timefold.solver.core.api.solver.SolutionManager;
 import ai.timefold.solver.core.api.solver.Solver;
 import ai.timefold.solver.core.api.solver.SolverFactory;
-import ai.timefold.solver.core.api.solver.event.BestSolutionChangedEvent;
-import ai.timefold.solver.core.api.solver.event.SolverEventListener;
+import ai.timefold.solver.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import ai.timefold.solver.core.config.heuristic.selector.common.SelectionCacheType;
+import ai.timefold.solver.core.config.heuristic.selector.move.MoveSelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.composite.UnionMoveSelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.factory.MoveIteratorFactoryConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.factory.MoveListFactoryConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.generic.ChangeMoveSelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.generic.SwapMoveSelectorConfig;
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.phase.custom.CustomPhaseConfig;
 import ai.timefold.solver.core.config.solver.EnvironmentMode;
 import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.SolverManagerConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import piano.domain.Horizon;
 import piano.domain.Lesson;
+import piano.domain.Recurrence;
 import piano.domain.Room;
+import piano.domain.Student;
+import piano.domain.Teacher;
 import piano.domain.TimeTable;
 import piano.domain.Timeslot;
+import piano.domain.TravelTimeMatrix;
+import piano.solver.GreedyInitializer;
 import piano.solver.TimeTableConstraintProvider;
+import piano.solver.move.AdjacentLessonSwapMoveListFactory;
+import piano.solver.move.ShiftLessonMoveIteratorFactory;
+import piano.solver.move.WindowChangeMoveIteratorFactory;
 
-import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.time.DayOfWeek;
 import java.time.Duration;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class TimeTableApp {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TimeTableApp.class);
 
+    public static final int DEFAULT_GRID_STEP_IN_MIN = 5;
+    public static final String DEFAULT_SUBJECT = "Piano";
+    public static final String DEFAULT_STUDENT_GROUP = "Year 1";
+
+    /**
+     * Arguments are key=value pairs:
+     * <pre>
+     * plan=path/to/plan.txt   defaults to the plan.txt resource, a .ttb file is read as binary snapshot
+     * moveThreadCount=NONE    only NONE, move threads need Timefold Enterprise Edition
+     * publishInterval=PT1S    at most one best solution output per interval
+     * output=path             also write the best solution to this file
+     * travelTimes=path.csv    travel minutes between the rooms, see TravelTimeMatrix
+     * gridSteps=5             start slot grid in minutes, several from coarse to fine (e.g. 30,15,5) solve on each in turn
+     * previous=path           start from a solution written with output=path, e.g. last week's
+     * telemetry=false         Micrometer metrics, a JMX bean and an end-of-run summary and time per constraint
+     * explain=false           log the score per constraint and the reasons per lesson of the final solution
+     * decompose=false         assign the days first, then solve every day in parallel for the same time limit
+     * presolve=false          report infeasible students, pin lessons with a single placement, solve independent parts in parallel
+     * cache=path              directory of solutions by problem fingerprint, identical problems and components are not solved again
+     * cacheSizeMb=256         the least recently used solutions are deleted beyond this size
+     * spentLimit=PT3S         hard cap, the solver stops earlier at the target or on a plateau, see AdaptiveTermination
+     * target=bound            bound stops at the best possible score, feasible at the first feasible score, none never
+     * plateau=PT0.5S          stop without improvement for this long plus plateauPerLesson=PT0.01S per lesson
+     * </pre>
+     */
     public static void main(String[] args) throws Exception {
+        Arguments arguments = new Arguments(args);
+
+        SolverConfig config = createSolverConfig()
+                .withMoveThreadCount(checkMoveThreadCount(arguments.get("moveThreadCount", SolverConfig.MOVE_THREAD_COUNT_NONE)));
+
+        // Load the problem, every location of the plan has to be in the travel times if there are any
+        Path travelTimesFile = arguments.has("travelTimes") ? Path.of(arguments.get("travelTimes", null)) : null;
+        List<Room> travelRoomList = travelTimesFile != null ? TravelTimeMatrix.readRooms(travelTimesFile) : List.of();
+        TimeTable problem = arguments.has("plan")
+                ? loadProblem(Path.of(arguments.get("plan", null)), travelRoomList)
+                : generateDemoDataFile(travelRoomList);
+        if (travelTimesFile != null) {
+            problem.setTravelTimeMatrix(TravelTimeMatrix.read(travelTimesFile, problem.getRoomList()));
+        }
+        int[] gridStepsInMin = Arrays.stream(arguments.get("gridSteps", String.valueOf(DEFAULT_GRID_STEP_IN_MIN)).split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        if (gridStepsInMin.length == 1 && gridStepsInMin[0] != DEFAULT_GRID_STEP_IN_MIN) {
+            problem = regrid(problem, gridStepsInMin[0]);
+        }
+        if (arguments.has("previous")) {
+            int warmStartedCount = WarmStart.apply(problem, TimetableSnapshot.read(Path.of(arguments.get("previous", null))));
+            LOGGER.info("Started {} of {} lessons from the previous solution.", warmStartedCount, problem.getLessonList().size());
+        }
+        // Stops at the target, on a plateau that grows with the lessons or at the spent limit
+        AdaptiveTermination termination = AdaptiveTermination.of(arguments, Duration.ofSeconds(3));
+        config.withTerminationConfig(termination.createTerminationConfig(problem));
+        LOGGER.info("Solving until {}, no improvement for {} or {}.", termination.getTargetScore(problem),
+                termination.getPlateau(problem), config.getTerminationConfig().getSpentLimit());
+
+        List<Consumer<TimetableSnapshot>> sinks = new ArrayList<>();
+        sinks.add(BestSolutionPublisher.logSink(LOGGER));
+        if (arguments.has("output")) {
+            sinks.add(BestSolutionPublisher.fileSink(Path.of(arguments.get("output", null))));
+        }
+
+        boolean decompose = Boolean.parseBoolean(arguments.get("decompose", "false"));
+        boolean presolve = Boolean.parseBoolean(arguments.get("presolve", "false"));
+        SolutionCache cache = null;
+        String fingerprint = null;
+        if (arguments.has("cache")) {
+            cache = new SolutionCache(Path.of(arguments.get("cache", null)),
+                    Long.parseLong(arguments.get("cacheSizeMb", "256")) * 1024L * 1024L);
+            // Fingerprinted before presolving pins lessons
+            fingerprint = ProblemFingerprint.of(problem, config, "decompose=" + decompose + ",presolve=" + presolve
+                    + ",gridSteps=" + Arrays.toString(gridStepsInMin));
+            TimeTable cachedSolution = cache.get(fingerprint);
+            if (cachedSolution != null && SolutionCache.apply(cachedSolution, problem)) {
+                LOGGER.info("Reused the cached solution {}.", fingerprint);
+                publish(problem, sinks);
+                return;
+            }
+        }
+
+        if (decompose || presolve || gridStepsInMin.length > 1) {
+            SolverConfig solverConfig = createSolverConfig().withMoveThreadCount(config.getMoveThreadCount());
+            TimeTable solution;
+            if (decompose) {
+                solution = new DayDecompositionSolver(solverConfig, termination,
+                        SolverManagerConfig.PARALLEL_SOLVER_COUNT_AUTO)
+                        .solve(problem);
+            } else if (presolve) {
+                solution = new ComponentSolver(solverConfig, termination,
+                        SolverManagerConfig.PARALLEL_SOLVER_COUNT_AUTO, cache)
+                        .solve(problem);
+            } else {
+                solution = new CoarseToFineSolver(solverConfig, gridStepsInMin, termination)
+                        .solve(problem);
+            }
+            publish(solution, sinks);
+            if (cache != null) {
+                cache.put(fingerprint, solution);
+            }
+            return;
+        }
+
+        boolean telemetryEnabled = Boolean.parseBoolean(arguments.get("telemetry", "false"));
+        if (telemetryEnabled) {
+            SolverTelemetry.withMetrics(config);
+        }
+
+        // Solve the problem
+        SolverFactory<TimeTable> solverFactory = SolverFactory.create(config);
+        Solver<TimeTable> solver = solverFactory.buildSolver();
+        SolverTelemetry telemetry = telemetryEnabled ? new SolverTelemetry("TimeTableApp") : null;
+        if (telemetry != null) {
+            telemetry.attach(solver);
+        }
+        // Visualize the best solutions without slowing down the solver, the last one is published on close
+        TimeTable solution;
+        try (BestSolutionPublisher publisher = new BestSolutionPublisher(
+                Duration.parse(arguments.get("publishInterval", "PT1S")), sinks)) {
+            solver.addEventListener(publisher);
+            solution = solver.solve(problem);
+        }
+        if (cache != null) {
+            cache.put(fingerprint, solution);
+        }
+        if (telemetry != null) {
+            telemetry.logSummary(solution, SolutionManager.create(solverFactory));
+            telemetry.logConstraintCosts(solution, config);
+            telemetry.close();
+        }
+        if (Boolean.parseBoolean(arguments.get("explain", "false"))) {
+            new TimeTableExplainer(solverFactory).explain(solution).toLines().forEach(LOGGER::info);
+        }
+    }
 
+    private static void publish(TimeTable solution, List<Consumer<TimetableSnapshot>> sinks) {
+        TimetableSnapshot snapshot = TimetableSnapshot.of(solution);
+        sinks.forEach(sink -> sink.accept(snapshot));
+    }
 
+    /**
+     * Multithreaded incremental solving is part of Timefold's Enterprise Edition, which this build doesn't include.
+     * Timefold would run AUTO on the solver thread without a word and fail on a number once solving starts.
+     *
+     * @return the move thread count if it is NONE
+     * @throws IllegalArgumentException for any other move thread count
+     */
+    public static String checkMoveThreadCount(String moveThreadCount) {
+        if (!SolverConfig.MOVE_THREAD_COUNT_NONE.equals(moveThreadCount)) {
+            throw new IllegalArgumentException("The move thread count (" + moveThreadCount + ") must be "
+                    + SolverConfig.MOVE_THREAD_COUNT_NONE + ": multithreaded solving needs Timefold Enterprise Edition,"
+                    + " which is not on the classpath. Solve several problems in parallel with the batch mode,"
+                    + " decompose=true or presolve=true instead.");
+        }
+        return moveThreadCount;
+    }
+
+    /**
+     * Solver configuration shared by the app and the benchmarks, without termination.
+     * Benchmarks that compare algorithms replace the phases.
+     */
+    public static SolverConfig createSolverConfig() {
         SolverConfig config = new SolverConfig()
                 .withSolutionClass(TimeTable.class)
                 .withEntityClasses(Lesson.class)
                 .withConstraintProviderClass(TimeTableConstraintProvider.class)
-
-                // The solver runs only for 5 seconds on this small dataset.
-                // It's recommended to run for at least 5 minutes ("5m") otherwise.
-                .withTerminationSpentLimit(Duration.ofSeconds(3));
+                .withPhases(
+                        createGreedyInitializerPhaseConfig(),
+                        // Assigns the lessons the greedy initializer couldn't place without overlap
+                        new ConstructionHeuristicPhaseConfig(),
+                        new LocalSearchPhaseConfig().withMoveSelectorConfig(createMoveSelectorConfig()));
         config.setEnvironmentMode(EnvironmentMode.REPRODUCIBLE);
+        return config;
+    }
 
-        SolverFactory<TimeTable> solverFactory = SolverFactory.create(config);
+    public static CustomPhaseConfig createGreedyInitializerPhaseConfig() {
+        return new CustomPhaseConfig().withCustomPhaseCommandClassList(List.of(GreedyInitializer.class));
+    }
 
-        // Load the problem
-        TimeTable problem = generateDemoDataFile();
+    /**
+     * The generic change and swap moves, plus moves that keep lessons inside the students' windows.
+     */
+    public static MoveSelectorConfig<?> createMoveSelectorConfig() {
+        MoveListFactoryConfig adjacentSwapConfig = new MoveListFactoryConfig()
+                .withMoveListFactoryClass(AdjacentLessonSwapMoveListFactory.class);
+        // The neighbours change every step
+        adjacentSwapConfig.setCacheType(SelectionCacheType.STEP);
+        return new UnionMoveSelectorConfig(List.of(
+                new ChangeMoveSelectorConfig(),
+                new SwapMoveSelectorConfig(),
+                new MoveIteratorFactoryConfig().withMoveIteratorFactoryClass(ShiftLessonMoveIteratorFactory.class),
+                new MoveIteratorFactoryConfig().withMoveIteratorFactoryClass(WindowChangeMoveIteratorFactory.class),
+                adjacentSwapConfig));
+    }
 
-        // Solve the problem
-        Solver<TimeTable> solver = solverFactory.buildSolver();
+    public static TimeTable loadProblem(Path file) throws IOException {
+        return loadProblem(file, List.of());
+    }
 
-        solver.addEventListener(bestSolutionChangedEvent -> {
-            printTimetableFile(bestSolutionChangedEvent.getNewBestSolution());
-            LOGGER.info("Score: " + bestSolutionChangedEvent.getNewBestScore());
-        });
+    /**
+     * @param roomList the rooms a plan may use besides its own, ignored for binary snapshots
+     */
+    public static TimeTable loadProblem(Path file, List<Room> roomList) throws IOException {
+        return file.toString().endsWith(TimeTableBinaryFormat.FILE_EXTENSION)
+                ? TimeTableBinaryFormat.read(file)
+                : new PlanParser(roomList).parse(file);
+    }
 
-        TimeTable solution = solver.solve(problem);
+    public static TimeTable generateDemoDataFile() throws Exception {
+        return generateDemoDataFile(List.of());
+    }
 
-        // Visualize the solution
-        printTimetableFile(solution);
+    public static TimeTable generateDemoDataFile(List<Room> roomList) throws Exception {
+        try (InputStream inputStream = TimeTableApp.class.getResourceAsStream("/plan.txt")) {
+            return new PlanParser(roomList).parse(inputStream);
+        }
     }
 
-    public static TimeTable generateDemoDataFile() throws Exception {
+    /**
+     * Creates the problem with one lesson per student on a 5 minute grid from 08:00 to 19:00.
+     */
+    public static TimeTable createTimeTable(List<Room> locationList, List<Teacher> teacherList, List<Student> studentList) {
+        return createTimeTable(locationList, teacherList, studentList, DEFAULT_GRID_STEP_IN_MIN, Horizon.ONE_WEEK);
+    }
+
+    /**
+     * Creates an unsolved copy of the problem on another grid, with the same rooms, teachers, students, horizon
+     * and travel times.
+     */
+    public static TimeTable regrid(TimeTable problem, int gridStepInMin) {
+        TimeTable timeTable = createTimeTable(problem.getRoomList(), problem.getTeacherList(), problem.getStudentList(),
+                gridStepInMin, problem.getHorizon());
+        timeTable.setTravelTimeMatrix(problem.getTravelTimeMatrix());
+        return timeTable;
+    }
 
-        List<Room> locationList = new ArrayList<>();
-        locationList.add(new Room("Innsbruck"));
-        locationList.add(new Room("Sistrans"));
+    /**
+     * Creates the problem on a grid from 08:00 to 19:00 with one lesson series per student, which takes place
+     * in the weeks of the horizon given by the student's recurrence.
+     */
+    public static TimeTable createTimeTable(List<Room> locationList, List<Teacher> teacherList, List<Student> studentList,
+            int gridStepInMin, Horizon horizon) {
+        if (gridStepInMin <= 0) {
+            throw new IllegalArgumentException("The grid step (" + gridStepInMin + ") must be a positive number of minutes.");
+        }
+
+        List<Timeslot> timeSlotList = new ArrayList<>();
+        Map<DayOfWeek, List<Timeslot>> timeSlotsByDay = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            timeSlotsByDay.put(dayOfWeek, new ArrayList<>());
+        }
+
+        LocalTime begin = LocalTime.of(8, 0);
+        while(begin.getHour() < 19) {
+            for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                Timeslot timeslot = new Timeslot(dayOfWeek, begin);
+                timeSlotList.add(timeslot);
+                timeSlotsByDay.get(dayOfWeek).add(timeslot);
+            }
+            begin = begin.plusMinutes(gridStepInMin);
+        }
 
-        List<Lesson> lessonList = new ArrayList<>();
+        ValueRanges valueRanges = new ValueRanges(timeSlotsByDay, locationList);
+        // Lessons with the same recurrence share their week masks
+        Map<Recurrence, long[]> weekMasksByRecurrence = new HashMap<>();
+        List<Lesson> lessonList = new ArrayList<>(studentList.size());
         long id = 0;
+        for (Student student : studentList) {
+            Lesson lesson = new Lesson(id++, DEFAULT_SUBJECT, student, DEFAULT_STUDENT_GROUP);
+            valueRanges.initialize(lesson);
+            lesson.setWeekMasks(weekMasksByRecurrence.computeIfAbsent(student.getRecurrence(),
+                    recurrence -> recurrence.weekMasks(horizon)));
+            lessonList.add(lesson);
+        }
 
-        File file = new File("/Users/daniel/Documents/dev/CSP/CSP_WD/src/main/resources/plan.txt");
-        Scanner sc = new Scanner(file);
+        TimeTable timeTable = new TimeTable(timeSlotList, locationList, teacherList, studentList, lessonList);
+        timeTable.setHorizon(horizon);
+        timeTable.setTravelTimeMatrix(TravelTimeMatrix.uniform(locationList.size(), TravelTimeMatrix.DEFAULT_TRAVEL_TIME_IN_MIN));
+        return timeTable;
+    }
 
-        String student = null;
-        Room location = null;
-        List<Combination> combinations = new ArrayList<>();
+    /**
+     * Restricts the lessons to the start slots and rooms of the time table that fit one of the students' windows
+     * and sets their weeks in the horizon, e.g. for lessons added while re-planning or loaded from a snapshot.
+     */
+    public static void initializeValueRanges(List<Lesson> lessons, TimeTable timeTable) {
+        Map<DayOfWeek, List<Timeslot>> timeSlotsByDay = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            timeSlotsByDay.put(dayOfWeek, new ArrayList<>());
+        }
+        for (Timeslot timeslot : timeTable.getTimeslotList()) {
+            timeSlotsByDay.get(timeslot.getDayOfWeek()).add(timeslot);
+        }
+        for (List<Timeslot> timeSlots : timeSlotsByDay.values()) {
+            timeSlots.sort(Comparator.comparingInt(Timeslot::getStartMinuteOfWeek));
+        }
+        ValueRanges valueRanges = new ValueRanges(timeSlotsByDay, timeTable.getRoomList());
+        Map<Recurrence, long[]> weekMasksByRecurrence = new HashMap<>();
+        for (Lesson lesson : lessons) {
+            valueRanges.initialize(lesson);
+            lesson.setWeekMasks(weekMasksByRecurrence.computeIfAbsent(lesson.getStudent().getRecurrence(),
+                    recurrence -> recurrence.weekMasks(timeTable.getHorizon())));
+        }
+    }
 
-        DayOfWeek dayOfWeek = DayOfWeek.MONDAY;
+    /**
+     * Restricts lessons to the start slots and rooms that fit one of their student's windows.
+     * If nothing fits, a lesson keeps the full ranges so the hard constraints report it.
+     * <p>
+     * The slots are looked up per window of the student instead of testing every slot of the grid, and students with
+     * the same windows share their lists, which keeps loading large plans fast.
+     */
+    private static class ValueRanges {
 
-        while (sc.hasNextLine()) {
-            String line = sc.nextLine();
+        private final Map<DayOfWeek, List<Timeslot>> timeslotsByDay;
+        private final List<Room> roomList;
+        // Fallback range, sorted like the possible slots by start minute of week
+        private final List<Timeslot> timeslotList;
+        private final Map<StartWindows, List<Timeslot>> timeslotListsByWindows = new HashMap<>();
+        private final Map<BitSet, List<Room>> roomListsByRooms = new HashMap<>();
 
-            if (line.isEmpty()) {
-                lessonList.add(new Lesson(id++, "Piano", student, "Year 1"));
-                student = null;
-                location = null;
-                combinations = new ArrayList<>();
-                continue;
+        /**
+         * @param timeslotsByDay every day's slots sorted by start
+         */
+        private ValueRanges(Map<DayOfWeek, List<Timeslot>> timeslotsByDay, List<Room> roomList) {
+            this.timeslotsByDay = timeslotsByDay;
+            this.roomList = roomList;
+            List<Timeslot> timeslotList = new ArrayList<>();
+            for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                timeslotList.addAll(timeslotsByDay.getOrDefault(dayOfWeek, List.of()));
             }
+            this.timeslotList = timeslotList;
+        }
 
-            if (line.startsWith("+")) {
-                student = line.substring(1);
-                Global.map.put(student, combinations);
-                continue;
-            }
-            if (line.startsWith(".")) {
-                Global.durations.put(student, Integer.parseInt(line.substring(1)));
-                continue;
+        private void initialize(Lesson lesson) {
+            Student student = lesson.getStudent();
+            int[][] startWindows = new int[DayOfWeek.values().length][];
+            for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                startWindows[dayOfWeek.ordinal()] = student.getStartWindows(dayOfWeek);
             }
-            if (line.startsWith("-")) {
-                location = new Room(line.substring(1));
-                continue;
+            BitSet rooms = new BitSet(roomList.size());
+            for (Room room : roomList) {
+                if (student.isAvailable(room)) {
+                    rooms.set(room.getIndex());
+                }
             }
-            String[] dayStr = line.split(" ");
+            lesson.setPossibleTimeslotList(timeslotListsByWindows.computeIfAbsent(new StartWindows(startWindows),
+                    key -> createTimeslotList(key.windowsByDay())));
+            lesson.setPossibleRoomList(roomListsByRooms.computeIfAbsent(rooms, this::createRoomList));
+        }
 
-            if (dayStr[0].equals("MO")) {
-                dayOfWeek = DayOfWeek.MONDAY;
-            }
-            if (dayStr[0].equals("TU")) {
-                dayOfWeek = DayOfWeek.TUESDAY;
-            }
-            if (dayStr[0].equals("WE")) {
-                dayOfWeek = DayOfWeek.WEDNESDAY;
-            }
-            if (dayStr[0].equals("TH")) {
-                dayOfWeek = DayOfWeek.THURSDAY;
-            }
-            if (dayStr[0].equals("FR")) {
-                dayOfWeek = DayOfWeek.FRIDAY;
+        private List<Timeslot> createTimeslotList(int[][] startWindows) {
+            // The index ranges of the slots in every window, to copy them in one go into a list of the right size
+            int[][] indexRanges = new int[startWindows.length][];
+            int size = 0;
+            for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                int[] windows = startWindows[dayOfWeek.ordinal()];
+                List<Timeslot> timeslots = timeslotsByDay.getOrDefault(dayOfWeek, List.of());
+                int[] ranges = new int[windows.length];
+                for (int i = 0; i < windows.length; i += 2) {
+                    ranges[i] = firstIndexFrom(timeslots, windows[i]);
+                    ranges[i + 1] = Math.max(ranges[i], firstIndexFrom(timeslots, windows[i + 1] + 1));
+                    size += ranges[i + 1] - ranges[i];
+                }
+                indexRanges[dayOfWeek.ordinal()] = ranges;
             }
-            if (dayStr[0].equals("SA")) {
-                dayOfWeek = DayOfWeek.SATURDAY;
+            if (size == 0) {
+                return timeslotList;
             }
-            if (dayStr[0].equals("SU")) {
-                dayOfWeek = DayOfWeek.SUNDAY;
+            List<Timeslot> possibleTimeslotList = new ArrayList<>(size);
+            for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                int[] ranges = indexRanges[dayOfWeek.ordinal()];
+                List<Timeslot> timeslots = timeslotsByDay.getOrDefault(dayOfWeek, List.of());
+                for (int i = 0; i < ranges.length; i += 2) {
+                    possibleTimeslotList.addAll(timeslots.subList(ranges[i], ranges[i + 1]));
+                }
             }
-            String[] fromTo = dayStr[1].split("-");
-            LocalTime from = LocalTime.of(Integer.parseInt(fromTo[0].split(":")[0]), Integer.parseInt(fromTo[0].split(":")[1]));
-            LocalTime to = LocalTime.of(Integer.parseInt(fromTo[1].split(":")[0]), Integer.parseInt(fromTo[1].split(":")[1]));
-
-            combinations.add(new Combination(location));
-            combinations.get(combinations.size()-1).timeSlot = new Timeslot(dayOfWeek, from, to);
+            return possibleTimeslotList;
         }
 
-        List<Timeslot> timeSlotList = new ArrayList<>();
-
-        LocalTime begin = LocalTime.of(8, 0);
-        while(begin.getHour() < 19) {
-            timeSlotList.add(new Timeslot(DayOfWeek.MONDAY, begin));
-            timeSlotList.add(new Timeslot(DayOfWeek.TUESDAY, begin));
-            timeSlotList.add(new Timeslot(DayOfWeek.WEDNESDAY, begin));
-            timeSlotList.add(new Timeslot(DayOfWeek.THURSDAY, begin));
-            timeSlotList.add(new Timeslot(DayOfWeek.FRIDAY, begin));
-            timeSlotList.add(new Timeslot(DayOfWeek.SATURDAY, begin));
-            timeSlotList.add(new Timeslot(DayOfWeek.SUNDAY, begin));
-            begin = begin.plusMinutes(5);
+        private List<Room> createRoomList(BitSet rooms) {
+            List<Room> possibleRoomList = roomList.stream()
+                    .filter(room -> rooms.get(room.getIndex()))
+                    .collect(Collectors.toList());
+            return possibleRoomList.isEmpty() ? roomList : possibleRoomList;
         }
 
-        return new TimeTable(timeSlotList, locationList, lessonList);
+        /**
+         * @return the index of the first slot that starts at or after the minute of the day
+         */
+        private static int firstIndexFrom(List<Timeslot> timeslots, int startMinuteOfDay) {
+            int low = 0;
+            int high = timeslots.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (timeslots.get(middle).getStartMinuteOfDay() < startMinuteOfDay) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
     }
 
-    private static void printTimetableFile(TimeTable timeTable) {
+    private record StartWindows(int[][] windowsByDay) {
 
-        List<Lesson> lessons = timeTable.getLessonList();
-        lessons.sort(new Comparator<Lesson>() {
-            @Override
-            public int compare(Lesson o1, Lesson o2) {
-                if (o1.getTimeslot().getDayOfWeek().compareTo(o2.getTimeslot().getDayOfWeek()) < 0) {
-                    return -1;
-                }
-                if (o1.getTimeslot().getDayOfWeek().compareTo(o2.getTimeslot().getDayOfWeek()) > 0) {
-                    return 1;
-                }
-                if (o1.getTimeslot().getStartTime().equals(o2.getTimeslot().getStartTime())) {
-                    return 0;
-                }
-                return o1.getTimeslot().getStartTime().isBefore(o2.getTimeslot().getStartTime()) ? -1 : 1;
-            }
-        });
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StartWindows other && Arrays.deepEquals(windowsByDay, other.windowsByDay);
+        }
 
-        LOGGER.info("-------");
-        for (Lesson lesson : lessons) {
-            LOGGER.info(lesson.getStudent() + ": " + lesson.getTimeslot().getStartTime() + "-" + lesson.getTimeslot().getStartTime().plusMinutes(Global.durations.get(lesson.getStudent())) + " (" + lesson.getTimeslot().getDayOfWeek() + ") " + lesson.getRoom().getName());
+        @Override
+        public int hashCode() {
+            return Arrays.deepHashCode(windowsByDay);
         }
     }
 }
@@ -0,0 +1,124 @@
+package piano;
+
+import ai.timefold.solver.core.api.solver.SolverJob;
+import ai.timefold.solver.core.api.solver.SolverManager;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.SolverManagerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import piano.domain.TimeTable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Solves every plan file of a directory concurrently, one timetable per teacher.
+ * <p>
+ * Arguments are key=value pairs:
+ * <pre>
+ * input=plans                   directory with plan.txt files, solution files in it are skipped
+ * output=solutions              one &lt;plan&gt;.solution.txt per input, may be the input directory
+ * spentLimit=PT30S              per problem, a hard cap
+ * target=bound                 stop a problem at its best possible score (bound), first feasible score or never (none)
+ * plateau=PT0.5S               stop a problem without improvement for this long
+ * plateauPerLesson=PT0.01S     plus this long per lesson
+ * parallelSolverCount=AUTO      number of problems solved at the same time
+ * moveThreadCount=NONE          only NONE, move threads need Timefold Enterprise Edition
+ * warmStart=false               start from the existing solution in output, e.g. last week's
+ * </pre>
+ */
+public class TimeTableBatchApp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimeTableBatchApp.class);
+
+    private static final String PLAN_SUFFIX = ".txt";
+    private static final String SOLUTION_SUFFIX = ".solution.txt";
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Arguments arguments = new Arguments(args);
+        Path inputDirectory = Path.of(arguments.get("input", "plans"));
+        Path outputDirectory = Path.of(arguments.get("output", "solutions"));
+        Files.createDirectories(outputDirectory);
+        boolean warmStart = Boolean.parseBoolean(arguments.get("warmStart", "false"));
+
+        // Most problems stop long before the spent limit, which frees their solver thread for the next problem
+        AdaptiveTermination termination = AdaptiveTermination.of(arguments, Duration.ofSeconds(30));
+        SolverConfig solverConfig = TimeTableApp.createSolverConfig()
+                .withTerminationConfig(termination.createSharedTerminationConfig())
+                .withMoveThreadCount(TimeTableApp.checkMoveThreadCount(
+                        arguments.get("moveThreadCount", SolverConfig.MOVE_THREAD_COUNT_NONE)));
+        SolverManagerConfig solverManagerConfig = new SolverManagerConfig()
+                .withParallelSolverCount(arguments.get("parallelSolverCount", SolverManagerConfig.PARALLEL_SOLVER_COUNT_AUTO));
+
+        List<Path> planFiles = listPlanFiles(inputDirectory);
+
+        int failedCount = 0;
+        try (SolverManager<TimeTable, String> solverManager = SolverManager.create(solverConfig, solverManagerConfig);
+                AdaptiveTermination.Monitor<String> monitor = termination.createMonitor(solverManager)) {
+            // Every problem is parsed into its own TimeTable, so concurrent solves share no state
+            Map<Path, SolverJob<TimeTable, String>> solverJobs = new LinkedHashMap<>();
+            PlanParser planParser = new PlanParser();
+            for (Path planFile : planFiles) {
+                TimeTable problem;
+                try {
+                    problem = planParser.parse(planFile);
+                    Path previousSolutionFile = outputDirectory.resolve(solutionFileName(planFile));
+                    if (warmStart && Files.exists(previousSolutionFile)) {
+                        int warmStartedCount = WarmStart.apply(problem, TimetableSnapshot.read(previousSolutionFile));
+                        LOGGER.info("Started {} of {} lessons of {} from the previous solution.",
+                                warmStartedCount, problem.getLessonList().size(), planFile.getFileName());
+                    }
+                } catch (PlanParseException | IOException e) {
+                    // One broken plan doesn't stop the others
+                    failedCount++;
+                    LOGGER.error("Skipping {}: {}", planFile, e.getMessage());
+                    continue;
+                }
+                String problemId = planFile.getFileName().toString();
+                solverJobs.put(planFile, solverManager.solveAndListen(problemId, id -> problem,
+                        monitor.watch(problemId, problem)));
+            }
+
+            for (Map.Entry<Path, SolverJob<TimeTable, String>> entry : solverJobs.entrySet()) {
+                Path planFile = entry.getKey();
+                try {
+                    TimeTable solution = entry.getValue().getFinalBestSolution();
+                    Path solutionFile = outputDirectory.resolve(solutionFileName(planFile));
+                    BestSolutionPublisher.fileSink(solutionFile).accept(TimetableSnapshot.of(solution));
+                    LOGGER.info("Solved {} with score {}", planFile.getFileName(), solution.getScore());
+                } catch (ExecutionException e) {
+                    failedCount++;
+                    LOGGER.error("Solving {} failed.", planFile.getFileName(), e.getCause());
+                }
+            }
+        }
+        LOGGER.info("Solved {} of {} plans.", planFiles.size() - failedCount, planFiles.size());
+    }
+
+    /**
+     * @return the plan files sorted by name, without the solutions of an earlier run into the same directory
+     */
+    static List<Path> listPlanFiles(Path inputDirectory) throws IOException {
+        try (Stream<Path> files = Files.list(inputDirectory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.endsWith(PLAN_SUFFIX) && !name.endsWith(SOLUTION_SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    static String solutionFileName(Path planFile) {
+        String name = planFile.getFileName().toString();
+        return name.substring(0, name.length() - PLAN_SUFFIX.length()) + SOLUTION_SUFFIX;
+    }
+}
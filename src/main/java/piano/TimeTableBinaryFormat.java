@@ -0,0 +1,359 @@
+package piano;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import piano.domain.Horizon;
+import piano.domain.Lesson;
+import piano.domain.Recurrence;
+import piano.domain.Room;
+import piano.domain.Student;
+import piano.domain.Teacher;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+import piano.domain.TravelTimeMatrix;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Compact binary snapshot of a problem or solution, read through a memory-mapped file.
+ * <p>
+ * Strings are written once to a string table and referenced by index. Times are minutes of the day.
+ * Value ranges are not stored, they are derived from the students' windows again when reading.
+ * <pre>
+ * int     magic "PTTB", int version
+ * strings count, {int byteCount, UTF-8 bytes}
+ * rooms   count, {int nameRef, short capacity}          problem rooms, the position is the room index
+ * travel  {short minutes} for every pair of rooms       by origin, then destination
+ * others  count, {int nameRef}                          unknown locations, room refs continue after the rooms
+ * teachers count, {int nameRef}                         the position is the teacher index
+ * slots   count, {byte dayOfWeek, short startMinute}
+ * horizon byte dated, {long firstMondayEpochDay}, short weekCount, count, {long holidayEpochDay}
+ * students count, {int nameRef, int teacherRef, short durationInMin,
+ *                  short intervalInWeeks, short firstWeek, count, {long exceptionEpochDay},
+ *                  count, {int roomRef, byte dayOfWeek, short from, short to}}
+ * lessons count, {long id, int subjectRef, int studentRef, int groupRef, int slotRef, int roomRef, byte pinned}
+ * score   byte present, {int initScore, int hardScore, int softScore}
+ * </pre>
+ * Refs are -1 for null. Shorts hold values from 0 to 32767, larger values are rejected when writing.
+ */
+public class TimeTableBinaryFormat {
+
+    public static final String FILE_EXTENSION = ".ttb";
+
+    private static final int MAGIC = 0x50545442;
+    private static final int VERSION = 1;
+
+    private static final DayOfWeek[] DAYS = DayOfWeek.values();
+
+    public static void write(TimeTable timeTable, Path file) throws IOException {
+        Map<String, Integer> stringRefs = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        Map<Room, Integer> roomRefs = new IdentityHashMap<>();
+        Map<String, Integer> otherLocationRefs = new HashMap<>();
+        List<String> otherLocations = new ArrayList<>();
+        List<Room> roomList = timeTable.getRoomList();
+        for (int i = 0; i < roomList.size(); i++) {
+            roomRefs.put(roomList.get(i), i);
+            intern(roomList.get(i).getName(), stringRefs, strings);
+        }
+        for (Teacher teacher : timeTable.getTeacherList()) {
+            intern(teacher.getName(), stringRefs, strings);
+        }
+        for (Student student : timeTable.getStudentList()) {
+            intern(student.getName(), stringRefs, strings);
+            for (Combination combination : student.getCombinations()) {
+                Room location = combination.location;
+                if (!roomRefs.containsKey(location) && !otherLocationRefs.containsKey(location.getName())) {
+                    otherLocationRefs.put(location.getName(), roomList.size() + otherLocations.size());
+                    otherLocations.add(location.getName());
+                    intern(location.getName(), stringRefs, strings);
+                }
+            }
+        }
+        for (Lesson lesson : timeTable.getLessonList()) {
+            intern(lesson.getSubject(), stringRefs, strings);
+            intern(lesson.getStudentGroup(), stringRefs, strings);
+        }
+        Map<Timeslot, Integer> timeslotRefs = new IdentityHashMap<>();
+        for (int i = 0; i < timeTable.getTimeslotList().size(); i++) {
+            timeslotRefs.put(timeTable.getTimeslotList().get(i), i);
+        }
+        Map<Teacher, Integer> teacherRefs = new IdentityHashMap<>();
+        for (int i = 0; i < timeTable.getTeacherList().size(); i++) {
+            teacherRefs.put(timeTable.getTeacherList().get(i), i);
+        }
+        Map<Student, Integer> studentRefs = new IdentityHashMap<>();
+        for (int i = 0; i < timeTable.getStudentList().size(); i++) {
+            studentRefs.put(timeTable.getStudentList().get(i), i);
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.writeInt(strings.size());
+            for (String string : strings) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            out.writeInt(roomList.size());
+            for (Room room : roomList) {
+                out.writeInt(stringRefs.get(room.getName()));
+                writeShort(out, room.getCapacity(), "Capacity of " + room);
+            }
+            TravelTimeMatrix travelTimeMatrix = timeTable.getTravelTimeMatrix();
+            for (Room from : roomList) {
+                for (Room to : roomList) {
+                    writeShort(out, travelTimeMatrix.getTravelTimeInMin(from, to),
+                            "Travel time from " + from + " to " + to);
+                }
+            }
+            out.writeInt(otherLocations.size());
+            for (String location : otherLocations) {
+                out.writeInt(stringRefs.get(location));
+            }
+
+            out.writeInt(timeTable.getTeacherList().size());
+            for (Teacher teacher : timeTable.getTeacherList()) {
+                out.writeInt(stringRefs.get(teacher.getName()));
+            }
+
+            out.writeInt(timeTable.getTimeslotList().size());
+            for (Timeslot timeslot : timeTable.getTimeslotList()) {
+                out.writeByte(timeslot.getDayOfWeek().ordinal());
+                writeShort(out, timeslot.getStartMinuteOfDay(), "Start of " + timeslot);
+            }
+
+            Horizon horizon = timeTable.getHorizon();
+            out.writeBoolean(horizon.getFirstMonday() != null);
+            if (horizon.getFirstMonday() != null) {
+                out.writeLong(horizon.getFirstMonday().toEpochDay());
+            }
+            writeShort(out, horizon.getWeekCount(), "Week count");
+            writeDates(out, horizon.getHolidays());
+
+            out.writeInt(timeTable.getStudentList().size());
+            for (Student student : timeTable.getStudentList()) {
+                out.writeInt(stringRefs.get(student.getName()));
+                out.writeInt(ref(teacherRefs, student.getTeacher()));
+                writeShort(out, student.getDurationInMin(), "Duration of " + student);
+                Recurrence recurrence = student.getRecurrence();
+                writeShort(out, recurrence.intervalInWeeks(), "Interval of " + student);
+                writeShort(out, recurrence.firstWeek(), "First week of " + student);
+                writeDates(out, recurrence.exceptions());
+                out.writeInt(student.getCombinations().size());
+                for (Combination combination : student.getCombinations()) {
+                    Integer roomRef = roomRefs.get(combination.location);
+                    out.writeInt(roomRef != null ? roomRef : otherLocationRefs.get(combination.location.getName()));
+                    out.writeByte(combination.timeSlot.getDayOfWeek().ordinal());
+                    writeShort(out, combination.timeSlot.getStartMinuteOfDay(), "Window start of " + student);
+                    writeShort(out, combination.timeSlot.getEndMinuteOfDay(), "Window end of " + student);
+                }
+            }
+
+            out.writeInt(timeTable.getLessonList().size());
+            for (Lesson lesson : timeTable.getLessonList()) {
+                out.writeLong(lesson.getId());
+                out.writeInt(ref(stringRefs, lesson.getSubject()));
+                out.writeInt(ref(studentRefs, lesson.getStudent()));
+                out.writeInt(ref(stringRefs, lesson.getStudentGroup()));
+                out.writeInt(ref(timeslotRefs, lesson.getTimeslot()));
+                out.writeInt(ref(roomRefs, lesson.getRoom()));
+                out.writeBoolean(lesson.isPinned());
+            }
+
+            HardSoftScore score = timeTable.getScore();
+            out.writeBoolean(score != null);
+            if (score != null) {
+                out.writeInt(score.initScore());
+                out.writeInt(score.hardScore());
+                out.writeInt(score.softScore());
+            }
+        }
+    }
+
+    public static TimeTable read(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            return read(buffer);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException
+                | IllegalArgumentException | DateTimeException e) {
+            // Counts, refs and values of a corrupt file fail in the JDK and domain classes
+            throw new IOException("Snapshot (" + file + ") is truncated or corrupt.", e);
+        }
+    }
+
+    private static TimeTable read(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a time table snapshot.");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version (" + version + "), expected " + VERSION + ".");
+        }
+
+        String[] strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int roomCount = buffer.getInt();
+        List<Room> roomList = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            String name = strings[buffer.getInt()];
+            roomList.add(new Room(i, name, buffer.getShort()));
+        }
+        int[] travelTimesInMin = new int[roomCount * roomCount];
+        for (int i = 0; i < travelTimesInMin.length; i++) {
+            travelTimesInMin[i] = buffer.getShort();
+        }
+        TravelTimeMatrix travelTimeMatrix = new TravelTimeMatrix(roomCount, travelTimesInMin);
+        List<Room> locations = new ArrayList<>(roomList);
+        int otherLocationCount = buffer.getInt();
+        for (int i = 0; i < otherLocationCount; i++) {
+            locations.add(new Room(strings[buffer.getInt()]));
+        }
+
+        int teacherCount = buffer.getInt();
+        List<Teacher> teacherList = new ArrayList<>(teacherCount);
+        for (int i = 0; i < teacherCount; i++) {
+            teacherList.add(new Teacher(i, strings[buffer.getInt()]));
+        }
+
+        int timeslotCount = buffer.getInt();
+        List<Timeslot> timeslotList = new ArrayList<>(timeslotCount);
+        for (int i = 0; i < timeslotCount; i++) {
+            DayOfWeek dayOfWeek = DAYS[buffer.get()];
+            timeslotList.add(new Timeslot(dayOfWeek, Timeslot.toLocalTime(buffer.getShort())));
+        }
+
+        LocalDate firstMonday = buffer.get() != 0 ? LocalDate.ofEpochDay(buffer.getLong()) : null;
+        int weekCount = buffer.getShort();
+        Horizon horizon = new Horizon(firstMonday, weekCount, readDates(buffer));
+
+        int studentCount = buffer.getInt();
+        List<Student> studentList = new ArrayList<>(studentCount);
+        for (int i = 0; i < studentCount; i++) {
+            String name = strings[buffer.getInt()];
+            Teacher teacher = teacherList.get(buffer.getInt());
+            int durationInMin = buffer.getShort();
+            int intervalInWeeks = buffer.getShort();
+            int firstWeek = buffer.getShort();
+            Recurrence recurrence = new Recurrence(intervalInWeeks, firstWeek, readDates(buffer));
+            int combinationCount = buffer.getInt();
+            List<Combination> combinations = new ArrayList<>(combinationCount);
+            for (int j = 0; j < combinationCount; j++) {
+                Combination combination = new Combination(locations.get(buffer.getInt()));
+                DayOfWeek dayOfWeek = DAYS[buffer.get()];
+                int from = buffer.getShort();
+                int to = buffer.getShort();
+                combination.timeSlot = new Timeslot(dayOfWeek, Timeslot.toLocalTime(from), Timeslot.toLocalTime(to));
+                combinations.add(combination);
+            }
+            studentList.add(new Student(name, teacher, durationInMin, recurrence, combinations, roomCount));
+        }
+
+        int lessonCount = buffer.getInt();
+        List<Lesson> lessonList = new ArrayList<>(lessonCount);
+        for (int i = 0; i < lessonCount; i++) {
+            long id = buffer.getLong();
+            String subject = get(strings, buffer.getInt());
+            Student student = studentList.get(buffer.getInt());
+            String studentGroup = get(strings, buffer.getInt());
+            int timeslotRef = buffer.getInt();
+            int roomRef = buffer.getInt();
+            Lesson lesson = new Lesson(id, subject, student, studentGroup,
+                    timeslotRef < 0 ? null : timeslotList.get(timeslotRef),
+                    roomRef < 0 ? null : roomList.get(roomRef));
+            lesson.setPinned(buffer.get() != 0);
+            lessonList.add(lesson);
+        }
+
+        TimeTable timeTable = new TimeTable(timeslotList, roomList, teacherList, studentList, lessonList);
+        timeTable.setTravelTimeMatrix(travelTimeMatrix);
+        timeTable.setHorizon(horizon);
+        if (buffer.get() != 0) {
+            int initScore = buffer.getInt();
+            int hardScore = buffer.getInt();
+            int softScore = buffer.getInt();
+            timeTable.setScore(HardSoftScore.ofUninitialized(initScore, hardScore, softScore));
+        }
+        TimeTableApp.initializeValueRanges(lessonList, timeTable);
+        return timeTable;
+    }
+
+    private static void writeShort(DataOutputStream out, int value, String name) throws IOException {
+        if (value < 0 || value > Short.MAX_VALUE) {
+            throw new IllegalArgumentException(name + " (" + value + ") is not between 0 and " + Short.MAX_VALUE + ".");
+        }
+        out.writeShort(value);
+    }
+
+    /**
+     * Sorted, so that the same time table always gives the same bytes
+     */
+    private static void writeDates(DataOutputStream out, Set<LocalDate> dates) throws IOException {
+        out.writeInt(dates.size());
+        for (LocalDate date : new TreeSet<>(dates)) {
+            out.writeLong(date.toEpochDay());
+        }
+    }
+
+    private static Set<LocalDate> readDates(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        Set<LocalDate> dates = new HashSet<>(count);
+        for (int i = 0; i < count; i++) {
+            dates.add(LocalDate.ofEpochDay(buffer.getLong()));
+        }
+        return dates;
+    }
+
+    private static void intern(String string, Map<String, Integer> stringRefs, List<String> strings) {
+        if (string != null && !stringRefs.containsKey(string)) {
+            stringRefs.put(string, strings.size());
+            strings.add(string);
+        }
+    }
+
+    private static <T> int ref(Map<T, Integer> refs, T value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer ref = refs.get(value);
+        if (ref == null) {
+            throw new IllegalArgumentException("Value (" + value + ") is not part of the time table.");
+        }
+        return ref;
+    }
+
+    private static String get(String[] strings, int ref) {
+        return ref < 0 ? null : strings[ref];
+    }
+}
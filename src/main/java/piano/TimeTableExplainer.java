@@ -0,0 +1,120 @@
+package piano;
+
+import ai.timefold.solver.core.api.score.ScoreExplanation;
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.score.constraint.ConstraintMatch;
+import ai.timefold.solver.core.api.score.constraint.ConstraintMatchTotal;
+import ai.timefold.solver.core.api.score.constraint.Indictment;
+import ai.timefold.solver.core.api.score.stream.ConstraintJustification;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import piano.domain.Lesson;
+import piano.domain.Room;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Explains the score of a time table per constraint and per lesson without solving.
+ * <p>
+ * Every explanation scores the time table once from scratch, which is cheap enough to call interactively.
+ * The reasons are the {@link piano.solver.LessonJustification}s of the constraints.
+ */
+public class TimeTableExplainer {
+
+    private final SolutionManager<TimeTable, HardSoftScore> solutionManager;
+
+    public TimeTableExplainer(SolverFactory<TimeTable> solverFactory) {
+        this.solutionManager = SolutionManager.create(solverFactory);
+    }
+
+    public Explanation explain(TimeTable timeTable) {
+        ScoreExplanation<TimeTable, HardSoftScore> scoreExplanation = solutionManager.explain(timeTable);
+
+        List<ConstraintBreakdown> constraints = new ArrayList<>();
+        for (ConstraintMatchTotal<HardSoftScore> constraintMatchTotal : scoreExplanation.getConstraintMatchTotalMap().values()) {
+            List<ConstraintJustification> justifications = new ArrayList<>();
+            for (ConstraintMatch<HardSoftScore> constraintMatch : constraintMatchTotal.getConstraintMatchSet()) {
+                justifications.add(constraintMatch.getJustification());
+            }
+            constraints.add(new ConstraintBreakdown(constraintMatchTotal.getConstraintRef().constraintName(),
+                    constraintMatchTotal.getConstraintMatchCount(), constraintMatchTotal.getScore(), justifications));
+        }
+        constraints.sort(Comparator.comparing(ConstraintBreakdown::score));
+
+        Map<Lesson, LessonBreakdown> lessons = new IdentityHashMap<>();
+        for (Map.Entry<Object, Indictment<HardSoftScore>> entry : scoreExplanation.getIndictmentMap().entrySet()) {
+            if (entry.getKey() instanceof Lesson lesson) {
+                Indictment<HardSoftScore> indictment = entry.getValue();
+                lessons.put(lesson, new LessonBreakdown(lesson, indictment.getScore(),
+                        List.copyOf(indictment.<ConstraintJustification>getJustificationList())));
+            }
+        }
+        return new Explanation(scoreExplanation.getScore(), List.copyOf(constraints), lessons);
+    }
+
+    /**
+     * Explains the time table as if the lesson had the given timeslot and room, e.g. to answer
+     * "why is Thomas not on Monday at 11:00?". The time table is changed while explaining and
+     * restored afterwards, so it must not be used concurrently.
+     */
+    public Explanation explainAssignment(TimeTable timeTable, Lesson lesson, Timeslot timeslot, Room room) {
+        Timeslot oldTimeslot = lesson.getTimeslot();
+        Room oldRoom = lesson.getRoom();
+        lesson.setTimeslot(timeslot);
+        lesson.setRoom(room);
+        try {
+            return explain(timeTable);
+        } finally {
+            lesson.setTimeslot(oldTimeslot);
+            lesson.setRoom(oldRoom);
+            // Restores the next lessons and the score
+            solutionManager.update(timeTable);
+        }
+    }
+
+    public record Explanation(HardSoftScore score, List<ConstraintBreakdown> constraints,
+            Map<Lesson, LessonBreakdown> lessons) {
+
+        /**
+         * @return the breakdown of a lesson, a zero score if no constraint matched it
+         */
+        public LessonBreakdown of(Lesson lesson) {
+            LessonBreakdown breakdown = lessons.get(lesson);
+            return breakdown != null ? breakdown : new LessonBreakdown(lesson, HardSoftScore.ZERO, List.of());
+        }
+
+        /**
+         * @return the score per constraint, then the reasons per lesson with a non-zero score, worst first
+         */
+        public List<String> toLines() {
+            List<String> lines = new ArrayList<>();
+            lines.add("Score: " + score);
+            for (ConstraintBreakdown constraint : constraints) {
+                lines.add(constraint.constraintName() + ": " + constraint.matchCount() + " matches, " + constraint.score());
+            }
+            lessons.values().stream()
+                    .filter(lesson -> !lesson.score().isZero())
+                    .sorted(Comparator.comparing(LessonBreakdown::score))
+                    .forEach(lesson -> {
+                        lines.add(lesson.lesson().getStudent() + ": " + lesson.score());
+                        for (ConstraintJustification justification : lesson.justifications()) {
+                            lines.add("  " + justification);
+                        }
+                    });
+            return lines;
+        }
+    }
+
+    public record ConstraintBreakdown(String constraintName, int matchCount, HardSoftScore score,
+            List<ConstraintJustification> justifications) {
+    }
+
+    public record LessonBreakdown(Lesson lesson, HardSoftScore score, List<ConstraintJustification> justifications) {
+    }
+}
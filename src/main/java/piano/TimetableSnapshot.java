@@ -0,0 +1,151 @@
+package piano;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import piano.domain.Lesson;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable copy of the data needed to show a timetable, detached from the solver's solution.
+ */
+public record TimetableSnapshot(HardSoftScore score, List<Assignment> assignments) {
+
+    private static final Comparator<Assignment> ORDER = Comparator
+            .comparing(Assignment::dayOfWeek, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingInt(Assignment::startMinuteOfDay);
+
+    private static final String SCORE_PREFIX = "Score: ";
+    private static final String UNASSIGNED = "unassigned";
+    // "11:00-11:30 (MONDAY) Sistrans" after the student's name
+    private static final Pattern ASSIGNMENT = Pattern.compile("(\\d{2}:\\d{2})-(\\d{2}:\\d{2}) \\(([A-Z]+)\\) (.+)");
+
+    /**
+     * @return the lessons sorted by day and start time, unassigned lessons last
+     */
+    public static TimetableSnapshot of(TimeTable timeTable) {
+        List<Assignment> assignments = new ArrayList<>(timeTable.getLessonList().size());
+        for (Lesson lesson : timeTable.getLessonList()) {
+            Timeslot timeslot = lesson.getTimeslot();
+            assignments.add(new Assignment(lesson.getStudent().getName(),
+                    timeslot == null ? null : timeslot.getDayOfWeek(),
+                    timeslot == null ? -1 : timeslot.getStartMinuteOfDay(),
+                    timeslot == null ? -1 : lesson.getEndMinuteOfDay(),
+                    lesson.getRoom() == null ? null : lesson.getRoom().getName()));
+        }
+        assignments.sort(ORDER);
+        return new TimetableSnapshot(timeTable.getScore(), List.copyOf(assignments));
+    }
+
+    /**
+     * Reads a file as written by {@link BestSolutionPublisher#fileSink(Path)}.
+     */
+    public static TimetableSnapshot read(Path file) throws IOException {
+        return parse(Files.readAllLines(file));
+    }
+
+    /**
+     * @param lines the score line followed by {@link #toLines()}
+     */
+    public static TimetableSnapshot parse(List<String> lines) {
+        if (lines.isEmpty() || !lines.get(0).startsWith(SCORE_PREFIX)) {
+            throw new IllegalArgumentException("The first line must be the score (" + SCORE_PREFIX + "...).");
+        }
+        String score = lines.get(0).substring(SCORE_PREFIX.length());
+        List<Assignment> assignments = new ArrayList<>(lines.size() - 1);
+        for (int i = 1; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            int separator = findNameSeparator(line);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Line " + (i + 1) + " (" + line + ") is not a lesson.");
+            }
+            String student = unescape(line.substring(0, separator));
+            String rest = line.substring(separator + 2);
+            if (rest.equals(UNASSIGNED)) {
+                assignments.add(new Assignment(student, null, -1, -1, null));
+                continue;
+            }
+            Matcher matcher = ASSIGNMENT.matcher(rest);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Line " + (i + 1) + " (" + line + ") is not a lesson.");
+            }
+            assignments.add(new Assignment(student, DayOfWeek.valueOf(matcher.group(3)),
+                    Timeslot.toMinuteOfDay(LocalTime.parse(matcher.group(1))),
+                    Timeslot.toMinuteOfDay(LocalTime.parse(matcher.group(2))),
+                    matcher.group(4)));
+        }
+        return new TimetableSnapshot(score.equals("null") ? null : HardSoftScore.parseScore(score), List.copyOf(assignments));
+    }
+
+    /**
+     * @return the index of the first ": " that isn't escaped, -1 if there is none
+     */
+    private static int findNameSeparator(String line) {
+        for (int i = 0; i < line.length() - 1; i++) {
+            char c = line.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == ':' && line.charAt(i + 1) == ' ') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Student names can contain anything, the colons and backslashes in them are escaped with a backslash so
+     * the first ": " always ends the name.
+     */
+    private static String escape(String name) {
+        return name.replace("\\", "\\\\").replace(":", "\\:");
+    }
+
+    private static String unescape(String name) {
+        StringBuilder unescaped = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '\\' && i + 1 < name.length()) {
+                c = name.charAt(++i);
+            }
+            unescaped.append(c);
+        }
+        return unescaped.toString();
+    }
+
+    /**
+     * @return one line per lesson, e.g. "Thomas: 11:00-11:30 (MONDAY) Sistrans", with the colons and backslashes
+     * in student names escaped
+     */
+    public List<String> toLines() {
+        List<String> lines = new ArrayList<>(assignments.size());
+        for (Assignment assignment : assignments) {
+            lines.add(assignment.toString());
+        }
+        return lines;
+    }
+
+    public record Assignment(String student, DayOfWeek dayOfWeek, int startMinuteOfDay, int endMinuteOfDay, String room) {
+
+        @Override
+        public String toString() {
+            if (dayOfWeek == null || room == null) {
+                return escape(student) + ": " + UNASSIGNED;
+            }
+            return escape(student) + ": " + Timeslot.toLocalTime(startMinuteOfDay) + "-" + Timeslot.toLocalTime(endMinuteOfDay)
+                    + " (" + dayOfWeek + ") " + room;
+        }
+    }
+}
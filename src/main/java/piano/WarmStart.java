@@ -0,0 +1,74 @@
+package piano;
+
+import piano.domain.Lesson;
+import piano.domain.Room;
+import piano.domain.Student;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts a new plan from a previous solution.
+ * <p>
+ * A lesson gets its student's previous timeslot and room if that assignment still fits: same duration,
+ * the room still exists and the start is still in one of the student's windows. Students are matched by
+ * name, so a student whose number of lessons changed keeps none of them. All other lessons stay
+ * unassigned for the construction phases, so only new and changed students are planned from scratch.
+ */
+public class WarmStart {
+
+    /**
+     * @return the number of lessons that got their previous assignment
+     */
+    public static int apply(TimeTable problem, TimetableSnapshot previous) {
+        Map<String, Room> roomsByName = new HashMap<>();
+        for (Room room : problem.getRoomList()) {
+            roomsByName.put(room.getName(), room);
+        }
+        // Students can have several lessons, they are matched in order, unassigned ones included
+        Map<String, Deque<TimetableSnapshot.Assignment>> assignmentsByStudent = new HashMap<>();
+        for (TimetableSnapshot.Assignment assignment : previous.assignments()) {
+            assignmentsByStudent.computeIfAbsent(assignment.student(), name -> new ArrayDeque<>()).add(assignment);
+        }
+        List<Lesson> lessonList = problem.getLessonList();
+        Map<String, Integer> lessonCountsByStudent = new HashMap<>();
+        for (Lesson lesson : lessonList) {
+            lessonCountsByStudent.merge(lesson.getStudent().getName(), 1, Integer::sum);
+        }
+        assignmentsByStudent.entrySet().removeIf(entry ->
+                entry.getValue().size() != lessonCountsByStudent.getOrDefault(entry.getKey(), 0));
+
+        int warmStartedCount = 0;
+        for (Lesson lesson : lessonList) {
+            if (lesson.getTimeslot() != null || lesson.getRoom() != null) {
+                continue;
+            }
+            Deque<TimetableSnapshot.Assignment> assignments = assignmentsByStudent.get(lesson.getStudent().getName());
+            TimetableSnapshot.Assignment assignment = assignments == null ? null : assignments.poll();
+            if (assignment == null || assignment.dayOfWeek() == null || assignment.room() == null) {
+                continue;
+            }
+            Student student = lesson.getStudent();
+            Room room = roomsByName.get(assignment.room());
+            if (room == null
+                    || assignment.endMinuteOfDay() - assignment.startMinuteOfDay() != student.getDurationInMin()
+                    || !student.isAvailable(assignment.dayOfWeek(), room, assignment.startMinuteOfDay())) {
+                continue;
+            }
+            Timeslot timeslot = lesson.findPossibleTimeslot(
+                    assignment.dayOfWeek().ordinal() * Timeslot.MINUTES_PER_DAY + assignment.startMinuteOfDay());
+            if (timeslot == null) {
+                continue;
+            }
+            lesson.setTimeslot(timeslot);
+            lesson.setRoom(room);
+            warmStartedCount++;
+        }
+        return warmStartedCount;
+    }
+}
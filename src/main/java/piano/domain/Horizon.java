@@ -0,0 +1,120 @@
+package piano.domain;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The weeks of a term. Timeslots describe a single week; a lesson takes place on its weekday, time and room
+ * in every week of its student's {@link Recurrence}, except on holidays.
+ * <p>
+ * Weeks are numbered from 0 and sets of weeks are bits of a long, so a term has at most 64 weeks.
+ */
+public class Horizon {
+
+    public static final int MAX_WEEK_COUNT = Long.SIZE;
+    // The single undated week of plans without a term
+    public static final Horizon ONE_WEEK = new Horizon(null, 1, Set.of());
+
+    // Monday of week 0, null if the weeks have no dates
+    private final LocalDate firstMonday;
+    private final int weekCount;
+    private final Set<LocalDate> holidays;
+    // Indexed by day of week, the weeks in which that day is not a holiday
+    private final long[] openWeekMasks;
+
+    public Horizon(LocalDate firstMonday, int weekCount, Set<LocalDate> holidays) {
+        if (weekCount < 1 || weekCount > MAX_WEEK_COUNT) {
+            throw new IllegalArgumentException("The number of weeks (" + weekCount + ") must be between 1 and "
+                    + MAX_WEEK_COUNT + ".");
+        }
+        if (firstMonday != null && firstMonday.getDayOfWeek() != DayOfWeek.MONDAY) {
+            throw new IllegalArgumentException("The term must start on a Monday (" + firstMonday + ").");
+        }
+        if (firstMonday == null && !holidays.isEmpty()) {
+            throw new IllegalArgumentException("Holidays need a dated term.");
+        }
+        this.firstMonday = firstMonday;
+        this.weekCount = weekCount;
+        this.holidays = Set.copyOf(holidays);
+        this.openWeekMasks = new long[DayOfWeek.values().length];
+        long allWeeksMask = getAllWeeksMask();
+        for (int day = 0; day < openWeekMasks.length; day++) {
+            openWeekMasks[day] = allWeeksMask;
+        }
+        for (LocalDate holiday : holidays) {
+            int week = weekOf(holiday);
+            if (week >= 0) {
+                openWeekMasks[holiday.getDayOfWeek().ordinal()] &= ~(1L << week);
+            }
+        }
+    }
+
+    /**
+     * @return one bit per week of the term
+     */
+    public long getAllWeeksMask() {
+        return weekCount == MAX_WEEK_COUNT ? -1L : (1L << weekCount) - 1L;
+    }
+
+    /**
+     * @return the weeks in which the given day is not a holiday
+     */
+    public long getOpenWeekMask(DayOfWeek dayOfWeek) {
+        return openWeekMasks[dayOfWeek.ordinal()];
+    }
+
+    /**
+     * @return the week of the date, -1 if it is outside the term or the term has no dates
+     */
+    public int weekOf(LocalDate date) {
+        if (firstMonday == null) {
+            return -1;
+        }
+        long week = Math.floorDiv(ChronoUnit.DAYS.between(firstMonday, date), 7);
+        return week < 0 || week >= weekCount ? -1 : (int) week;
+    }
+
+    public LocalDate dateOf(int week, DayOfWeek dayOfWeek) {
+        if (firstMonday == null) {
+            throw new IllegalStateException("The term has no dates.");
+        }
+        return firstMonday.plusDays(week * 7L + dayOfWeek.ordinal());
+    }
+
+    /**
+     * @return the dates of the given weeks on the given day, e.g. of all occurrences of a lesson
+     */
+    public List<LocalDate> datesOf(long weekMask, DayOfWeek dayOfWeek) {
+        List<LocalDate> dates = new ArrayList<>(Long.bitCount(weekMask));
+        for (long weeks = weekMask; weeks != 0L; weeks &= weeks - 1L) {
+            dates.add(dateOf(Long.numberOfTrailingZeros(weeks), dayOfWeek));
+        }
+        return dates;
+    }
+
+    @Override
+    public String toString() {
+        return weekCount + " weeks" + (firstMonday == null ? "" : " from " + firstMonday);
+    }
+
+    // ************************************************************************
+    // Getters and setters
+    // ************************************************************************
+
+    public LocalDate getFirstMonday() {
+        return firstMonday;
+    }
+
+    public int getWeekCount() {
+        return weekCount;
+    }
+
+    public Set<LocalDate> getHolidays() {
+        return holidays;
+    }
+
+}
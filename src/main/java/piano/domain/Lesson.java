@@ -1,41 +1,151 @@
 package piano.domain;
 
 import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
+import ai.timefold.solver.core.api.domain.entity.PlanningPin;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+import ai.timefold.solver.core.api.domain.valuerange.ValueRangeProvider;
 import ai.timefold.solver.core.api.domain.variable.PlanningVariable;
+import ai.timefold.solver.core.api.domain.variable.ShadowVariable;
+import piano.solver.NextLessonVariableListener;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A series of lessons of a student: one in every week of the student's {@link Recurrence}, all on the same
+ * weekday, time and room, so the whole series moves together.
+ */
 @PlanningEntity
 public class Lesson {
 
+    private static final long[] ONE_WEEK_MASKS = new long[] {1L, 1L, 1L, 1L, 1L, 1L, 1L};
+
     @PlanningId
     private Long id;
 
     private String subject;
-    private String student;
+    private Student student;
     private String studentGroup;
 
-    @PlanningVariable
+    // Pinned lessons keep their timeslot and room, e.g. while re-planning around them
+    @PlanningPin
+    private boolean pinned;
+
+    // Only the start slots and rooms that fit the student's availability, timeslots sorted by start minute of week
+    @ValueRangeProvider(id = "timeslotRange")
+    private List<Timeslot> possibleTimeslotList;
+    @ValueRangeProvider(id = "roomRange")
+    private List<Room> possibleRoomList;
+
+    @PlanningVariable(valueRangeProviderRefs = "timeslotRange")
     private Timeslot timeslot;
-    @PlanningVariable
+    @PlanningVariable(valueRangeProviderRefs = "roomRange")
     private Room room;
 
+    // Indexed by day of week, the weeks of the horizon in which the series takes place on that day
+    private long[] weekMasks = ONE_WEEK_MASKS;
+
+    // The lessons that follow this one on the same day, one per week at most, maintained incrementally
+    @ShadowVariable(variableListenerClass = NextLessonVariableListener.class, sourceVariableName = "timeslot")
+    @ShadowVariable(variableListenerClass = NextLessonVariableListener.class, sourceVariableName = "room")
+    private List<Lesson> nextLessons = List.of();
+
     // No-arg constructor required for Timefold
     public Lesson() {
     }
 
-    public Lesson(long id, String subject, String student, String studentGroup) {
+    public Lesson(long id, String subject, Student student, String studentGroup) {
         this.id = id;
         this.subject = subject;
         this.student = student;
         this.studentGroup = studentGroup;
     }
 
-    public Lesson(long id, String subject, String student, String studentGroup, Timeslot timeslot, Room room) {
+    public Lesson(long id, String subject, Student student, String studentGroup, Timeslot timeslot, Room room) {
         this(id, subject, student, studentGroup);
         this.timeslot = timeslot;
         this.room = room;
     }
 
+    public Teacher getTeacher() {
+        return student.getTeacher();
+    }
+
+    public int getStartMinuteOfDay() {
+        return timeslot.getStartMinuteOfDay();
+    }
+
+    public int getEndMinuteOfDay() {
+        return timeslot.getStartMinuteOfDay() + student.getDurationInMin();
+    }
+
+    public int getStartMinuteOfWeek() {
+        return timeslot.getStartMinuteOfWeek();
+    }
+
+    public int getEndMinuteOfWeek() {
+        return timeslot.getStartMinuteOfWeek() + student.getDurationInMin();
+    }
+
+    /**
+     * @return the weeks in which the lesson takes place on the day of its timeslot
+     */
+    public long getWeekMask() {
+        return weekMasks[timeslot.getDayOfWeek().ordinal()];
+    }
+
+    public int getOccurrenceCount() {
+        return Long.bitCount(getWeekMask());
+    }
+
+    /**
+     * @return this lesson paired with each of its next lessons, in the weeks in which that one follows directly
+     */
+    public List<LessonPair> getNextLessonPairs() {
+        if (nextLessons.isEmpty()) {
+            return List.of();
+        }
+        List<LessonPair> pairs = new ArrayList<>(nextLessons.size());
+        long remainingWeeks = getWeekMask();
+        for (Lesson nextLesson : nextLessons) {
+            long weekMask = remainingWeeks & nextLesson.getWeekMask();
+            if (weekMask != 0L) {
+                pairs.add(new LessonPair(this, nextLesson, weekMask));
+                remainingWeeks &= ~weekMask;
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * @return the possible timeslot starting at the given minute of week, null if there is none
+     */
+    public Timeslot findPossibleTimeslot(int startMinuteOfWeek) {
+        int index = indexOfPossibleTimeslot(startMinuteOfWeek);
+        return index < 0 ? null : possibleTimeslotList.get(index);
+    }
+
+    /**
+     * @return the index of the possible timeslot starting at the given minute of week, -1 if there is none
+     */
+    public int indexOfPossibleTimeslot(int startMinuteOfWeek) {
+        int low = 0;
+        int high = possibleTimeslotList.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            Timeslot candidate = possibleTimeslotList.get(middle);
+            if (candidate.getStartMinuteOfWeek() < startMinuteOfWeek) {
+                low = middle + 1;
+            } else if (candidate.getStartMinuteOfWeek() > startMinuteOfWeek) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
     @Override
     public String toString() {
         return subject + "(" + id + ")";
@@ -53,14 +163,42 @@ public class Lesson {
         return subject;
     }
 
-    public String getStudent() {
+    public Student getStudent() {
         return student;
     }
 
+    public void setStudent(Student student) {
+        this.student = student;
+    }
+
     public String getStudentGroup() {
         return studentGroup;
     }
 
+    public boolean isPinned() {
+        return pinned;
+    }
+
+    public void setPinned(boolean pinned) {
+        this.pinned = pinned;
+    }
+
+    public List<Timeslot> getPossibleTimeslotList() {
+        return possibleTimeslotList;
+    }
+
+    public void setPossibleTimeslotList(List<Timeslot> possibleTimeslotList) {
+        this.possibleTimeslotList = possibleTimeslotList;
+    }
+
+    public List<Room> getPossibleRoomList() {
+        return possibleRoomList;
+    }
+
+    public void setPossibleRoomList(List<Room> possibleRoomList) {
+        this.possibleRoomList = possibleRoomList;
+    }
+
     public Timeslot getTimeslot() {
         return timeslot;
     }
@@ -77,4 +215,24 @@ public class Lesson {
         this.room = room;
     }
 
+    public long[] getWeekMasks() {
+        return weekMasks;
+    }
+
+    public void setWeekMasks(long[] weekMasks) {
+        if (weekMasks.length != ONE_WEEK_MASKS.length) {
+            throw new IllegalArgumentException("The week masks (" + Arrays.toString(weekMasks)
+                    + ") must have one entry per day of week.");
+        }
+        this.weekMasks = weekMasks;
+    }
+
+    public List<Lesson> getNextLessons() {
+        return nextLessons;
+    }
+
+    public void setNextLessons(List<Lesson> nextLessons) {
+        this.nextLessons = nextLessons;
+    }
+
 }
@@ -0,0 +1,12 @@
+package piano.domain;
+
+/**
+ * A lesson and a lesson of the same teacher that directly follows it on the same day,
+ * in the weeks in which both take place and nothing else lies between them.
+ */
+public record LessonPair(Lesson lesson, Lesson nextLesson, long weekMask) {
+
+    public int weekCount() {
+        return Long.bitCount(weekMask);
+    }
+}
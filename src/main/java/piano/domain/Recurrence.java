@@ -0,0 +1,45 @@
+package piano.domain;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * The weeks in which a student has a lesson: every intervalInWeeks weeks starting with firstWeek,
+ * without the exception dates (e.g. a student on a school trip).
+ */
+public record Recurrence(int intervalInWeeks, int firstWeek, Set<LocalDate> exceptions) {
+
+    public static final Recurrence WEEKLY = new Recurrence(1, 0, Set.of());
+
+    public Recurrence {
+        if (intervalInWeeks < 1) {
+            throw new IllegalArgumentException("The interval (" + intervalInWeeks + ") must be at least 1 week.");
+        }
+        if (firstWeek < 0) {
+            throw new IllegalArgumentException("The first week (" + firstWeek + ") must not be negative.");
+        }
+        exceptions = Set.copyOf(exceptions);
+    }
+
+    /**
+     * @return indexed by day of week, the weeks of the horizon in which a lesson on that day takes place
+     */
+    public long[] weekMasks(Horizon horizon) {
+        long seriesMask = 0L;
+        for (int week = firstWeek; week < horizon.getWeekCount(); week += intervalInWeeks) {
+            seriesMask |= 1L << week;
+        }
+        long[] weekMasks = new long[DayOfWeek.values().length];
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            weekMasks[dayOfWeek.ordinal()] = seriesMask & horizon.getOpenWeekMask(dayOfWeek);
+        }
+        for (LocalDate exception : exceptions) {
+            int week = horizon.weekOf(exception);
+            if (week >= 0) {
+                weekMasks[exception.getDayOfWeek().ordinal()] &= ~(1L << week);
+            }
+        }
+        return weekMasks;
+    }
+}
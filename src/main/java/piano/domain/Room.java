@@ -1,11 +1,30 @@
 package piano.domain;
 
+import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+
 public class Room {
 
-    private String name;
+    public static final int DEFAULT_CAPACITY = 1;
 
-    public Room(String name) {
+    // Position in the room list, -1 for a location that is not part of the problem
+    @PlanningId
+    private final int index;
+    private final String name;
+    // Number of lessons that can take place in the room at the same time
+    private final int capacity;
+
+    public Room(int index, String name, int capacity) {
+        this.index = index;
         this.name = name;
+        this.capacity = capacity;
+    }
+
+    public Room(int index, String name) {
+        this(index, name, DEFAULT_CAPACITY);
+    }
+
+    public Room(String name) {
+        this(-1, name);
     }
 
     @Override
@@ -17,8 +36,16 @@ public class Room {
     // Getters and setters
     // ************************************************************************
 
+    public int getIndex() {
+        return index;
+    }
+
     public String getName() {
         return name;
     }
 
+    public int getCapacity() {
+        return capacity;
+    }
+
 }
@@ -0,0 +1,202 @@
+package piano.domain;
+
+import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+import piano.Combination;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.List;
+
+public class Student {
+
+    private static final int[] NO_WINDOWS = new int[0];
+
+    // Unique within a plan, needed to look up the working student in problem changes
+    @PlanningId
+    private final String name;
+    private final Teacher teacher;
+    private final int durationInMin;
+    private final Recurrence recurrence;
+    // The availability as given in the plan, including windows that can never be used
+    private final List<Combination> combinations;
+    /*
+     * Indexed by day of week and room index. Every entry holds {from, to} pairs of
+     * minute-of-day values in which a lesson of this student may start.
+     */
+    private final int[][][] possibleStarts;
+    // End of the usable window that closes first in the week, Integer.MAX_VALUE if there is none
+    private final int earliestWindowEndMinuteOfWeek;
+
+    public Student(String name, Teacher teacher, int durationInMin, List<Combination> combinations, int roomCount) {
+        this(name, teacher, durationInMin, Recurrence.WEEKLY, combinations, roomCount);
+    }
+
+    public Student(String name, Teacher teacher, int durationInMin, Recurrence recurrence,
+            List<Combination> combinations, int roomCount) {
+        this.name = name;
+        this.teacher = teacher;
+        this.durationInMin = durationInMin;
+        this.recurrence = recurrence;
+        this.combinations = List.copyOf(combinations);
+        // The days without windows share one row, a day gets its own row with its first window
+        int[][] noRooms = new int[roomCount][];
+        Arrays.fill(noRooms, NO_WINDOWS);
+        this.possibleStarts = new int[DayOfWeek.values().length][][];
+        Arrays.fill(possibleStarts, noRooms);
+        int earliestWindowEnd = Integer.MAX_VALUE;
+        for (Combination c : combinations) {
+            int roomIndex = c.location.getIndex();
+            if (roomIndex < 0 || roomIndex >= roomCount) {
+                // Unknown location, a lesson can never take place there
+                continue;
+            }
+            int from = c.timeSlot.getStartMinuteOfDay();
+            int to = c.timeSlot.getEndMinuteOfDay() - durationInMin;
+            if (from > to) {
+                // Window is shorter than the lesson
+                continue;
+            }
+            int day = c.timeSlot.getDayOfWeek().ordinal();
+            if (possibleStarts[day] == noRooms) {
+                possibleStarts[day] = noRooms.clone();
+            }
+            int[] windows = possibleStarts[day][roomIndex];
+            windows = Arrays.copyOf(windows, windows.length + 2);
+            windows[windows.length - 2] = from;
+            windows[windows.length - 1] = to;
+            possibleStarts[day][roomIndex] = windows;
+            earliestWindowEnd = Math.min(earliestWindowEnd, day * Timeslot.MINUTES_PER_DAY + c.timeSlot.getEndMinuteOfDay());
+        }
+        this.earliestWindowEndMinuteOfWeek = earliestWindowEnd;
+    }
+
+    /**
+     * @return true if a lesson starting at the given time in the given room fits one of the windows
+     */
+    public boolean isAvailable(DayOfWeek dayOfWeek, Room room, int startMinuteOfDay) {
+        int roomIndex = room.getIndex();
+        if (roomIndex < 0 || roomIndex >= possibleStarts[0].length) {
+            return false;
+        }
+        return fits(possibleStarts[dayOfWeek.ordinal()][roomIndex], startMinuteOfDay);
+    }
+
+    /**
+     * @return true if a lesson starting at the given time fits one of the windows in any room
+     */
+    public boolean isAvailable(DayOfWeek dayOfWeek, int startMinuteOfDay) {
+        for (int[] windows : possibleStarts[dayOfWeek.ordinal()]) {
+            if (fits(windows, startMinuteOfDay)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if at least one lesson fits into a window on the given day
+     */
+    public boolean isAvailable(DayOfWeek dayOfWeek) {
+        for (int[] windows : possibleStarts[dayOfWeek.ordinal()]) {
+            if (windows.length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if at least one lesson fits into a window of the given room
+     */
+    public boolean isAvailable(Room room) {
+        int roomIndex = room.getIndex();
+        if (roomIndex < 0 || roomIndex >= possibleStarts[0].length) {
+            return false;
+        }
+        for (int[][] rooms : possibleStarts) {
+            if (rooms[roomIndex].length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the {from, to} pairs of minute-of-day values in which a lesson may start on the given day in any room,
+     * sorted and merged where they overlap or touch
+     */
+    public int[] getStartWindows(DayOfWeek dayOfWeek) {
+        int[][] rooms = possibleStarts[dayOfWeek.ordinal()];
+        int length = 0;
+        for (int[] windows : rooms) {
+            length += windows.length;
+        }
+        if (length == 0) {
+            return NO_WINDOWS;
+        }
+        long[] sortedWindows = new long[length / 2];
+        int count = 0;
+        for (int[] windows : rooms) {
+            for (int i = 0; i < windows.length; i += 2) {
+                sortedWindows[count++] = (long) windows[i] << 32 | windows[i + 1];
+            }
+        }
+        Arrays.sort(sortedWindows);
+        int[] startWindows = new int[length];
+        int size = 0;
+        for (long window : sortedWindows) {
+            int from = (int) (window >>> 32);
+            int to = (int) window;
+            if (size > 0 && from <= startWindows[size - 1] + 1) {
+                startWindows[size - 1] = Math.max(startWindows[size - 1], to);
+            } else {
+                startWindows[size++] = from;
+                startWindows[size++] = to;
+            }
+        }
+        return size == length ? startWindows : Arrays.copyOf(startWindows, size);
+    }
+
+    private static boolean fits(int[] windows, int minuteOfDay) {
+        for (int i = 0; i < windows.length; i += 2) {
+            if (minuteOfDay >= windows[i] && minuteOfDay <= windows[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    // ************************************************************************
+    // Getters and setters
+    // ************************************************************************
+
+    public String getName() {
+        return name;
+    }
+
+    public Teacher getTeacher() {
+        return teacher;
+    }
+
+    public int getDurationInMin() {
+        return durationInMin;
+    }
+
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    public int getEarliestWindowEndMinuteOfWeek() {
+        return earliestWindowEndMinuteOfWeek;
+    }
+
+    public List<Combination> getCombinations() {
+        return combinations;
+    }
+
+}
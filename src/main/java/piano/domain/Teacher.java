@@ -0,0 +1,34 @@
+package piano.domain;
+
+import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+
+public class Teacher {
+
+    // Position in the teacher list
+    @PlanningId
+    private final int index;
+    private final String name;
+
+    public Teacher(int index, String name) {
+        this.index = index;
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    // ************************************************************************
+    // Getters and setters
+    // ************************************************************************
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+}
@@ -4,7 +4,7 @@ import ai.timefold.solver.core.api.domain.solution.PlanningEntityCollectionPrope
 import ai.timefold.solver.core.api.domain.solution.PlanningScore;
 import ai.timefold.solver.core.api.domain.solution.PlanningSolution;
 import ai.timefold.solver.core.api.domain.solution.ProblemFactCollectionProperty;
-import ai.timefold.solver.core.api.domain.valuerange.ValueRangeProvider;
+import ai.timefold.solver.core.api.domain.solution.ProblemFactProperty;
 import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
 
 import java.util.List;
@@ -13,11 +13,17 @@ import java.util.List;
 public class TimeTable {
 
     @ProblemFactCollectionProperty
-    @ValueRangeProvider
     private List<Timeslot> timeslotList;
     @ProblemFactCollectionProperty
-    @ValueRangeProvider
     private List<Room> roomList;
+    @ProblemFactCollectionProperty
+    private List<Teacher> teacherList;
+    @ProblemFactProperty
+    private TravelTimeMatrix travelTimeMatrix;
+    @ProblemFactProperty
+    private Horizon horizon = Horizon.ONE_WEEK;
+    @ProblemFactCollectionProperty
+    private List<Student> studentList;
     @PlanningEntityCollectionProperty
     private List<Lesson> lessonList;
 
@@ -28,9 +34,12 @@ public class TimeTable {
     public TimeTable() {
     }
 
-    public TimeTable(List<Timeslot> timeslotList, List<Room> roomList, List<Lesson> lessonList) {
+    public TimeTable(List<Timeslot> timeslotList, List<Room> roomList, List<Teacher> teacherList,
+            List<Student> studentList, List<Lesson> lessonList) {
         this.timeslotList = timeslotList;
         this.roomList = roomList;
+        this.teacherList = teacherList;
+        this.studentList = studentList;
         this.lessonList = lessonList;
     }
 
@@ -46,6 +55,34 @@ public class TimeTable {
         return roomList;
     }
 
+    public List<Teacher> getTeacherList() {
+        return teacherList;
+    }
+
+    public TravelTimeMatrix getTravelTimeMatrix() {
+        return travelTimeMatrix;
+    }
+
+    public void setTravelTimeMatrix(TravelTimeMatrix travelTimeMatrix) {
+        this.travelTimeMatrix = travelTimeMatrix;
+    }
+
+    public Horizon getHorizon() {
+        return horizon;
+    }
+
+    public void setHorizon(Horizon horizon) {
+        this.horizon = horizon;
+    }
+
+    public List<Student> getStudentList() {
+        return studentList;
+    }
+
+    public void setStudentList(List<Student> studentList) {
+        this.studentList = studentList;
+    }
+
     public List<Lesson> getLessonList() {
         return lessonList;
     }
@@ -54,4 +91,8 @@ public class TimeTable {
         return score;
     }
 
+    public void setScore(HardSoftScore score) {
+        this.score = score;
+    }
+
 }
@@ -1,24 +1,55 @@
 package piano.domain;
 
+import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+
 import java.time.DayOfWeek;
 import java.time.LocalTime;
 
 public class Timeslot {
 
-    private DayOfWeek dayOfWeek;
-    private LocalTime startTime;
-    private LocalTime endTime;
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    // LocalTime.of only caches full hours, plans and snapshots create hundreds of thousands of times
+    private static final LocalTime[] LOCAL_TIMES = new LocalTime[MINUTES_PER_DAY];
+
+    static {
+        for (int minuteOfDay = 0; minuteOfDay < MINUTES_PER_DAY; minuteOfDay++) {
+            LOCAL_TIMES[minuteOfDay] = LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+        }
+    }
+
+    private final DayOfWeek dayOfWeek;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+
+    // Precomputed so that scoring never has to touch LocalTime
+    private final int startMinuteOfDay;
+    private final int endMinuteOfDay;
+    // Unique within the timeslot list, so problem changes and rebased moves find the working timeslot
+    @PlanningId
+    private final int startMinuteOfWeek;
 
     public Timeslot(DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
         this.dayOfWeek = dayOfWeek;
         this.startTime = startTime;
         this.endTime = endTime;
+        this.startMinuteOfDay = toMinuteOfDay(startTime);
+        this.endMinuteOfDay = endTime == null ? -1 : toMinuteOfDay(endTime);
+        this.startMinuteOfWeek = dayOfWeek.ordinal() * MINUTES_PER_DAY + startMinuteOfDay;
     }
 
     public Timeslot(DayOfWeek dayOfWeek, LocalTime startTime) {
         this(dayOfWeek, startTime, null);
     }
 
+    public static int toMinuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    public static LocalTime toLocalTime(int minuteOfDay) {
+        return LOCAL_TIMES[minuteOfDay % MINUTES_PER_DAY];
+    }
+
     @Override
     public String toString() {
         return dayOfWeek + " " + startTime;
@@ -40,4 +71,19 @@ public class Timeslot {
         return endTime;
     }
 
+    public int getStartMinuteOfDay() {
+        return startMinuteOfDay;
+    }
+
+    /**
+     * @return -1 if this timeslot has no end time
+     */
+    public int getEndMinuteOfDay() {
+        return endMinuteOfDay;
+    }
+
+    public int getStartMinuteOfWeek() {
+        return startMinuteOfWeek;
+    }
+
 }
@@ -0,0 +1,137 @@
+package piano.domain;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Travel time in minutes between every two rooms, in a dense array indexed by room index.
+ */
+public class TravelTimeMatrix {
+
+    // The 25 minute break that applied to every room change before travel times were known
+    public static final int DEFAULT_TRAVEL_TIME_IN_MIN = 25;
+
+    private final int roomCount;
+    // from * roomCount + to
+    private final int[] travelTimesInMin;
+
+    public TravelTimeMatrix(int roomCount, int[] travelTimesInMin) {
+        if (travelTimesInMin.length != roomCount * roomCount) {
+            throw new IllegalArgumentException("The travel times (" + travelTimesInMin.length
+                    + ") must hold a value for every pair of the " + roomCount + " rooms.");
+        }
+        this.roomCount = roomCount;
+        this.travelTimesInMin = travelTimesInMin;
+    }
+
+    /**
+     * @return the same travel time between all different rooms
+     */
+    public static TravelTimeMatrix uniform(int roomCount, int travelTimeInMin) {
+        int[] travelTimesInMin = new int[roomCount * roomCount];
+        Arrays.fill(travelTimesInMin, travelTimeInMin);
+        for (int i = 0; i < roomCount; i++) {
+            travelTimesInMin[i * roomCount + i] = 0;
+        }
+        return new TravelTimeMatrix(roomCount, travelTimesInMin);
+    }
+
+    /**
+     * Reads a CSV file with the destination rooms in the first line and one line per origin room:
+     * <pre>
+     * ,Innsbruck,Sistrans
+     * Innsbruck,0,25
+     * Sistrans,30,0
+     * </pre>
+     * Travel times don't have to be symmetric. Pairs that are missing keep the default travel time.
+     */
+    public static TravelTimeMatrix read(Path file, List<Room> roomList) throws IOException {
+        Map<String, Room> roomsByName = new HashMap<>();
+        for (Room room : roomList) {
+            roomsByName.put(room.getName(), room);
+        }
+        TravelTimeMatrix matrix = uniform(roomList.size(), DEFAULT_TRAVEL_TIME_IN_MIN);
+        List<String> lines = Files.readAllLines(file);
+        if (lines.isEmpty()) {
+            return matrix;
+        }
+        String[] destinations = lines.get(0).split(",", -1);
+        for (int i = 1; i < lines.size(); i++) {
+            if (lines.get(i).isBlank()) {
+                continue;
+            }
+            String[] cells = lines.get(i).split(",", -1);
+            Room from = room(roomsByName, cells[0].trim(), file, i + 1);
+            if (cells.length != destinations.length) {
+                throw new IllegalArgumentException("Line " + (i + 1) + " of (" + file + ") has " + cells.length
+                        + " cells, expected " + destinations.length + ".");
+            }
+            for (int j = 1; j < cells.length; j++) {
+                Room to = room(roomsByName, destinations[j].trim(), file, 1);
+                int travelTimeInMin;
+                try {
+                    travelTimeInMin = Integer.parseInt(cells[j].trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Line " + (i + 1) + " of (" + file + ") has an invalid travel time ("
+                            + cells[j] + ").", e);
+                }
+                if (travelTimeInMin < 0) {
+                    throw new IllegalArgumentException("Line " + (i + 1) + " of (" + file + ") has a negative travel time ("
+                            + cells[j] + ").");
+                }
+                matrix.travelTimesInMin[from.getIndex() * matrix.roomCount + to.getIndex()] = travelTimeInMin;
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * @return the rooms named in the first line and column of the CSV file, in the order of their first appearance,
+     * with the default capacity
+     */
+    public static List<Room> readRooms(Path file) throws IOException {
+        Set<String> names = new LinkedHashSet<>();
+        List<String> lines = Files.readAllLines(file);
+        if (!lines.isEmpty()) {
+            String[] destinations = lines.get(0).split(",", -1);
+            for (int j = 1; j < destinations.length; j++) {
+                names.add(destinations[j].trim());
+            }
+        }
+        for (int i = 1; i < lines.size(); i++) {
+            if (!lines.get(i).isBlank()) {
+                names.add(lines.get(i).split(",", -1)[0].trim());
+            }
+        }
+        List<Room> roomList = new ArrayList<>(names.size());
+        for (String name : names) {
+            roomList.add(new Room(roomList.size(), name));
+        }
+        return roomList;
+    }
+
+    private static Room room(Map<String, Room> roomsByName, String name, Path file, int lineNumber) {
+        Room room = roomsByName.get(name);
+        if (room == null) {
+            throw new IllegalArgumentException("Line " + lineNumber + " of (" + file + ") has an unknown room (" + name + ").");
+        }
+        return room;
+    }
+
+    public int getTravelTimeInMin(Room from, Room to) {
+        return travelTimesInMin[from.getIndex() * roomCount + to.getIndex()];
+    }
+
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+}
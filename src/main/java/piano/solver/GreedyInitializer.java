@@ -0,0 +1,153 @@
+package piano.solver;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.phase.custom.CustomPhaseCommand;
+import piano.domain.Lesson;
+import piano.domain.Room;
+import piano.domain.Student;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Interval scheduling heuristic that builds a feasible start in one pass.
+ * <p>
+ * Students whose windows close first are placed first, each lesson at the earliest start that
+ * overlaps neither a placed lesson of the same teacher nor, for rooms with a capacity of 1, a placed
+ * lesson in the same room. Rooms the teacher already uses on that day are preferred.
+ * Lessons that are already assigned (e.g. pinned) are kept. Lessons without a free start stay
+ * unassigned for the construction heuristic that follows. Every series occupies its start in all weeks,
+ * bi-weekly series are only paired up by the local search.
+ * <p>
+ * Timefold 1.4 offers custom phases only through the implementation interface {@link CustomPhaseCommand}.
+ */
+public class GreedyInitializer implements CustomPhaseCommand<TimeTable> {
+
+    @Override
+    public void changeWorkingSolution(ScoreDirector<TimeTable> scoreDirector) {
+        TimeTable timeTable = scoreDirector.getWorkingSolution();
+        int dayCount = DayOfWeek.values().length;
+        int roomCount = timeTable.getRoomList().size();
+        int teacherCount = timeTable.getTeacherList().size();
+        // Per teacher and per room: start minute of week -> end minute of week of the placed lessons, merged where
+        // they overlap, so that the interval before a start is the only one that can cover it
+        List<TreeMap<Integer, Integer>> occupiedByTeacher = new ArrayList<>(teacherCount);
+        for (int i = 0; i < teacherCount; i++) {
+            occupiedByTeacher.add(new TreeMap<>());
+        }
+        List<TreeMap<Integer, Integer>> occupiedByRoom = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            occupiedByRoom.add(new TreeMap<>());
+        }
+        // Per teacher and day: rooms in use
+        boolean[][][] usedRooms = new boolean[teacherCount][dayCount][roomCount];
+
+        List<Lesson> unassignedLessons = new ArrayList<>();
+        for (Lesson lesson : timeTable.getLessonList()) {
+            if (lesson.getTimeslot() != null && lesson.getRoom() != null) {
+                occupy(occupiedByTeacher, occupiedByRoom, usedRooms, lesson, lesson.getTimeslot(), lesson.getRoom());
+            } else if (!lesson.isPinned()) {
+                unassignedLessons.add(lesson);
+            }
+        }
+        unassignedLessons.sort(Comparator
+                .comparingInt((Lesson lesson) -> lesson.getStudent().getEarliestWindowEndMinuteOfWeek())
+                .thenComparing(Lesson::getId));
+
+        for (Lesson lesson : unassignedLessons) {
+            Student student = lesson.getStudent();
+            int teacher = student.getTeacher().getIndex();
+            for (Timeslot timeslot : lesson.getPossibleTimeslotList()) {
+                int start = timeslot.getStartMinuteOfWeek();
+                int end = start + student.getDurationInMin();
+                if (!isFree(occupiedByTeacher.get(teacher), start, end)) {
+                    continue;
+                }
+                Room room = selectRoom(lesson, timeslot, start, end, occupiedByRoom,
+                        usedRooms[teacher][timeslot.getDayOfWeek().ordinal()]);
+                if (room == null) {
+                    continue;
+                }
+                scoreDirector.beforeVariableChanged(lesson, "timeslot");
+                lesson.setTimeslot(timeslot);
+                scoreDirector.afterVariableChanged(lesson, "timeslot");
+                scoreDirector.beforeVariableChanged(lesson, "room");
+                lesson.setRoom(room);
+                scoreDirector.afterVariableChanged(lesson, "room");
+                occupy(occupiedByTeacher, occupiedByRoom, usedRooms, lesson, timeslot, room);
+                break;
+            }
+        }
+        scoreDirector.triggerVariableListeners();
+    }
+
+    private static void occupy(List<TreeMap<Integer, Integer>> occupiedByTeacher,
+            List<TreeMap<Integer, Integer>> occupiedByRoom, boolean[][][] usedRooms,
+            Lesson lesson, Timeslot timeslot, Room room) {
+        int start = timeslot.getStartMinuteOfWeek();
+        int end = start + lesson.getStudent().getDurationInMin();
+        int teacher = lesson.getTeacher().getIndex();
+        add(occupiedByTeacher.get(teacher), start, end);
+        if (room.getIndex() >= 0 && room.getIndex() < occupiedByRoom.size()) {
+            add(occupiedByRoom.get(room.getIndex()), start, end);
+            usedRooms[teacher][timeslot.getDayOfWeek().ordinal()][room.getIndex()] = true;
+        }
+    }
+
+    /**
+     * Pre-assigned lessons may overlap, e.g. a pinned long lesson and a short one within it. They are merged into
+     * one interval together with every interval they touch.
+     */
+    private static void add(TreeMap<Integer, Integer> occupied, int start, int end) {
+        Map.Entry<Integer, Integer> before = occupied.floorEntry(start);
+        if (before != null && before.getValue() >= start) {
+            start = before.getKey();
+            end = Math.max(end, before.getValue());
+        }
+        for (Map.Entry<Integer, Integer> after = occupied.ceilingEntry(start);
+                after != null && after.getKey() <= end; after = occupied.ceilingEntry(start)) {
+            end = Math.max(end, after.getValue());
+            occupied.remove(after.getKey());
+        }
+        occupied.put(start, end);
+    }
+
+    private static boolean isFree(TreeMap<Integer, Integer> occupied, int start, int end) {
+        Map.Entry<Integer, Integer> before = occupied.floorEntry(start);
+        if (before != null && before.getValue() > start) {
+            return false;
+        }
+        Map.Entry<Integer, Integer> after = occupied.ceilingEntry(start);
+        return after == null || after.getKey() >= end;
+    }
+
+    /**
+     * @return a free room the student is available in at that time, one the teacher already uses on that day if possible
+     */
+    private static Room selectRoom(Lesson lesson, Timeslot timeslot, int start, int end,
+            List<TreeMap<Integer, Integer>> occupiedByRoom, boolean[] usedRooms) {
+        Room fallback = null;
+        for (Room room : lesson.getPossibleRoomList()) {
+            if (!lesson.getStudent().isAvailable(timeslot.getDayOfWeek(), room, timeslot.getStartMinuteOfDay())) {
+                continue;
+            }
+            // Shared rooms are left to the local search
+            if (room.getCapacity() == 1 && !isFree(occupiedByRoom.get(room.getIndex()), start, end)) {
+                continue;
+            }
+            if (usedRooms[room.getIndex()]) {
+                return room;
+            }
+            if (fallback == null) {
+                fallback = room;
+            }
+        }
+        return fallback;
+    }
+}
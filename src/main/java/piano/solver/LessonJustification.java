@@ -0,0 +1,20 @@
+package piano.solver;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.score.stream.ConstraintJustification;
+import piano.domain.Lesson;
+
+import java.util.List;
+
+/**
+ * Why a constraint matched, e.g. "Thomas ends at 11:30 but Anna starts at 11:15".
+ * Only created when the score is explained, never while solving.
+ */
+public record LessonJustification(String description, List<Lesson> lessons, HardSoftScore score)
+        implements ConstraintJustification {
+
+    @Override
+    public String toString() {
+        return description + " (" + score + ")";
+    }
+}
@@ -0,0 +1,199 @@
+package piano.solver;
+
+import ai.timefold.solver.core.api.domain.variable.VariableListener;
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import piano.domain.Horizon;
+import piano.domain.Lesson;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Keeps {@link Lesson#getNextLessons()} pointing to the lessons of the same teacher that follow on the same day.
+ * Lessons are ordered by teacher, start time and, for equal start times, by id.
+ * <p>
+ * A lesson is a series over the weeks of the horizon, so what follows it can differ from week to week, e.g. a
+ * bi-weekly lesson in odd weeks and the next weekly lesson in even weeks. The next lessons are found by walking
+ * forward until every week of the lesson is covered. With a single week there is at most one next lesson.
+ * <p>
+ * Timefold delivers the notifications after the timeslot already changed, so every lesson
+ * remembers the key it was indexed with, including its weeks on that day. A move therefore only touches the
+ * old and the new neighbours of the moved lesson instead of re-sorting the whole day. A room change touches
+ * the lessons that the moved lesson follows, so that their pairs are scored with the new room.
+ */
+public class NextLessonVariableListener implements VariableListener<TimeTable, Lesson> {
+
+    private final NavigableMap<SequenceKey, Lesson> sequence = new TreeMap<>();
+    private final Map<Lesson, SequenceKey> indexedKeys = new IdentityHashMap<>();
+    private long allWeeksMask = Horizon.ONE_WEEK.getAllWeeksMask();
+
+    @Override
+    public void resetWorkingSolution(ScoreDirector<TimeTable> scoreDirector) {
+        sequence.clear();
+        indexedKeys.clear();
+        allWeeksMask = scoreDirector.getWorkingSolution().getHorizon().getAllWeeksMask();
+        for (Lesson lesson : scoreDirector.getWorkingSolution().getLessonList()) {
+            SequenceKey key = SequenceKey.of(lesson);
+            if (key != null) {
+                sequence.put(key, lesson);
+                indexedKeys.put(lesson, key);
+            }
+        }
+        // The session is (re)built after the reset, so no notifications are needed here
+        for (Lesson lesson : scoreDirector.getWorkingSolution().getLessonList()) {
+            SequenceKey key = indexedKeys.get(lesson);
+            lesson.setNextLessons(key == null ? List.of() : nextLessons(key));
+        }
+    }
+
+    @Override
+    public void beforeEntityAdded(ScoreDirector<TimeTable> scoreDirector, Lesson lesson) {
+        // Do nothing
+    }
+
+    @Override
+    public void afterEntityAdded(ScoreDirector<TimeTable> scoreDirector, Lesson lesson) {
+        reindex(scoreDirector, lesson);
+    }
+
+    @Override
+    public void beforeVariableChanged(ScoreDirector<TimeTable> scoreDirector, Lesson lesson) {
+        // Do nothing: the old position is looked up through indexedKeys
+    }
+
+    @Override
+    public void afterVariableChanged(ScoreDirector<TimeTable> scoreDirector, Lesson lesson) {
+        reindex(scoreDirector, lesson);
+    }
+
+    @Override
+    public void beforeEntityRemoved(ScoreDirector<TimeTable> scoreDirector, Lesson lesson) {
+        // Do nothing
+    }
+
+    @Override
+    public void afterEntityRemoved(ScoreDirector<TimeTable> scoreDirector, Lesson lesson) {
+        remove(scoreDirector, lesson);
+        setNextLessons(scoreDirector, lesson, List.of());
+    }
+
+    private void reindex(ScoreDirector<TimeTable> scoreDirector, Lesson lesson) {
+        SequenceKey newKey = SequenceKey.of(lesson);
+        if (newKey != null && newKey.equals(indexedKeys.get(lesson))) {
+            // Only the room changed
+            for (Lesson previousLesson : predecessors(newKey)) {
+                if (previousLesson.getNextLessons().contains(lesson)) {
+                    scoreDirector.beforeVariableChanged(previousLesson, "nextLessons");
+                    scoreDirector.afterVariableChanged(previousLesson, "nextLessons");
+                }
+            }
+            return;
+        }
+        remove(scoreDirector, lesson);
+        if (newKey != null) {
+            sequence.put(newKey, lesson);
+            indexedKeys.put(lesson, newKey);
+            updatePredecessors(scoreDirector, newKey);
+        }
+        setNextLessons(scoreDirector, lesson, newKey == null ? List.of() : nextLessons(newKey));
+    }
+
+    private void remove(ScoreDirector<TimeTable> scoreDirector, Lesson lesson) {
+        SequenceKey oldKey = indexedKeys.remove(lesson);
+        if (oldKey == null) {
+            return;
+        }
+        sequence.remove(oldKey);
+        updatePredecessors(scoreDirector, oldKey);
+    }
+
+    private void updatePredecessors(ScoreDirector<TimeTable> scoreDirector, SequenceKey key) {
+        for (Lesson previousLesson : predecessors(key)) {
+            setNextLessons(scoreDirector, previousLesson, nextLessons(indexedKeys.get(previousLesson)));
+        }
+    }
+
+    /**
+     * @return the lessons before the key on the same day that reach it in at least one of their weeks,
+     * because no other lesson lies between them in that week
+     */
+    private List<Lesson> predecessors(SequenceKey key) {
+        List<Lesson> predecessors = new ArrayList<>(1);
+        long blockedWeeks = 0L;
+        Map.Entry<SequenceKey, Lesson> entry = sequence.lowerEntry(key);
+        while (entry != null && entry.getKey().isSameDay(key) && blockedWeeks != allWeeksMask) {
+            if ((entry.getKey().weekMask() & ~blockedWeeks) != 0L) {
+                predecessors.add(entry.getValue());
+            }
+            blockedWeeks |= entry.getKey().weekMask();
+            entry = sequence.lowerEntry(entry.getKey());
+        }
+        return predecessors;
+    }
+
+    /**
+     * @return the first following lesson of every week of the key, in order
+     */
+    private List<Lesson> nextLessons(SequenceKey key) {
+        List<Lesson> nextLessons = new ArrayList<>(1);
+        long remainingWeeks = key.weekMask();
+        Map.Entry<SequenceKey, Lesson> entry = sequence.higherEntry(key);
+        while (entry != null && entry.getKey().isSameDay(key) && remainingWeeks != 0L) {
+            long weekMask = remainingWeeks & entry.getKey().weekMask();
+            if (weekMask != 0L) {
+                nextLessons.add(entry.getValue());
+                remainingWeeks &= ~weekMask;
+            }
+            entry = sequence.higherEntry(entry.getKey());
+        }
+        return nextLessons;
+    }
+
+    private static void setNextLessons(ScoreDirector<TimeTable> scoreDirector, Lesson lesson, List<Lesson> nextLessons) {
+        // Lessons compare by identity
+        if (lesson.getNextLessons().equals(nextLessons)) {
+            return;
+        }
+        scoreDirector.beforeVariableChanged(lesson, "nextLessons");
+        lesson.setNextLessons(nextLessons);
+        scoreDirector.afterVariableChanged(lesson, "nextLessons");
+    }
+
+    /**
+     * The week mask is part of the key because it depends on the day, but not of the order.
+     */
+    private record SequenceKey(int teacher, int dayOfWeek, int startMinuteOfWeek, long id, long weekMask)
+            implements Comparable<SequenceKey> {
+
+        static SequenceKey of(Lesson lesson) {
+            if (lesson.getTimeslot() == null) {
+                return null;
+            }
+            Timeslot timeslot = lesson.getTimeslot();
+            return new SequenceKey(lesson.getTeacher().getIndex(), timeslot.getDayOfWeek().ordinal(),
+                    timeslot.getStartMinuteOfWeek(), lesson.getId(), lesson.getWeekMask());
+        }
+
+        boolean isSameDay(SequenceKey other) {
+            return teacher == other.teacher && dayOfWeek == other.dayOfWeek;
+        }
+
+        @Override
+        public int compareTo(SequenceKey other) {
+            int result = Integer.compare(teacher, other.teacher);
+            if (result == 0) {
+                result = Integer.compare(startMinuteOfWeek, other.startMinuteOfWeek);
+            }
+            if (result == 0) {
+                result = Long.compare(id, other.id);
+            }
+            return result;
+        }
+    }
+}
@@ -4,16 +4,18 @@ import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
 import ai.timefold.solver.core.api.score.stream.Constraint;
 import ai.timefold.solver.core.api.score.stream.ConstraintFactory;
 import ai.timefold.solver.core.api.score.stream.ConstraintProvider;
-import piano.Combination;
-import piano.Global;
+import ai.timefold.solver.core.api.score.stream.Joiners;
+import ai.timefold.solver.core.api.score.stream.uni.UniConstraintStream;
+import piano.domain.Horizon;
 import piano.domain.Lesson;
-import piano.domain.Room;
+import piano.domain.LessonPair;
+import piano.domain.Timeslot;
+import piano.domain.TravelTimeMatrix;
 
-import java.time.DayOfWeek;
-import java.time.Duration;
 import java.time.LocalTime;
 import java.util.List;
 
+import static ai.timefold.solver.core.api.score.stream.ConstraintCollectors.countBi;
 import static ai.timefold.solver.core.api.score.stream.ConstraintCollectors.toList;
 
 public class TimeTableConstraintProvider implements ConstraintProvider {
@@ -24,46 +26,81 @@ public class TimeTableConstraintProvider implements ConstraintProvider {
                 // Hard
                 noOverlapConstraint(constraintFactory),
                 possibleTimeAndPlaceConstraint(constraintFactory),
+                roomCapacityConstraint(constraintFactory),
                 locationChangeBreakConstraint(constraintFactory),
 
                 // Soft
                 locationStabilityConstraint(constraintFactory),
+                travelTimeConstraint(constraintFactory),
                 consecutiveLessonsConstraint(constraintFactory),
         };
     }
 
     /**
-     * Hard: Lessons can't overlap:
+     * Every lesson paired with the lessons of the same teacher that directly follow it on the same day, with the
+     * weeks in which they do. The pairs are maintained by {@link NextLessonVariableListener}, so a move only
+     * re-scores the neighbours of the moved lesson, and weighted by their number of weeks, so the cost of a term
+     * grows with the number of lessons per day, not with the number of weeks.
+     */
+    private static UniConstraintStream<LessonPair> consecutiveLessons(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEach(Lesson.class)
+                .flattenLast(Lesson::getNextLessonPairs)
+                // Like the lesson itself, the next lesson only counts once it has a room
+                .filter(pair -> pair.nextLesson().getRoom() != null);
+    }
+
+    private static LocalTime time(int minuteOfDay) {
+        return Timeslot.toLocalTime(minuteOfDay);
+    }
+
+    private static String weeks(LessonPair pair) {
+        int weekCount = pair.weekCount();
+        return weekCount == 1 ? "" : " in " + weekCount + " weeks";
+    }
+
+    private static boolean isRoomChange(LessonPair pair) {
+        return pair.lesson().getRoom() != pair.nextLesson().getRoom();
+    }
+
+    /**
+     * 100 for every week with two room changes, 1000 for every week with more
+     */
+    private static int roomChangePenalty(List<LessonPair> roomChanges) {
+        int[] roomChangeCountByWeek = new int[Horizon.MAX_WEEK_COUNT];
+        for (LessonPair roomChange : roomChanges) {
+            for (long weeks = roomChange.weekMask(); weeks != 0L; weeks &= weeks - 1L) {
+                roomChangeCountByWeek[Long.numberOfTrailingZeros(weeks)]++;
+            }
+        }
+        int penalty = 0;
+        for (int roomChangeCount : roomChangeCountByWeek) {
+            if (roomChangeCount >= 2) {
+                penalty += roomChangeCount == 2 ? 100 : 1000;
+            }
+        }
+        return penalty;
+    }
+
+    /**
+     * Hard: Lessons of a teacher can't overlap:
      * - 10:30-10:45
      * - 10:40-11:00
      * is not allowed.
      */
     Constraint noOverlapConstraint(ConstraintFactory constraintFactory) {
-        return constraintFactory
-                .forEach(Lesson.class)
-                        .groupBy(l ->l.getTimeslot().getDayOfWeek(), toList())
-                .penalize(HardSoftScore.ONE_HARD, (dayOfWeek, lessons) -> {
-                    int penalty = 0;
-                    lessons.sort((o1, o2) -> {
-                        if (o1.getTimeslot().getStartTime().equals(o2.getTimeslot().getStartTime())) {
-                            return 0;
-                        }
-                        return o1.getTimeslot().getStartTime().isBefore(o2.getTimeslot().getStartTime()) ? -1 : 1;
-                    });
-                    for (int i = 0; i < lessons.size() - 1; i++) {
-                        Lesson lesson = lessons.get(i);
-                        Lesson nextLesson = lessons.get(i+1);
-                        int durationInMin = Global.durations.get(lesson.getStudent());
-
-                        /*
-                         * 08:30 + 30min > 08:45
-                         */
-                        if (lesson.getTimeslot().getStartTime().plusMinutes(durationInMin).isAfter(nextLesson.getTimeslot().getStartTime())) {
-                            penalty++;
-                        }
-                    }
-                    return penalty;
-                })
+        return consecutiveLessons(constraintFactory)
+                /*
+                 * 08:30 + 30min > 08:45
+                 */
+                .filter(pair -> pair.lesson().getEndMinuteOfDay() > pair.nextLesson().getStartMinuteOfDay())
+                .penalize(HardSoftScore.ONE_HARD, LessonPair::weekCount)
+                .justifyWith((pair, score) -> new LessonJustification(
+                        pair.lesson().getStudent() + " ends at " + time(pair.lesson().getEndMinuteOfDay()) + " but "
+                                + pair.nextLesson().getStudent() + " starts at " + time(pair.nextLesson().getStartMinuteOfDay())
+                                + " on " + pair.lesson().getTimeslot().getDayOfWeek() + weeks(pair),
+                        List.of(pair.lesson(), pair.nextLesson()), score))
+                .indictWith(pair -> List.of(pair.lesson(), pair.nextLesson()))
                 .asConstraint("noOverlapConstraint");
     }
 
@@ -75,122 +112,122 @@ public class TimeTableConstraintProvider implements ConstraintProvider {
     Constraint possibleTimeAndPlaceConstraint(ConstraintFactory constraintFactory) {
         return constraintFactory
                 .forEach(Lesson.class)
-                .groupBy(l ->l.getTimeslot().getDayOfWeek(), toList())
-                .penalize(HardSoftScore.ONE_HARD, (dayOfWeek, lessons) -> {
-                    int penalty = 0;
-                    lessons.sort((o1, o2) -> {
-                        if (o1.getTimeslot().getStartTime().equals(o2.getTimeslot().getStartTime())) {
-                            return 0;
-                        }
-                        return o1.getTimeslot().getStartTime().isBefore(o2.getTimeslot().getStartTime()) ? -1 : 1;
-                    });
-                    for (int i = 0; i < lessons.size(); i++) {
-                        Lesson lesson = lessons.get(i);
-                        Room location = lesson.getRoom();
-                        DayOfWeek day = lesson.getTimeslot().getDayOfWeek();
-                        // Contains possible (multiple) time ranges (per day) + location a student 'has time'
-                        List<Combination> combinations = Global.map.get(lesson.getStudent());
-                        // Duration in min of a single student
-                        int durationInMin = Global.durations.get(lesson.getStudent());
-
-                        boolean isTimePossible = false;
-
-                        // Check if time and day are possible
-                        for (Combination c : combinations) {
-                            if (c.location.getName().equals(location.getName())) {
-                                if (c.timeSlot.getDayOfWeek().equals(day)) {
-                                    if (!lesson.getTimeslot().getStartTime().isBefore(c.timeSlot.getStartTime()) &&
-                                            !lesson.getTimeslot().getStartTime().plusMinutes(durationInMin).isAfter(c.timeSlot.getEndTime())) {
-                                        // Day + time + place are possible
-                                        isTimePossible = true;
-                                    }
-                                }
-                            }
-                        }
-
-                        if (!isTimePossible) {
-                            penalty++;
-                        }
-                    }
-                    return penalty;
-                })
+                .filter(lesson -> !lesson.getStudent().isAvailable(
+                        lesson.getTimeslot().getDayOfWeek(), lesson.getRoom(), lesson.getStartMinuteOfDay()))
+                .penalize(HardSoftScore.ONE_HARD)
+                .justifyWith((lesson, score) -> new LessonJustification(
+                        lesson.getStudent() + " is not available at " + time(lesson.getStartMinuteOfDay()) + " on "
+                                + lesson.getTimeslot().getDayOfWeek() + " in " + lesson.getRoom(),
+                        List.of(lesson), score))
                 .asConstraint("possibleTimeAndPlaceConstraint");
     }
 
-    Constraint locationChangeBreakConstraint(ConstraintFactory constraintFactory) {
-        // A teacher prefers to teach in a single room.
+    /**
+     * Hard: A room can't hold more lessons at the same time than its capacity.
+     * Every lesson counts the other lessons in its room that are running when it starts in at least one
+     * of its weeks, so bi-weekly lessons in alternate weeks can share a room. Of two lessons with the same start
+     * only the later one by id counts the other, so every overlapping pair is counted once.
+     */
+    Constraint roomCapacityConstraint(ConstraintFactory constraintFactory) {
         return constraintFactory
                 .forEach(Lesson.class)
-                .groupBy(l ->l.getTimeslot().getDayOfWeek(), toList())
-                .penalize(HardSoftScore.ONE_SOFT, (dayOfWeek, lessons) -> {
-                    int penalty = 0;
-                    lessons.sort((o1, o2) -> {
-                        if (o1.getTimeslot().getStartTime().equals(o2.getTimeslot().getStartTime())) {
-                            return 0;
-                        }
-                        return o1.getTimeslot().getStartTime().isBefore(o2.getTimeslot().getStartTime()) ? -1 : 1;
-                    });
-                    for (int i = 0; i < lessons.size() - 1; i++) {
-                        Lesson lesson = lessons.get(i);
-                        Lesson nextLesson = lessons.get(i+1);
-                        if (!lesson.getRoom().getName().equals(nextLesson.getRoom().getName())) {
-                            // Gap must be between 25 minutes and 45 minutes. Otherwise it's not a valid solution
-                            int durationInMin = Global.durations.get(lesson.getStudent());
-                            LocalTime before = lesson.getTimeslot().getStartTime().plusMinutes(durationInMin);
-                            LocalTime after = nextLesson.getTimeslot().getStartTime();
-                            Duration between = Duration.between(before, after);
-
-                            final int MIN_BREAK_IN_MIN = 25;
-                            final int MAX_BREAK_IN_MIN = 45;
-
-                            // The closer we come to 0 the more penalty it is
-                            if (between.compareTo(Duration.ofMinutes(MIN_BREAK_IN_MIN)) < 0) {
-                                long min = between.toMinutes();
-                                penalty += (int) (MIN_BREAK_IN_MIN - min);
-                            }
-                            if (between.compareTo(Duration.ofMinutes(MAX_BREAK_IN_MIN)) > 0) {
-                                // The more we have the more penalty
-                                long min = between.toMinutes();
-                                penalty += (int) min - MAX_BREAK_IN_MIN;
-                            }
-                        }
+                .join(Lesson.class,
+                        Joiners.equal(Lesson::getRoom),
+                        // The other lesson runs at the start minute of the first one
+                        Joiners.overlapping(Lesson::getStartMinuteOfWeek, lesson -> lesson.getStartMinuteOfWeek() + 1,
+                                Lesson::getStartMinuteOfWeek, Lesson::getEndMinuteOfWeek),
+                        Joiners.filtering((lesson, otherLesson) -> (otherLesson.getStartMinuteOfWeek()
+                                < lesson.getStartMinuteOfWeek() || otherLesson.getId() < lesson.getId())
+                                && (lesson.getWeekMask() & otherLesson.getWeekMask()) != 0L))
+                .groupBy((lesson, otherLesson) -> lesson, countBi())
+                .filter((lesson, runningCount) -> runningCount >= lesson.getRoom().getCapacity())
+                .penalize(HardSoftScore.ONE_HARD,
+                        (lesson, runningCount) -> runningCount + 1 - lesson.getRoom().getCapacity())
+                .justifyWith((lesson, runningCount, score) -> new LessonJustification(
+                        lesson.getRoom() + " already holds " + runningCount + " lessons when " + lesson.getStudent()
+                                + " starts at " + time(lesson.getStartMinuteOfDay()) + " on "
+                                + lesson.getTimeslot().getDayOfWeek(),
+                        List.of(lesson), score))
+                .asConstraint("roomCapacityConstraint");
+    }
+
+    /**
+     * Soft: Gap between two lessons in different locations should be between the travel time and
+     * 20 minutes more, e.g. 25 to 45 minutes for the default travel time.
+     * The further away from that window, the more penalty it is.
+     */
+    Constraint locationChangeBreakConstraint(ConstraintFactory constraintFactory) {
+        return consecutiveLessons(constraintFactory)
+                .filter(TimeTableConstraintProvider::isRoomChange)
+                .join(TravelTimeMatrix.class)
+                .penalize(HardSoftScore.ONE_SOFT, (pair, travelTimeMatrix) -> {
+                    Lesson lesson = pair.lesson();
+                    Lesson nextLesson = pair.nextLesson();
+                    int between = nextLesson.getStartMinuteOfDay() - lesson.getEndMinuteOfDay();
+
+                    final int MIN_BREAK_IN_MIN = travelTimeMatrix.getTravelTimeInMin(lesson.getRoom(), nextLesson.getRoom());
+                    final int MAX_BREAK_IN_MIN = MIN_BREAK_IN_MIN + 20;
+
+                    // The closer we come to 0 the more penalty it is
+                    if (between < MIN_BREAK_IN_MIN) {
+                        return (MIN_BREAK_IN_MIN - between) * pair.weekCount();
+                    }
+                    // The more we have the more penalty
+                    if (between > MAX_BREAK_IN_MIN) {
+                        return (between - MAX_BREAK_IN_MIN) * pair.weekCount();
                     }
-                    return penalty;
+                    return 0;
                 })
+                .justifyWith((pair, travelTimeMatrix, score) -> new LessonJustification(
+                        (pair.nextLesson().getStartMinuteOfDay() - pair.lesson().getEndMinuteOfDay()) + " min from "
+                                + pair.lesson().getRoom() + " (" + pair.lesson().getStudent() + ") to "
+                                + pair.nextLesson().getRoom() + " (" + pair.nextLesson().getStudent() + ") on "
+                                + pair.lesson().getTimeslot().getDayOfWeek() + weeks(pair) + ", travel takes "
+                                + travelTimeMatrix.getTravelTimeInMin(pair.lesson().getRoom(), pair.nextLesson().getRoom())
+                                + " min",
+                        List.of(pair.lesson(), pair.nextLesson()), score))
+                .indictWith((pair, travelTimeMatrix) -> List.of(pair.lesson(), pair.nextLesson()))
                 .asConstraint("locationChangeBreakConstraint");
     }
 
+    /**
+     * Soft: Every minute a teacher travels between locations during a day is penalized.
+     */
+    Constraint travelTimeConstraint(ConstraintFactory constraintFactory) {
+        return consecutiveLessons(constraintFactory)
+                .filter(TimeTableConstraintProvider::isRoomChange)
+                .join(TravelTimeMatrix.class)
+                .penalize(HardSoftScore.ONE_SOFT, (pair, travelTimeMatrix) ->
+                        travelTimeMatrix.getTravelTimeInMin(pair.lesson().getRoom(), pair.nextLesson().getRoom())
+                                * pair.weekCount())
+                .justifyWith((pair, travelTimeMatrix, score) -> new LessonJustification(
+                        pair.lesson().getTeacher() + " travels from " + pair.lesson().getRoom() + " to "
+                                + pair.nextLesson().getRoom() + " on " + pair.lesson().getTimeslot().getDayOfWeek()
+                                + weeks(pair),
+                        List.of(pair.lesson(), pair.nextLesson()), score))
+                .indictWith((pair, travelTimeMatrix) -> List.of(pair.lesson(), pair.nextLesson()))
+                .asConstraint("travelTimeConstraint");
+    }
+
     /**
      * Soft: Location switch: Reward staying at location.
+     * The room changes are counted per week, a bi-weekly room change only adds to the weeks it happens in.
      */
     Constraint locationStabilityConstraint(ConstraintFactory constraintFactory) {
         // A teacher prefers to teach in a single room.
-        return constraintFactory
-                .forEach(Lesson.class)
-                .groupBy(l ->l.getTimeslot().getDayOfWeek(), toList())
-                .penalize(HardSoftScore.ONE_SOFT, (dayOfWeek, lessons) -> {
-                    lessons.sort((o1, o2) -> {
-                        if (o1.getTimeslot().getStartTime().equals(o2.getTimeslot().getStartTime())) {
-                            return 0;
-                        }
-                        return o1.getTimeslot().getStartTime().isBefore(o2.getTimeslot().getStartTime()) ? -1 : 1;
-                    });
-                    int roomChangeCount = 0;
-                    for (int i = 0; i < lessons.size() - 1; i++) {
-                        Lesson lesson = lessons.get(i);
-                        Lesson nextLesson = lessons.get(i+1);
-                        if (!lesson.getRoom().getName().equals(nextLesson.getRoom().getName())) {
-                            roomChangeCount++;
-                        }
-                    }
-                    if (roomChangeCount == 2) {
-                        return 100;
-                    }
-                    if (roomChangeCount > 2) {
-                        return 1000;
-                    }
-                    return 0;
-                })
+        return consecutiveLessons(constraintFactory)
+                .filter(TimeTableConstraintProvider::isRoomChange)
+                // The lessons after which the room changes, so that the penalty can be traced back to them
+                .groupBy(pair -> pair.lesson().getTeacher(),
+                        pair -> pair.lesson().getTimeslot().getDayOfWeek(),
+                        toList())
+                .filter((teacher, dayOfWeek, roomChanges) -> roomChangePenalty(roomChanges) > 0)
+                .penalize(HardSoftScore.ONE_SOFT, (teacher, dayOfWeek, roomChanges) -> roomChangePenalty(roomChanges))
+                .justifyWith((teacher, dayOfWeek, roomChanges, score) -> new LessonJustification(
+                        roomChanges.size() + " room changes of " + teacher + " on " + dayOfWeek,
+                        roomChanges.stream().map(LessonPair::lesson).toList(), score))
+                .indictWith((teacher, dayOfWeek, roomChanges) -> List.copyOf(
+                        roomChanges.stream().map(LessonPair::lesson).toList()))
                 .asConstraint("locationStabilityConstraint");
     }
 
@@ -198,33 +235,15 @@ public class TimeTableConstraintProvider implements ConstraintProvider {
      * Reward lessons that are consecutive: Lessons with no gap are rewarded
      */
     Constraint consecutiveLessonsConstraint(ConstraintFactory constraintFactory) {
-
-        return constraintFactory
-                .forEach(Lesson.class)
-                .groupBy(l ->l.getTimeslot().getDayOfWeek(), toList())
-                .reward(HardSoftScore.ONE_SOFT, (dayOfWeek, lessons) -> {
-                    int reward = 0;
-                    lessons.sort((o1, o2) -> {
-                        if (o1.getTimeslot().getStartTime().equals(o2.getTimeslot().getStartTime())) {
-                            return 0;
-                        }
-                        return o1.getTimeslot().getStartTime().isBefore(o2.getTimeslot().getStartTime()) ? -1 : 1;
-                    });
-                    for (int i = 0; i < lessons.size() - 1; i++) {
-                        Lesson lesson = lessons.get(i);
-                        Lesson nextLesson = lessons.get(i+1);
-
-                        int durationInMin = Global.durations.get(lesson.getStudent());
-                        LocalTime before = lesson.getTimeslot().getStartTime().plusMinutes(durationInMin);
-                        LocalTime after = nextLesson.getTimeslot().getStartTime();
-                        Duration between = Duration.between(before, after);
-                        if (between.compareTo(Duration.ofMinutes(0)) == 0) {
-                            reward++;
-                        }
-
-                    }
-                    return reward;
-                })
+        return consecutiveLessons(constraintFactory)
+                .filter(pair -> pair.lesson().getEndMinuteOfDay() == pair.nextLesson().getStartMinuteOfDay())
+                .reward(HardSoftScore.ONE_SOFT, LessonPair::weekCount)
+                .justifyWith((pair, score) -> new LessonJustification(
+                        pair.nextLesson().getStudent() + " follows " + pair.lesson().getStudent() + " at "
+                                + time(pair.nextLesson().getStartMinuteOfDay()) + " on "
+                                + pair.lesson().getTimeslot().getDayOfWeek() + weeks(pair),
+                        List.of(pair.lesson(), pair.nextLesson()), score))
+                .indictWith(pair -> List.of(pair.lesson(), pair.nextLesson()))
                 .asConstraint("consecutiveLessonsConstraint");
     }
 }
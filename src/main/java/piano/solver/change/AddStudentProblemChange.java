@@ -0,0 +1,78 @@
+package piano.solver.change;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import piano.TimeTableApp;
+import piano.domain.Lesson;
+import piano.domain.Student;
+import piano.domain.TimeTable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adds a student with one unassigned lesson, which the construction phases place when the solver restarts.
+ */
+public class AddStudentProblemChange implements ProblemChange<TimeTable> {
+
+    private final Student student;
+    private final String subject;
+    private final String studentGroup;
+
+    /**
+     * Takes the subject and the student group from a lesson of the same teacher, or of any teacher if the
+     * teacher has none yet.
+     *
+     * @param student with locations from the room list of the solved time table
+     */
+    public AddStudentProblemChange(Student student) {
+        this(student, null, null);
+    }
+
+    /**
+     * @param student with locations from the room list of the solved time table
+     */
+    public AddStudentProblemChange(Student student, String subject, String studentGroup) {
+        this.student = student;
+        this.subject = subject;
+        this.studentGroup = studentGroup;
+    }
+
+    @Override
+    public void doChange(TimeTable workingSolution, ProblemChangeDirector problemChangeDirector) {
+        // Problem fact lists are shared with the previous best solutions, so they are replaced instead of changed
+        workingSolution.setStudentList(new ArrayList<>(workingSolution.getStudentList()));
+        problemChangeDirector.addProblemFact(student, workingSolution.getStudentList()::add);
+
+        long id = workingSolution.getLessonList().stream()
+                .mapToLong(Lesson::getId)
+                .max()
+                .orElse(-1L) + 1;
+        String lessonSubject = subject;
+        String lessonStudentGroup = studentGroup;
+        if (lessonSubject == null) {
+            Lesson template = findTemplate(workingSolution);
+            lessonSubject = template == null ? TimeTableApp.DEFAULT_SUBJECT : template.getSubject();
+            lessonStudentGroup = template == null ? TimeTableApp.DEFAULT_STUDENT_GROUP : template.getStudentGroup();
+        }
+        Lesson lesson = new Lesson(id, lessonSubject, student, lessonStudentGroup);
+        TimeTableApp.initializeValueRanges(List.of(lesson), workingSolution);
+        problemChangeDirector.addEntity(lesson, workingSolution.getLessonList()::add);
+    }
+
+    /**
+     * @return a lesson of the student's teacher, any lesson if there is none, null if there are no lessons
+     */
+    private Lesson findTemplate(TimeTable workingSolution) {
+        Lesson template = null;
+        for (Lesson lesson : workingSolution.getLessonList()) {
+            if (lesson.getStudent().getTeacher() == student.getTeacher()) {
+                return lesson;
+            }
+            if (template == null) {
+                template = lesson;
+            }
+        }
+        return template;
+    }
+}
@@ -0,0 +1,68 @@
+package piano.solver.change;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import piano.TimeTableApp;
+import piano.domain.Lesson;
+import piano.domain.Student;
+import piano.domain.TimeTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Replaces a student by a student with the same name and new windows or a new duration.
+ * <p>
+ * Lessons that still fit the new windows keep their timeslot and room. The others are unpinned and
+ * unassigned, so only they are placed again when the solver restarts.
+ */
+public class ChangeStudentProblemChange implements ProblemChange<TimeTable> {
+
+    private final Student student;
+
+    /**
+     * @param student with locations from the room list of the solved time table
+     */
+    public ChangeStudentProblemChange(Student student) {
+        this.student = student;
+    }
+
+    @Override
+    public void doChange(TimeTable workingSolution, ProblemChangeDirector problemChangeDirector) {
+        Student oldStudent = StudentProblemChanges.findStudent(workingSolution, student.getName());
+        if (oldStudent == null) {
+            // Removed by an earlier change
+            return;
+        }
+        // Problem fact lists are shared with the previous best solutions, so they are replaced instead of changed
+        List<Student> students = new ArrayList<>(workingSolution.getStudentList());
+        workingSolution.setStudentList(students);
+        // The student keeps its position, so the solution is written in the order of the plan
+        int index = students.indexOf(oldStudent);
+        problemChangeDirector.removeProblemFact(oldStudent, students::remove);
+        problemChangeDirector.addProblemFact(student, newStudent -> students.add(index, newStudent));
+
+        List<Lesson> lessons = workingSolution.getLessonList().stream()
+                .filter(lesson -> lesson.getStudent() == oldStudent)
+                .collect(Collectors.toList());
+        for (Lesson lesson : lessons) {
+            problemChangeDirector.changeProblemProperty(lesson, workingLesson -> {
+                workingLesson.setStudent(student);
+                TimeTableApp.initializeValueRanges(List.of(workingLesson), workingSolution);
+            });
+            if (lesson.getTimeslot() == null || lesson.getRoom() == null) {
+                continue;
+            }
+            boolean fits = lesson.findPossibleTimeslot(lesson.getTimeslot().getStartMinuteOfWeek()) == lesson.getTimeslot()
+                    && lesson.getPossibleRoomList().contains(lesson.getRoom());
+            if (!fits) {
+                if (lesson.isPinned()) {
+                    problemChangeDirector.changeProblemProperty(lesson, workingLesson -> workingLesson.setPinned(false));
+                }
+                problemChangeDirector.changeVariable(lesson, "timeslot", workingLesson -> workingLesson.setTimeslot(null));
+                problemChangeDirector.changeVariable(lesson, "room", workingLesson -> workingLesson.setRoom(null));
+            }
+        }
+    }
+}
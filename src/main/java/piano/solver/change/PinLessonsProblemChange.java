@@ -0,0 +1,35 @@
+package piano.solver.change;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import piano.domain.Lesson;
+import piano.domain.TimeTable;
+
+import java.util.Set;
+
+/**
+ * Pins or unpins lessons by id. Pinned lessons keep their timeslot and room, unassigned lessons are never pinned.
+ */
+public class PinLessonsProblemChange implements ProblemChange<TimeTable> {
+
+    private final Set<Long> lessonIds;
+    private final boolean pinned;
+
+    public PinLessonsProblemChange(Set<Long> lessonIds, boolean pinned) {
+        this.lessonIds = Set.copyOf(lessonIds);
+        this.pinned = pinned;
+    }
+
+    @Override
+    public void doChange(TimeTable workingSolution, ProblemChangeDirector problemChangeDirector) {
+        for (Lesson lesson : workingSolution.getLessonList()) {
+            if (!lessonIds.contains(lesson.getId()) || lesson.isPinned() == pinned) {
+                continue;
+            }
+            if (pinned && (lesson.getTimeslot() == null || lesson.getRoom() == null)) {
+                continue;
+            }
+            problemChangeDirector.changeProblemProperty(lesson, workingLesson -> workingLesson.setPinned(pinned));
+        }
+    }
+}
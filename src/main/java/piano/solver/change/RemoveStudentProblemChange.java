@@ -0,0 +1,42 @@
+package piano.solver.change;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import piano.domain.Lesson;
+import piano.domain.Student;
+import piano.domain.TimeTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Removes a student and its lessons. The other lessons stay where they are.
+ */
+public class RemoveStudentProblemChange implements ProblemChange<TimeTable> {
+
+    private final String studentName;
+
+    public RemoveStudentProblemChange(String studentName) {
+        this.studentName = studentName;
+    }
+
+    @Override
+    public void doChange(TimeTable workingSolution, ProblemChangeDirector problemChangeDirector) {
+        List<Lesson> lessons = workingSolution.getLessonList().stream()
+                .filter(lesson -> lesson.getStudent().getName().equals(studentName))
+                .collect(Collectors.toList());
+        for (Lesson lesson : lessons) {
+            problemChangeDirector.removeEntity(lesson, workingSolution.getLessonList()::remove);
+        }
+
+        Student student = StudentProblemChanges.findStudent(workingSolution, studentName);
+        if (student == null) {
+            // Already removed by an earlier change
+            return;
+        }
+        // Problem fact lists are shared with the previous best solutions, so they are replaced instead of changed
+        workingSolution.setStudentList(new ArrayList<>(workingSolution.getStudentList()));
+        problemChangeDirector.removeProblemFact(student, workingSolution.getStudentList()::remove);
+    }
+}
@@ -0,0 +1,22 @@
+package piano.solver.change;
+
+import piano.domain.Student;
+import piano.domain.TimeTable;
+
+final class StudentProblemChanges {
+
+    private StudentProblemChanges() {
+    }
+
+    /**
+     * @return the working student with the given name, null if there is none
+     */
+    static Student findStudent(TimeTable workingSolution, String studentName) {
+        for (Student student : workingSolution.getStudentList()) {
+            if (student.getName().equals(studentName)) {
+                return student;
+            }
+        }
+        return null;
+    }
+}
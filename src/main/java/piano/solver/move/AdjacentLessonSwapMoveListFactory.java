@@ -0,0 +1,44 @@
+package piano.solver.move;
+
+import ai.timefold.solver.core.impl.heuristic.selector.move.factory.MoveListFactory;
+import piano.domain.Lesson;
+import piano.domain.Room;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Swaps the order of a lesson and the lesson that follows it on the same day and packs them back-to-back:
+ * the next lesson starts when the first one started and the first one starts right after it.
+ * Both lessons keep their room. Only series that take place in the same weeks are swapped.
+ */
+public class AdjacentLessonSwapMoveListFactory implements MoveListFactory<TimeTable> {
+
+    @Override
+    public List<LessonAssignmentMove> createMoveList(TimeTable timeTable) {
+        List<LessonAssignmentMove> moves = new ArrayList<>();
+        for (Lesson lesson : timeTable.getLessonList()) {
+            if (lesson.getNextLessons().size() != 1) {
+                continue;
+            }
+            Lesson nextLesson = lesson.getNextLessons().get(0);
+            if (lesson.getRoom() == null || nextLesson.getRoom() == null
+                    || lesson.getWeekMask() != nextLesson.getWeekMask()) {
+                continue;
+            }
+            int startMinuteOfWeek = lesson.getTimeslot().getStartMinuteOfWeek();
+            Timeslot nextLessonTimeslot = nextLesson.findPossibleTimeslot(startMinuteOfWeek);
+            Timeslot lessonTimeslot = lesson.findPossibleTimeslot(startMinuteOfWeek + nextLesson.getStudent().getDurationInMin());
+            if (nextLessonTimeslot == null || lessonTimeslot == null) {
+                continue;
+            }
+            moves.add(new LessonAssignmentMove(
+                    new Lesson[] {lesson, nextLesson},
+                    new Timeslot[] {lessonTimeslot, nextLessonTimeslot},
+                    new Room[] {lesson.getRoom(), nextLesson.getRoom()}));
+        }
+        return moves;
+    }
+}
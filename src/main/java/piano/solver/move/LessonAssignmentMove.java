@@ -0,0 +1,137 @@
+package piano.solver.move;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.move.AbstractMove;
+import piano.domain.Lesson;
+import piano.domain.Room;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Assigns a new timeslot and room to one or more lessons at once.
+ */
+public class LessonAssignmentMove extends AbstractMove<TimeTable> {
+
+    private final Lesson[] lessons;
+    private final Timeslot[] toTimeslots;
+    private final Room[] toRooms;
+
+    public LessonAssignmentMove(Lesson lesson, Timeslot toTimeslot, Room toRoom) {
+        this(new Lesson[] {lesson}, new Timeslot[] {toTimeslot}, new Room[] {toRoom});
+    }
+
+    public LessonAssignmentMove(Lesson[] lessons, Timeslot[] toTimeslots, Room[] toRooms) {
+        this.lessons = lessons;
+        this.toTimeslots = toTimeslots;
+        this.toRooms = toRooms;
+    }
+
+    @Override
+    public boolean isMoveDoable(ScoreDirector<TimeTable> scoreDirector) {
+        for (int i = 0; i < lessons.length; i++) {
+            // Custom move factories don't filter pinned lessons like the generic selectors do
+            if (toTimeslots[i] == null || toRooms[i] == null || lessons[i].isPinned()) {
+                return false;
+            }
+        }
+        for (int i = 0; i < lessons.length; i++) {
+            if (lessons[i].getTimeslot() != toTimeslots[i] || lessons[i].getRoom() != toRooms[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected LessonAssignmentMove createUndoMove(ScoreDirector<TimeTable> scoreDirector) {
+        Timeslot[] fromTimeslots = new Timeslot[lessons.length];
+        Room[] fromRooms = new Room[lessons.length];
+        for (int i = 0; i < lessons.length; i++) {
+            fromTimeslots[i] = lessons[i].getTimeslot();
+            fromRooms[i] = lessons[i].getRoom();
+        }
+        return new LessonAssignmentMove(lessons, fromTimeslots, fromRooms);
+    }
+
+    @Override
+    protected void doMoveOnGenuineVariables(ScoreDirector<TimeTable> scoreDirector) {
+        for (int i = 0; i < lessons.length; i++) {
+            Lesson lesson = lessons[i];
+            if (lesson.getTimeslot() != toTimeslots[i]) {
+                scoreDirector.beforeVariableChanged(lesson, "timeslot");
+                lesson.setTimeslot(toTimeslots[i]);
+                scoreDirector.afterVariableChanged(lesson, "timeslot");
+            }
+            if (lesson.getRoom() != toRooms[i]) {
+                scoreDirector.beforeVariableChanged(lesson, "room");
+                lesson.setRoom(toRooms[i]);
+                scoreDirector.afterVariableChanged(lesson, "room");
+            }
+        }
+    }
+
+    @Override
+    public LessonAssignmentMove rebase(ScoreDirector<TimeTable> destinationScoreDirector) {
+        Lesson[] rebasedLessons = new Lesson[lessons.length];
+        Timeslot[] rebasedTimeslots = new Timeslot[lessons.length];
+        Room[] rebasedRooms = new Room[lessons.length];
+        for (int i = 0; i < lessons.length; i++) {
+            rebasedLessons[i] = destinationScoreDirector.lookUpWorkingObject(lessons[i]);
+            rebasedTimeslots[i] = destinationScoreDirector.lookUpWorkingObject(toTimeslots[i]);
+            rebasedRooms[i] = destinationScoreDirector.lookUpWorkingObject(toRooms[i]);
+        }
+        return new LessonAssignmentMove(rebasedLessons, rebasedTimeslots, rebasedRooms);
+    }
+
+    @Override
+    public Collection<?> getPlanningEntities() {
+        return Arrays.asList(lessons);
+    }
+
+    @Override
+    public Collection<?> getPlanningValues() {
+        List<Object> values = new ArrayList<>(lessons.length * 2);
+        values.addAll(Arrays.asList(toTimeslots));
+        values.addAll(Arrays.asList(toRooms));
+        return new LinkedHashSet<>(values);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LessonAssignmentMove)) {
+            return false;
+        }
+        LessonAssignmentMove other = (LessonAssignmentMove) o;
+        return Arrays.equals(lessons, other.lessons)
+                && Arrays.equals(toTimeslots, other.toTimeslots)
+                && Arrays.equals(toRooms, other.toRooms);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(lessons), Arrays.hashCode(toTimeslots), Arrays.hashCode(toRooms));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < lessons.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(lessons[i]).append(" {").append(lessons[i].getTimeslot()).append(' ').append(lessons[i].getRoom())
+                    .append(" -> ").append(toTimeslots[i]).append(' ').append(toRooms[i]).append('}');
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,96 @@
+package piano.solver.move;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+import piano.domain.Lesson;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Nudges a lesson one or two grid steps earlier or later on the same day, e.g. 5 or 10 minutes on the 5 minute grid,
+ * staying in the same room and in the student's window. A shift never jumps over a gap between two windows.
+ */
+public class ShiftLessonMoveIteratorFactory implements MoveIteratorFactory<TimeTable, LessonAssignmentMove> {
+
+    // In grid steps
+    private static final int[] SHIFTS = {-2, -1, 1, 2};
+
+    @Override
+    public long getSize(ScoreDirector<TimeTable> scoreDirector) {
+        return (long) scoreDirector.getWorkingSolution().getLessonList().size() * SHIFTS.length;
+    }
+
+    @Override
+    public Iterator<LessonAssignmentMove> createOriginalMoveIterator(ScoreDirector<TimeTable> scoreDirector) {
+        TimeTable timeTable = scoreDirector.getWorkingSolution();
+        int gridStepInMin = gridStepInMin(timeTable);
+        List<LessonAssignmentMove> moves = new ArrayList<>();
+        for (Lesson lesson : timeTable.getLessonList()) {
+            for (int shift : SHIFTS) {
+                LessonAssignmentMove move = createMove(lesson, shift * gridStepInMin);
+                if (move != null) {
+                    moves.add(move);
+                }
+            }
+        }
+        return moves.iterator();
+    }
+
+    @Override
+    public Iterator<LessonAssignmentMove> createRandomMoveIterator(ScoreDirector<TimeTable> scoreDirector, Random workingRandom) {
+        TimeTable timeTable = scoreDirector.getWorkingSolution();
+        int gridStepInMin = gridStepInMin(timeTable);
+        List<Lesson> lessons = timeTable.getLessonList();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !lessons.isEmpty();
+            }
+
+            @Override
+            public LessonAssignmentMove next() {
+                Lesson lesson = lessons.get(workingRandom.nextInt(lessons.size()));
+                int shift = SHIFTS[workingRandom.nextInt(SHIFTS.length)];
+                LessonAssignmentMove move = createMove(lesson, shift * gridStepInMin);
+                // A shift out of the window is returned as a move that is not doable
+                return move != null ? move : new LessonAssignmentMove(lesson, null, null);
+            }
+        };
+    }
+
+    /**
+     * @return the distance between the nearest starts on the first timeslot's day, 0 if it has only one start,
+     * which makes every shift a move that is not doable
+     */
+    private static int gridStepInMin(TimeTable timeTable) {
+        List<Timeslot> timeslots = timeTable.getTimeslotList();
+        Timeslot first = timeslots.get(0);
+        int gridStepInMin = Integer.MAX_VALUE;
+        for (Timeslot timeslot : timeslots) {
+            int distance = Math.abs(timeslot.getStartMinuteOfWeek() - first.getStartMinuteOfWeek());
+            if (distance > 0 && timeslot.getDayOfWeek() == first.getDayOfWeek()) {
+                gridStepInMin = Math.min(gridStepInMin, distance);
+            }
+        }
+        return gridStepInMin == Integer.MAX_VALUE ? 0 : gridStepInMin;
+    }
+
+    private static LessonAssignmentMove createMove(Lesson lesson, int shiftInMin) {
+        Timeslot timeslot = lesson.getTimeslot();
+        if (timeslot == null || lesson.getRoom() == null) {
+            return null;
+        }
+        // By minutes, not by index: the next possible start may lie in a later window
+        Timeslot toTimeslot = lesson.findPossibleTimeslot(timeslot.getStartMinuteOfWeek() + shiftInMin);
+        if (toTimeslot == null || toTimeslot.getDayOfWeek() != timeslot.getDayOfWeek()
+                || !lesson.getStudent().isAvailable(toTimeslot.getDayOfWeek(), lesson.getRoom(), toTimeslot.getStartMinuteOfDay())) {
+            return null;
+        }
+        return new LessonAssignmentMove(lesson, toTimeslot, lesson.getRoom());
+    }
+}
@@ -0,0 +1,77 @@
+package piano.solver.move;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+import piano.domain.Lesson;
+import piano.domain.Room;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Moves a lesson to another start slot together with a room in which the student is available then,
+ * unlike the generic change move which changes timeslot and room independently.
+ */
+public class WindowChangeMoveIteratorFactory implements MoveIteratorFactory<TimeTable, LessonAssignmentMove> {
+
+    @Override
+    public long getSize(ScoreDirector<TimeTable> scoreDirector) {
+        long size = 0L;
+        for (Lesson lesson : scoreDirector.getWorkingSolution().getLessonList()) {
+            size += lesson.getPossibleTimeslotList().size();
+        }
+        return size;
+    }
+
+    @Override
+    public Iterator<LessonAssignmentMove> createOriginalMoveIterator(ScoreDirector<TimeTable> scoreDirector) {
+        List<LessonAssignmentMove> moves = new ArrayList<>();
+        for (Lesson lesson : scoreDirector.getWorkingSolution().getLessonList()) {
+            for (Timeslot timeslot : lesson.getPossibleTimeslotList()) {
+                for (Room room : lesson.getPossibleRoomList()) {
+                    if (isAvailable(lesson, timeslot, room)) {
+                        moves.add(new LessonAssignmentMove(lesson, timeslot, room));
+                    }
+                }
+            }
+        }
+        return moves.iterator();
+    }
+
+    @Override
+    public Iterator<LessonAssignmentMove> createRandomMoveIterator(ScoreDirector<TimeTable> scoreDirector, Random workingRandom) {
+        List<Lesson> lessons = scoreDirector.getWorkingSolution().getLessonList();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !lessons.isEmpty();
+            }
+
+            @Override
+            public LessonAssignmentMove next() {
+                Lesson lesson = lessons.get(workingRandom.nextInt(lessons.size()));
+                List<Timeslot> timeslots = lesson.getPossibleTimeslotList();
+                Timeslot timeslot = timeslots.get(workingRandom.nextInt(timeslots.size()));
+                List<Room> rooms = lesson.getPossibleRoomList();
+                // Start at a random room so that students with several locations use all of them
+                int offset = workingRandom.nextInt(rooms.size());
+                for (int i = 0; i < rooms.size(); i++) {
+                    Room room = rooms.get((offset + i) % rooms.size());
+                    if (isAvailable(lesson, timeslot, room)) {
+                        return new LessonAssignmentMove(lesson, timeslot, room);
+                    }
+                }
+                // Only reachable for lessons that fit nowhere, the move is not doable
+                return new LessonAssignmentMove(lesson, null, null);
+            }
+        };
+    }
+
+    private static boolean isAvailable(Lesson lesson, Timeslot timeslot, Room room) {
+        return lesson.getStudent().isAvailable(timeslot.getDayOfWeek(), room, timeslot.getStartMinuteOfDay());
+    }
+}
@@ -0,0 +1,86 @@
+package piano;
+
+import ai.timefold.solver.core.api.solver.SolverManager;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.SolverManagerConfig;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import piano.domain.TimeTable;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A plan that reaches its bound at once must come back with every target, on every path that uses a monitor.
+ */
+class AdaptiveTerminationTest {
+
+    // Both lessons fit on their own day, so the first solution is 0hard/0soft, the bound
+    private static final String FEASIBLE_PLAN = """
+            +Anna
+            .30
+            -Innsbruck
+            MO 08:00-09:00
+
+            +Ben
+            .30
+            -Innsbruck
+            TU 08:00-09:00
+            """;
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @ParameterizedTest
+    @EnumSource(AdaptiveTermination.Target.class)
+    void solverManagerWithMonitor(AdaptiveTermination.Target target) throws IOException {
+        AdaptiveTermination termination = createTermination(target);
+        TimeTable problem = parse();
+        SolverConfig solverConfig = TimeTableApp.createSolverConfig()
+                .withTerminationConfig(termination.createSharedTerminationConfig());
+        TimeTable solution = assertTimeoutPreemptively(TIMEOUT, () -> {
+            try (SolverManager<TimeTable, String> solverManager = SolverManager.create(solverConfig,
+                    new SolverManagerConfig());
+                    AdaptiveTermination.Monitor<String> monitor = termination.createMonitor(solverManager)) {
+                return solverManager.solveAndListen("plan", id -> problem, monitor.watch("plan", problem))
+                        .getFinalBestSolution();
+            }
+        });
+        assertTrue(solution.getScore().isFeasible());
+    }
+
+    @ParameterizedTest
+    @EnumSource(AdaptiveTermination.Target.class)
+    void componentSolver(AdaptiveTermination.Target target) {
+        AdaptiveTermination termination = createTermination(target);
+        TimeTable solution = assertTimeoutPreemptively(TIMEOUT, () -> new ComponentSolver(
+                TimeTableApp.createSolverConfig(), termination, SolverManagerConfig.PARALLEL_SOLVER_COUNT_AUTO)
+                .solve(parse()));
+        assertEquals(0, solution.getScore().hardScore());
+    }
+
+    @ParameterizedTest
+    @EnumSource(AdaptiveTermination.Target.class)
+    void dayDecompositionSolver(AdaptiveTermination.Target target) {
+        AdaptiveTermination termination = createTermination(target);
+        TimeTable solution = assertTimeoutPreemptively(TIMEOUT, () -> new DayDecompositionSolver(
+                TimeTableApp.createSolverConfig(), termination, SolverManagerConfig.PARALLEL_SOLVER_COUNT_AUTO)
+                .solve(parse()));
+        assertEquals(0, solution.getScore().hardScore());
+    }
+
+    /**
+     * Without a target only the short plateau ends the solves, well before the spent limit.
+     */
+    private static AdaptiveTermination createTermination(AdaptiveTermination.Target target) {
+        return new AdaptiveTermination(Duration.ofSeconds(10), target, Duration.ofMillis(200), Duration.ZERO);
+    }
+
+    private static TimeTable parse() throws IOException {
+        return new PlanParser().parse(new StringReader(FEASIBLE_PLAN));
+    }
+}
@@ -0,0 +1,103 @@
+package piano;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.solver.Solver;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.api.solver.event.BestSolutionChangedEvent;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import piano.domain.TimeTable;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BestSolutionPublisherTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private static Solver<TimeTable> solver;
+
+    @BeforeAll
+    static void buildSolver() {
+        solver = SolverFactory.<TimeTable>create(TimeTableApp.createSolverConfig()).buildSolver();
+    }
+
+    /**
+     * Nothing is published within the interval, closing publishes the last of three best solutions once.
+     */
+    @Test
+    void latestWinsAndCloseFlushes() throws IOException {
+        BlockingQueue<TimetableSnapshot> snapshots = new LinkedBlockingQueue<>();
+        BestSolutionPublisher publisher = new BestSolutionPublisher(Duration.ofHours(1), List.of(snapshots::add));
+        for (int soft = -3; soft <= -1; soft++) {
+            publisher.bestSolutionChanged(event(soft));
+        }
+        assertNull(snapshots.peek());
+
+        publisher.close();
+        assertEquals(List.of(HardSoftScore.ofSoft(-1)), snapshots.stream().map(TimetableSnapshot::score).toList());
+    }
+
+    @Test
+    void publishOncePerBestSolution() throws Exception {
+        BlockingQueue<TimetableSnapshot> snapshots = new LinkedBlockingQueue<>();
+        try (BestSolutionPublisher publisher = new BestSolutionPublisher(Duration.ofMillis(20),
+                List.of(snapshots::add))) {
+            publisher.bestSolutionChanged(event(-2));
+            assertEquals(HardSoftScore.ofSoft(-2), poll(snapshots).score());
+            // The same best solution isn't published again
+            assertNull(snapshots.poll(200, TimeUnit.MILLISECONDS));
+
+            publisher.bestSolutionChanged(event(-1));
+            assertEquals(HardSoftScore.ofSoft(-1), poll(snapshots).score());
+        }
+        assertNull(snapshots.peek());
+    }
+
+    @Test
+    void failingSinkIsolated() throws Exception {
+        AtomicInteger failedCount = new AtomicInteger();
+        Consumer<TimetableSnapshot> failingSink = snapshot -> {
+            failedCount.incrementAndGet();
+            throw new IllegalStateException("Sink is down");
+        };
+        BlockingQueue<TimetableSnapshot> snapshots = new LinkedBlockingQueue<>();
+        try (BestSolutionPublisher publisher = new BestSolutionPublisher(Duration.ofMillis(20),
+                List.of(failingSink, snapshots::add))) {
+            publisher.bestSolutionChanged(event(-2));
+            assertEquals(HardSoftScore.ofSoft(-2), poll(snapshots).score());
+            // The failure stops neither the other sinks nor the next publication
+            publisher.bestSolutionChanged(event(-1));
+            assertEquals(HardSoftScore.ofSoft(-1), poll(snapshots).score());
+        }
+        assertEquals(2, failedCount.get());
+    }
+
+    private static TimetableSnapshot poll(BlockingQueue<TimetableSnapshot> snapshots) throws InterruptedException {
+        TimetableSnapshot snapshot = snapshots.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(snapshot, "Nothing published");
+        return snapshot;
+    }
+
+    private static BestSolutionChangedEvent<TimeTable> event(int softScore) throws IOException {
+        TimeTable solution = new PlanParser().parse(new StringReader("""
+                +Thomas
+                .30
+                -Innsbruck
+                MO 08:00-10:00
+                """));
+        solution.setScore(HardSoftScore.ofSoft(softScore));
+        return new BestSolutionChangedEvent<>(solver, 0L, solution, solution.getScore());
+    }
+}
@@ -0,0 +1,174 @@
+package piano;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import piano.domain.Recurrence;
+import piano.domain.Room;
+import piano.domain.Student;
+import piano.domain.Teacher;
+import piano.domain.TimeTable;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlanParserTest {
+
+    @Test
+    void validPlan() throws IOException {
+        TimeTable timeTable = parse("""
+                =2024-09-02 4
+                !2024-09-16
+                @Innsbruck 2
+                @Sistrans
+                *Anna
+                +Thomas
+                .30
+                /2+1
+                !2024-09-09
+                -Innsbruck
+                MO 08:00-10:00
+                -Sistrans
+                TU 14:00-16:30
+
+                *Ben
+                +Hannes
+                .45
+                -Innsbruck
+                WE 09:00-11:00""");
+
+        assertEquals(List.of("Innsbruck", "Sistrans"), timeTable.getRoomList().stream().map(Room::getName).toList());
+        assertEquals(List.of(2, 1), timeTable.getRoomList().stream().map(Room::getCapacity).toList());
+        assertEquals(List.of("Anna", "Ben"), timeTable.getTeacherList().stream().map(Teacher::getName).toList());
+        assertEquals(LocalDate.of(2024, 9, 2), timeTable.getHorizon().getFirstMonday());
+        assertEquals(4, timeTable.getHorizon().getWeekCount());
+        assertEquals(Set.of(LocalDate.of(2024, 9, 16)), timeTable.getHorizon().getHolidays());
+
+        // The last student is kept without a blank line at the end
+        List<Student> students = timeTable.getStudentList();
+        assertEquals(List.of("Thomas", "Hannes"), students.stream().map(Student::getName).toList());
+        Student thomas = students.get(0);
+        assertEquals("Anna", thomas.getTeacher().getName());
+        assertEquals(30, thomas.getDurationInMin());
+        assertEquals(new Recurrence(2, 1, Set.of(LocalDate.of(2024, 9, 9))), thomas.getRecurrence());
+        assertArrayEquals(new int[] {8 * 60, 9 * 60 + 30}, thomas.getStartWindows(DayOfWeek.MONDAY));
+        assertArrayEquals(new int[] {14 * 60, 16 * 60}, thomas.getStartWindows(DayOfWeek.TUESDAY));
+        assertTrue(thomas.isAvailable(DayOfWeek.TUESDAY, timeTable.getRoomList().get(1), 15 * 60));
+        Student hannes = students.get(1);
+        assertEquals("Ben", hannes.getTeacher().getName());
+        assertEquals(Recurrence.WEEKLY, hannes.getRecurrence());
+    }
+
+    @Test
+    void blankAndCommentLines() throws IOException {
+        TimeTable timeTable = parse("""
+                # Regional plan
+
+                +Thomas
+                # A comment doesn't end the student
+                .30
+                -Innsbruck\t
+                MO 08:00-10:00
+                \s\s
+
+                # Nor does a second blank line start one
+                +Hannes
+                .45
+                - Innsbruck
+                TU 08:00-10:00
+
+                """);
+
+        assertEquals(List.of("Thomas", "Hannes"), timeTable.getStudentList().stream().map(Student::getName).toList());
+        // Trailing whitespace and the space after the dash are not part of the location
+        assertEquals(List.of("Innsbruck"), timeTable.getRoomList().stream().map(Room::getName).toList());
+        assertEquals(30, timeTable.getStudentList().get(0).getDurationInMin());
+    }
+
+    static Stream<Arguments> errors() {
+        return Stream.of(
+                Arguments.of("!2024-09-16", 1, "Date before the term"),
+                Arguments.of("=2024-09-02 4\n!2024-13-01", 2, "Invalid date"),
+                Arguments.of("=2024-09-02 4\n=2024-09-09 4", 2, "already defined"),
+                Arguments.of("=2024-09-02", 1, "Expected a term"),
+                Arguments.of("=2024-09-03 4", 1, "start on a Monday"),
+                Arguments.of("=2024-09-02 65", 1, "1 to 64 weeks"),
+                Arguments.of("+Thomas\n.30\n/0", 3, "Expected a recurrence"),
+                Arguments.of("+Thomas\n.30\n/2+2", 3, "first week must be smaller"),
+                Arguments.of("@", 1, "Location name is empty"),
+                Arguments.of("@Innsbruck 0", 1, "Capacity must be a positive"),
+                Arguments.of("@Innsbruck\n@Innsbruck 2", 2, "already declared or used in line 1"),
+                Arguments.of("*", 1, "Teacher name is empty"),
+                Arguments.of("+\n.30", 1, "Student name is empty"),
+                Arguments.of("+Thomas\n.30\n\n+Thomas\n.30", 4, "already defined in line 1"),
+                Arguments.of("+Thomas\n.0\n.30", 2, "Duration must be a positive"),
+                Arguments.of("+Thomas\n-Innsbruck\nMO 08:00-10:00", 1, "has no duration"),
+                Arguments.of("+Thomas\n.30\n-", 3, "Location name is empty"),
+                Arguments.of("@Innsbruck\n+Thomas\n.30\n-Sistrans", 4, "Unknown location (Sistrans)"),
+                Arguments.of(".30", 1, "outside of a student"),
+                Arguments.of("+Thomas\n.30\nMO 08:00-10:00", 3, "before any location"),
+                Arguments.of("+Thomas\n.30\n-Innsbruck\nMO 8:00-10:00", 4, "Expected a window"),
+                Arguments.of("+Thomas\n.30\n-Innsbruck\nMX 08:00-10:00", 4, "Unknown day (MX)"),
+                Arguments.of("+Thomas\n.30\n-Innsbruck\nMO 08:00-24:00", 4, "Invalid time"),
+                Arguments.of("+Thomas\n.30\n-Innsbruck\nMO 10:00-08:00", 4, "end after it starts"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("errors")
+    void error(String plan, int lineNumber, String message) {
+        PlanParseException exception = assertThrows(PlanParseException.class, () -> parse(plan));
+        assertEquals(1, exception.getErrors().size(), exception.getMessage());
+        PlanParseException.LineError error = exception.getErrors().get(0);
+        assertEquals(lineNumber, error.lineNumber());
+        assertTrue(error.message().contains(message), error.message());
+    }
+
+    @Test
+    void allErrorsReported() {
+        PlanParseException exception = assertThrows(PlanParseException.class, () -> parse("""
+                +Thomas
+                .30
+                -Innsbruck
+                XX 08:00-10:00
+
+                +Hannes
+                .abc
+                -Innsbruck
+                MO 08:00-10:00
+                """));
+        assertEquals(List.of(4, 7, 6), exception.getErrors().stream()
+                .map(PlanParseException.LineError::lineNumber).toList());
+    }
+
+    @Test
+    void roomsGivenToTheParser() throws IOException {
+        List<Room> rooms = List.of(new Room(0, "Innsbruck"), new Room(1, "Sistrans"));
+        TimeTable timeTable = new PlanParser(rooms).parse(new StringReader("""
+                @Sistrans 3
+                +Thomas
+                .30
+                -Sistrans
+                MO 08:00-10:00
+                """));
+        assertEquals(List.of(1, 3), timeTable.getRoomList().stream().map(Room::getCapacity).toList());
+
+        PlanParseException exception = assertThrows(PlanParseException.class, () -> new PlanParser(rooms)
+                .parse(new StringReader("+Thomas\n.30\n-Igls\nMO 08:00-10:00")));
+        assertEquals(3, exception.getErrors().get(0).lineNumber());
+    }
+
+    private static TimeTable parse(String plan) throws IOException {
+        return new PlanParser().parse(new StringReader(plan));
+    }
+}
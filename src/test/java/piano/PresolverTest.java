@@ -0,0 +1,163 @@
+package piano;
+
+import org.junit.jupiter.api.Test;
+import piano.domain.Lesson;
+import piano.domain.TimeTable;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PresolverTest {
+
+    @Test
+    void splitIntoComponents() throws IOException {
+        Presolver.Result result = Presolver.presolve(parse("""
+                *Anna
+                +Alma
+                .30
+                -Innsbruck
+                MO 08:00-10:00
+
+                +Arno
+                .30
+                -Sistrans
+                MO 12:00-14:00
+
+                *Ben
+                +Berta
+                .30
+                -Sistrans
+                TU 08:00-10:00
+
+                +Bruno
+                .30
+                -Innsbruck
+                MO 09:00-11:00
+
+                *Carl
+                +Cilli
+                .30
+                -Sistrans
+                WE 08:00-10:00
+                """));
+
+        // Alma and Arno share a teacher and a day, Bruno's window overlaps Alma's in Innsbruck
+        assertEquals(List.of(List.of("Alma", "Arno", "Bruno"), List.of("Berta"), List.of("Cilli")),
+                result.components().stream().map(PresolverTest::studentNames).toList());
+        assertTrue(result.isFeasible());
+        assertTrue(result.fixedLessons().isEmpty());
+    }
+
+    @Test
+    void pinSinglePlacement() throws IOException {
+        Presolver.Result result = Presolver.presolve(parse("""
+                +Alma
+                .30
+                -Innsbruck
+                MO 08:00-08:30
+
+                +Arno
+                .30
+                -Innsbruck
+                TU 08:00-10:00
+                """));
+
+        assertEquals(1, result.fixedLessons().size());
+        Lesson lesson = result.fixedLessons().get(0);
+        assertEquals("Alma", lesson.getStudent().getName());
+        assertTrue(lesson.isPinned());
+        assertEquals(8 * 60, lesson.getStartMinuteOfWeek());
+        assertEquals("Innsbruck", lesson.getRoom().getName());
+        // The components get pinned copies of the fixed lessons
+        assertEquals(List.of(List.of("Alma"), List.of("Arno")),
+                result.components().stream().map(PresolverTest::studentNames).toList());
+        assertTrue(result.components().get(0).getLessonList().get(0).isPinned());
+        assertFalse(result.components().get(1).getLessonList().get(0).isPinned());
+    }
+
+    @Test
+    void reportInfeasibleStudent() throws IOException {
+        Presolver.Result result = Presolver.presolve(parse("""
+                +Alma
+                .60
+                -Innsbruck
+                MO 08:00-08:30
+
+                +Arno
+                .30
+                -Innsbruck
+                TU 08:00-10:00
+                """));
+
+        assertFalse(result.isFeasible());
+        assertEquals(List.of("Alma"), result.infeasibleLessons().stream()
+                .map(lesson -> lesson.getStudent().getName()).toList());
+        assertEquals(List.of(false, true), result.issues().stream().map(Presolver.Issue::infeasible).toList());
+        assertTrue(result.issues().get(0).message().contains("shorter than the 60 min lesson"),
+                result.issues().get(0).message());
+        assertEquals(List.of(List.of("Arno")), result.components().stream().map(PresolverTest::studentNames).toList());
+    }
+
+    /**
+     * A 10:00-12:00, B 10:30-11:00 and C 11:00-11:30 are all fixed: B and C both overlap A, although C starts when B
+     * ends.
+     */
+    @Test
+    void reportEveryPinnedOverlap() throws IOException {
+        Presolver.Result result = Presolver.presolve(parse("""
+                +A
+                .120
+                -Innsbruck
+                MO 10:00-12:00
+
+                +B
+                .30
+                -Innsbruck
+                MO 10:30-11:00
+
+                +C
+                .30
+                -Innsbruck
+                MO 11:00-11:30
+                """));
+
+        assertEquals(3, result.fixedLessons().size());
+        assertEquals(List.of("B: Fixed at MONDAY 10:30, which overlaps the fixed lesson of A.",
+                        "C: Fixed at MONDAY 11:00, which overlaps the fixed lesson of A."),
+                result.issues().stream().map(Presolver.Issue::toString).toList());
+    }
+
+    @Test
+    void pinnedLessonsInAlternateWeeksDontOverlap() throws IOException {
+        Presolver.Result result = Presolver.presolve(parse("""
+                =2024-09-02 4
+                +A
+                .60
+                /2
+                -Innsbruck
+                MO 10:00-11:00
+
+                +B
+                .60
+                /2+1
+                -Innsbruck
+                MO 10:00-11:00
+                """));
+
+        assertEquals(2, result.fixedLessons().size());
+        assertTrue(result.issues().isEmpty(), result.issues().toString());
+    }
+
+    private static List<String> studentNames(TimeTable component) {
+        return component.getLessonList().stream().map(lesson -> lesson.getStudent().getName()).toList();
+    }
+
+    private static TimeTable parse(String plan) throws IOException {
+        return new PlanParser().parse(new StringReader(plan));
+    }
+}
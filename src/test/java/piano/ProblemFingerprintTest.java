@@ -0,0 +1,110 @@
+package piano;
+
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import org.junit.jupiter.api.Test;
+import piano.domain.Lesson;
+import piano.domain.TimeTable;
+import piano.domain.TravelTimeMatrix;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ProblemFingerprintTest {
+
+    private static final String PLAN = """
+            =2024-09-02 6
+            !2024-09-16
+            @Innsbruck
+            @Sistrans
+            *Anna
+            +Thomas
+            .30
+            -Innsbruck
+            MO 08:00-10:00
+
+            +Britta
+            .45
+            /2+1
+            -Sistrans
+            TU 08:00-10:00
+            """;
+
+    private static final String REORDERED_PLAN = """
+            =2024-09-02 6
+            !2024-09-16
+            @Innsbruck
+            @Sistrans
+            *Anna
+            +Britta
+            .45
+            /2+1
+            -Sistrans
+            TU 08:00-10:00
+
+            +Thomas
+            .30
+            -Innsbruck
+            MO 08:00-10:00
+            """;
+
+    @Test
+    void sameProblemAndConfig() throws IOException {
+        assertEquals(fingerprint(parse(PLAN), TimeTableApp.createSolverConfig(), ""),
+                fingerprint(parse(PLAN), TimeTableApp.createSolverConfig(), ""));
+        assertEquals(fingerprint(parse(PLAN), TimeTableApp.createSolverConfig(), ""),
+                fingerprint(parse(REORDERED_PLAN), TimeTableApp.createSolverConfig(), ""));
+    }
+
+    @Test
+    void changedFacts() throws IOException {
+        String fingerprint = fingerprint(parse(PLAN), TimeTableApp.createSolverConfig(), "");
+        for (String changedPlan : new String[] {
+                PLAN.replace(".30", ".45"),
+                PLAN.replace("MO 08:00-10:00", "MO 08:00-10:30"),
+                PLAN.replace("-Innsbruck", "-Sistrans"),
+                PLAN.replace("@Innsbruck", "@Innsbruck 2"),
+                PLAN.replace("!2024-09-16", "!2024-09-23"),
+                PLAN.replace("=2024-09-02 6", "=2024-09-02 7"),
+                PLAN.replace("/2+1", "/2"),
+                PLAN.replace("*Anna", "*Ben"),
+                PLAN.replace("+Thomas", "+Tom")}) {
+            assertNotEquals(fingerprint, fingerprint(parse(changedPlan), TimeTableApp.createSolverConfig(), ""),
+                    changedPlan);
+        }
+
+        TimeTable travelTimes = parse(PLAN);
+        travelTimes.setTravelTimeMatrix(new TravelTimeMatrix(2, new int[] {0, 25, 30, 0}));
+        assertNotEquals(fingerprint, fingerprint(travelTimes, TimeTableApp.createSolverConfig(), ""));
+
+        TimeTable pinned = parse(PLAN);
+        Lesson lesson = pinned.getLessonList().get(0);
+        lesson.setTimeslot(lesson.getPossibleTimeslotList().get(0));
+        lesson.setRoom(lesson.getPossibleRoomList().get(0));
+        assertEquals(fingerprint, fingerprint(pinned, TimeTableApp.createSolverConfig(), ""));
+        lesson.setPinned(true);
+        assertNotEquals(fingerprint, fingerprint(pinned, TimeTableApp.createSolverConfig(), ""));
+    }
+
+    @Test
+    void changedConfig() throws IOException {
+        String fingerprint = fingerprint(parse(PLAN), TimeTableApp.createSolverConfig(), "");
+        assertNotEquals(fingerprint, fingerprint(parse(PLAN),
+                TimeTableApp.createSolverConfig().withTerminationSpentLimit(Duration.ofSeconds(3)), ""));
+        assertNotEquals(fingerprint, fingerprint(parse(PLAN), TimeTableApp.createSolverConfig().withRandomSeed(1L), ""));
+        assertNotEquals(fingerprint, fingerprint(parse(PLAN), TimeTableApp.createSolverConfig()
+                .withPhases(TimeTableApp.createGreedyInitializerPhaseConfig()), ""));
+        assertNotEquals(fingerprint, fingerprint(parse(PLAN), TimeTableApp.createSolverConfig(), "presolve=true"));
+    }
+
+    private static String fingerprint(TimeTable problem, SolverConfig solverConfig, String variant) {
+        return ProblemFingerprint.of(problem, solverConfig, variant);
+    }
+
+    private static TimeTable parse(String plan) throws IOException {
+        return new PlanParser().parse(new StringReader(plan));
+    }
+}
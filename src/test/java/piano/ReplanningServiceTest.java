@@ -0,0 +1,107 @@
+package piano;
+
+import org.junit.jupiter.api.Test;
+import piano.domain.Lesson;
+import piano.domain.Student;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+
+import java.io.StringReader;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ReplanningServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String PLAN = """
+            @Innsbruck
+            @Sistrans
+            *Anna
+            +Alma
+            .30
+            -Innsbruck
+            MO 08:00-10:00
+
+            +Arno
+            .30
+            -Innsbruck
+            MO 08:00-10:00
+            """;
+
+    /**
+     * Alma's lesson is pinned when she moves to Sistrans on Tuesdays: it no longer fits, so it is unpinned and
+     * placed again.
+     */
+    @Test
+    void replan() throws Exception {
+        TimeTable problem = new PlanParser().parse(new StringReader(PLAN));
+        BlockingQueue<TimeTable> solutions = new LinkedBlockingQueue<>();
+        try (ReplanningService service = new ReplanningService(TimeTableApp.createSolverConfig(),
+                Duration.ofMillis(100), solutions::add)) {
+            service.start(problem);
+            TimeTable solution = awaitSolution(solutions, timeTable -> isAssigned(timeTable, 2));
+            Lesson alma = solution.getLessonList().get(0);
+
+            service.pinLessons(Set.of(alma.getId()), true).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            service.addStudent(student(problem, "Bea", DayOfWeek.WEDNESDAY, 0))
+                    .get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            solution = awaitSolution(solutions, timeTable -> isAssigned(timeTable, 3));
+            assertEquals(List.of(true, false, false), solution.getLessonList().stream().map(Lesson::isPinned).toList());
+            assertEquals(DayOfWeek.WEDNESDAY, solution.getLessonList().get(2).getTimeslot().getDayOfWeek());
+
+            Student newAlma = student(problem, "Alma", DayOfWeek.TUESDAY, 1);
+            service.changeStudent(newAlma).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            solution = awaitSolution(solutions, timeTable -> isAssigned(timeTable, 3)
+                    && timeTable.getLessonList().get(0).getStudent() == newAlma);
+            Lesson newAlmasLesson = solution.getLessonList().get(0);
+            assertFalse(newAlmasLesson.isPinned());
+            assertEquals(DayOfWeek.TUESDAY, newAlmasLesson.getTimeslot().getDayOfWeek());
+            assertSame(solution.getRoomList().get(1), newAlmasLesson.getRoom());
+
+            service.removeStudent("Bea").get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            solution = awaitSolution(solutions, timeTable -> timeTable.getLessonList().size() == 2);
+            assertEquals(List.of("Alma", "Arno"), solution.getStudentList().stream().map(Student::getName).toList());
+            assertEquals(2, service.getBestSolution().getLessonList().size());
+        }
+    }
+
+    private static boolean isAssigned(TimeTable timeTable, int lessonCount) {
+        return timeTable.getLessonList().size() == lessonCount
+                && timeTable.getLessonList().stream().allMatch(lesson -> lesson.getTimeslot() != null);
+    }
+
+    /**
+     * @return the first best solution that matches, fails after the timeout
+     */
+    private static TimeTable awaitSolution(BlockingQueue<TimeTable> solutions, Predicate<TimeTable> condition)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (true) {
+            TimeTable solution = solutions.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            assertNotNull(solution, "No matching best solution");
+            if (condition.test(solution)) {
+                return solution;
+            }
+        }
+    }
+
+    private static Student student(TimeTable problem, String name, DayOfWeek dayOfWeek, int roomIndex) {
+        Combination combination = new Combination(problem.getRoomList().get(roomIndex));
+        combination.timeSlot = new Timeslot(dayOfWeek, LocalTime.of(8, 0), LocalTime.of(10, 0));
+        return new Student(name, problem.getStudentList().get(0).getTeacher(), 30, List.of(combination),
+                problem.getRoomList().size());
+    }
+}
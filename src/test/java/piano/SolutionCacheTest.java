@@ -0,0 +1,70 @@
+package piano;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import piano.domain.Lesson;
+import piano.domain.TimeTable;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolutionCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void putAndGet() throws IOException {
+        TimeTable solution = new PlanParser().parse(new StringReader(PlanGenerator.generatePlan(10, 2, 0L)));
+        for (Lesson lesson : solution.getLessonList()) {
+            lesson.setTimeslot(lesson.getPossibleTimeslotList().get(0));
+            lesson.setRoom(lesson.getPossibleRoomList().get(0));
+        }
+        String fingerprint = ProblemFingerprint.of(solution, TimeTableApp.createSolverConfig(), "");
+        SolutionCache cache = new SolutionCache(directory, 1024L * 1024L);
+        assertNull(cache.get(fingerprint));
+        cache.put(fingerprint, solution);
+
+        TimeTable cachedSolution = cache.get(fingerprint);
+        assertNotNull(cachedSolution);
+        TimeTable problem = new PlanParser().parse(new StringReader(PlanGenerator.generatePlan(10, 2, 0L)));
+        assertTrue(SolutionCache.apply(cachedSolution, problem));
+        for (int i = 0; i < problem.getLessonList().size(); i++) {
+            Lesson expected = solution.getLessonList().get(i);
+            Lesson actual = problem.getLessonList().get(i);
+            assertEquals(expected.getStudent().getName(), actual.getStudent().getName());
+            assertEquals(expected.getTimeslot().getStartMinuteOfWeek(), actual.getTimeslot().getStartMinuteOfWeek());
+            assertEquals(expected.getRoom().getName(), actual.getRoom().getName());
+        }
+    }
+
+    @Test
+    void leastRecentlyUsedEvicted() throws IOException {
+        TimeTable solution = new PlanParser().parse(new StringReader(PlanGenerator.generatePlan(10, 0L)));
+        Path probe = directory.resolve("probe" + TimeTableBinaryFormat.FILE_EXTENSION);
+        TimeTableBinaryFormat.write(solution, probe);
+        long fileSize = Files.size(probe);
+        Files.delete(probe);
+
+        // Room for two solutions
+        SolutionCache cache = new SolutionCache(directory, 2L * fileSize);
+        cache.put("first", solution);
+        cache.put("second", solution);
+        Files.setLastModifiedTime(directory.resolve("first" + TimeTableBinaryFormat.FILE_EXTENSION),
+                FileTime.fromMillis(0L));
+        Files.setLastModifiedTime(directory.resolve("second" + TimeTableBinaryFormat.FILE_EXTENSION),
+                FileTime.fromMillis(1000L));
+        cache.put("third", solution);
+        assertNull(cache.get("first"));
+        assertNotNull(cache.get("second"));
+        assertNotNull(cache.get("third"));
+    }
+}
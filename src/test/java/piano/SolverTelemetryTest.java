@@ -0,0 +1,45 @@
+package piano;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.Solver;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import org.junit.jupiter.api.Test;
+import piano.domain.TimeTable;
+
+import java.io.StringReader;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolverTelemetryTest {
+
+    @Test
+    void solveWithTelemetry() throws Exception {
+        TimeTable problem = new PlanParser().parse(new StringReader(PlanGenerator.generatePlan(20, 0L)));
+        SolverConfig config = SolverTelemetry.withMetrics(TimeTableApp.createSolverConfig()
+                .withTerminationConfig(new TerminationConfig().withScoreCalculationCountLimit(2000L)));
+        SolverFactory<TimeTable> solverFactory = SolverFactory.create(config);
+        Solver<TimeTable> solver = solverFactory.buildSolver();
+
+        try (SolverTelemetry telemetry = new SolverTelemetry("SolverTelemetryTest")) {
+            telemetry.attach(solver);
+            TimeTable solution = solver.solve(problem);
+
+            assertFalse(telemetry.getBestScoreTimeline().isEmpty());
+            assertEquals(solution.getScore().toString(), telemetry.getBestScore());
+            assertTrue(telemetry.getTimeMillisSpent() > 0L);
+            assertTrue(telemetry.getScoreCalculationSpeed() > 0L);
+            telemetry.logSummary(solution, SolutionManager.<TimeTable, HardSoftScore>create(solverFactory));
+
+            HardSoftScore score = solution.getScore();
+            Map<String, Double> constraintCosts = telemetry.logConstraintCosts(solution, config);
+            assertEquals(7, constraintCosts.size());
+            assertEquals(score, solution.getScore());
+        }
+    }
+}
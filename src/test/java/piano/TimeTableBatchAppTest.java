@@ -0,0 +1,36 @@
+package piano;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TimeTableBatchAppTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * The output of an earlier run into the input directory, including a file sink's temporary file, isn't solved.
+     */
+    @Test
+    void listPlanFilesWithoutSolutions() throws IOException {
+        for (String name : List.of("week2.txt", "week1.txt", "week1.solution.txt", "week2.solution.txt.tmp",
+                "notes.md")) {
+            Files.createFile(tempDir.resolve(name));
+        }
+        assertEquals(List.of("week1.txt", "week2.txt"), TimeTableBatchApp.listPlanFiles(tempDir).stream()
+                .map(file -> file.getFileName().toString())
+                .toList());
+    }
+
+    @Test
+    void solutionFileName() {
+        assertEquals("week1.solution.txt", TimeTableBatchApp.solutionFileName(Path.of("plans", "week1.txt")));
+    }
+}
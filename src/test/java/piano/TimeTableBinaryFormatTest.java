@@ -0,0 +1,136 @@
+package piano;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import piano.domain.Lesson;
+import piano.domain.Room;
+import piano.domain.TimeTable;
+import piano.domain.TravelTimeMatrix;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeTableBinaryFormatTest {
+
+    private static final String PLAN = """
+            @Innsbruck 2
+            @Sistrans
+            =2024-09-02 8
+            !2024-09-16
+            !2024-10-07
+            !2024-09-23
+            *Anna
+            +Thomas
+            .30
+            /2+1
+            !2024-10-14
+            !2024-09-30
+            -Innsbruck
+            MO 08:00-10:00
+            TU 14:00-16:30
+
+            *Ben
+            +Hannes
+            .45
+            -Sistrans
+            WE 09:00-11:00
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void roundTrip() throws IOException {
+        TimeTable timeTable = parse();
+        timeTable.setTravelTimeMatrix(new TravelTimeMatrix(2, new int[] {0, 15, 30, 0}));
+        Lesson lesson = timeTable.getLessonList().get(0);
+        lesson.setTimeslot(lesson.getPossibleTimeslotList().get(3));
+        lesson.setRoom(lesson.getPossibleRoomList().get(0));
+        lesson.setPinned(true);
+        timeTable.setScore(HardSoftScore.ofUninitialized(-1, -2, -30));
+
+        Path file = tempDir.resolve("plan" + TimeTableBinaryFormat.FILE_EXTENSION);
+        TimeTableBinaryFormat.write(timeTable, file);
+        TimeTable read = TimeTableBinaryFormat.read(file);
+
+        assertEquals(List.of("Innsbruck", "Sistrans"), read.getRoomList().stream().map(Room::getName).toList());
+        assertEquals(2, read.getRoomList().get(0).getCapacity());
+        assertEquals(30, read.getTravelTimeMatrix().getTravelTimeInMin(read.getRoomList().get(1),
+                read.getRoomList().get(0)));
+        assertEquals(timeTable.getHorizon().getFirstMonday(), read.getHorizon().getFirstMonday());
+        assertEquals(timeTable.getHorizon().getHolidays(), read.getHorizon().getHolidays());
+        assertEquals(timeTable.getStudentList().get(0).getRecurrence(), read.getStudentList().get(0).getRecurrence());
+        assertEquals("Ben", read.getStudentList().get(1).getTeacher().getName());
+        Lesson readLesson = read.getLessonList().get(0);
+        assertEquals(lesson.getStartMinuteOfWeek(), readLesson.getStartMinuteOfWeek());
+        assertSame(read.getRoomList().get(0), readLesson.getRoom());
+        assertTrue(readLesson.isPinned());
+        assertArrayEquals(lesson.getWeekMasks(), readLesson.getWeekMasks());
+        assertEquals(lesson.getPossibleTimeslotList().size(), readLesson.getPossibleTimeslotList().size());
+        assertNull(read.getLessonList().get(1).getTimeslot());
+        assertEquals(timeTable.getScore(), read.getScore());
+
+        // Nothing is lost or reordered, the holidays and exceptions are written sorted
+        Path copy = tempDir.resolve("copy" + TimeTableBinaryFormat.FILE_EXTENSION);
+        TimeTableBinaryFormat.write(read, copy);
+        assertArrayEquals(Files.readAllBytes(file), Files.readAllBytes(copy));
+    }
+
+    @Test
+    void valueOutOfRange() throws IOException {
+        TimeTable timeTable = parse();
+        timeTable.setTravelTimeMatrix(new TravelTimeMatrix(2, new int[] {0, 40_000, 30, 0}));
+        Path file = tempDir.resolve("plan" + TimeTableBinaryFormat.FILE_EXTENSION);
+        assertThrows(IllegalArgumentException.class, () -> TimeTableBinaryFormat.write(timeTable, file));
+    }
+
+    @Test
+    void truncated() throws IOException {
+        Path file = write();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows(IOException.class, () -> TimeTableBinaryFormat.read(file));
+    }
+
+    @Test
+    void negativeCount() throws IOException {
+        Path file = write();
+        byte[] bytes = Files.readAllBytes(file);
+        // The string count follows the magic and the version
+        ByteBuffer.wrap(bytes).putInt(8, -1);
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> TimeTableBinaryFormat.read(file));
+    }
+
+    @Test
+    void otherVersion() throws IOException {
+        Path file = write();
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(4, 4);
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> TimeTableBinaryFormat.read(file));
+    }
+
+    private Path write() throws IOException {
+        Path file = tempDir.resolve("plan" + TimeTableBinaryFormat.FILE_EXTENSION);
+        TimeTableBinaryFormat.write(parse(), file);
+        return file;
+    }
+
+    private static TimeTable parse() throws IOException {
+        return new PlanParser().parse(new StringReader(PLAN));
+    }
+}
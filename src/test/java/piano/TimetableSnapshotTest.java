@@ -0,0 +1,61 @@
+package piano;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimetableSnapshotTest {
+
+    @Test
+    void parseLines() {
+        TimetableSnapshot snapshot = TimetableSnapshot.parse(List.of(
+                "Score: -1hard/-20soft",
+                "Thomas: 11:00-11:30 (MONDAY) Sistrans",
+                "",
+                "Hannes: unassigned"));
+        assertEquals(HardSoftScore.of(-1, -20), snapshot.score());
+        assertEquals(List.of(
+                        new TimetableSnapshot.Assignment("Thomas", DayOfWeek.MONDAY, 11 * 60, 11 * 60 + 30, "Sistrans"),
+                        new TimetableSnapshot.Assignment("Hannes", null, -1, -1, null)),
+                snapshot.assignments());
+        assertNull(TimetableSnapshot.parse(List.of("Score: null")).score());
+    }
+
+    /**
+     * Names with ": ", colons and backslashes are escaped, rooms and names that look like a lesson are kept.
+     */
+    @Test
+    void roundTripNamesWithSeparators() {
+        List<TimetableSnapshot.Assignment> assignments = List.of(
+                new TimetableSnapshot.Assignment("Maier: Thomas", DayOfWeek.MONDAY, 11 * 60, 11 * 60 + 30,
+                        "Hall: unassigned"),
+                new TimetableSnapshot.Assignment("Anna: 10:00-10:30 (MONDAY) Igls", DayOfWeek.TUESDAY, 8 * 60,
+                        8 * 60 + 45, "Igls: 10:00-10:30 (MONDAY) Igls"),
+                new TimetableSnapshot.Assignment("Hannes: unassigned", null, -1, -1, null),
+                new TimetableSnapshot.Assignment("C:\\Users\\", null, -1, -1, null));
+        TimetableSnapshot snapshot = new TimetableSnapshot(HardSoftScore.ZERO, assignments);
+
+        List<String> lines = new ArrayList<>();
+        lines.add("Score: " + snapshot.score());
+        lines.addAll(snapshot.toLines());
+        assertEquals("Maier\\: Thomas: 11:00-11:30 (MONDAY) Hall: unassigned", lines.get(1));
+        assertEquals(snapshot, TimetableSnapshot.parse(lines));
+    }
+
+    @Test
+    void malformedLines() {
+        assertThrows(IllegalArgumentException.class, () -> TimetableSnapshot.parse(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> TimetableSnapshot.parse(List.of("Thomas: unassigned")));
+        assertThrows(IllegalArgumentException.class, () -> TimetableSnapshot.parse(List.of("Score: 0hard/0soft",
+                "Thomas 11:00-11:30 (MONDAY) Sistrans")));
+        assertThrows(IllegalArgumentException.class, () -> TimetableSnapshot.parse(List.of("Score: 0hard/0soft",
+                "Thomas: 11:00 (MONDAY) Sistrans")));
+    }
+}
@@ -0,0 +1,109 @@
+package piano;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import piano.domain.Lesson;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WarmStartTest {
+
+    private static final String PLAN = """
+            @Innsbruck
+            @Sistrans
+            +Alma
+            .30
+            -Innsbruck
+            MO 08:00-10:00
+
+            +Arno
+            .45
+            -Sistrans
+            TU 14:00-16:00
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * The solution written by the file sink is read back and applied to the same plan.
+     */
+    @Test
+    void roundTrip() throws IOException {
+        TimeTable solution = parse(PLAN);
+        assign(solution.getLessonList().get(0), DayOfWeek.MONDAY, 9 * 60);
+        assign(solution.getLessonList().get(1), DayOfWeek.TUESDAY, 14 * 60 + 15);
+        solution.setScore(HardSoftScore.of(0, -10));
+        Path file = tempDir.resolve("solution.txt");
+        BestSolutionPublisher.fileSink(file).accept(TimetableSnapshot.of(solution));
+
+        TimetableSnapshot previous = TimetableSnapshot.read(file);
+        assertEquals(solution.getScore(), previous.score());
+        TimeTable problem = parse(PLAN);
+        assertEquals(2, WarmStart.apply(problem, previous));
+        assertEquals(TimetableSnapshot.of(solution).assignments(), TimetableSnapshot.of(problem).assignments());
+        assertEquals(solution.getRoomList().get(1).getName(), problem.getLessonList().get(1).getRoom().getName());
+    }
+
+    @Test
+    void changedWindowStaysUnassigned() throws IOException {
+        TimetableSnapshot previous = previous();
+        TimeTable problem = parse(PLAN.replace("TU 14:00-16:00", "TU 14:30-16:00"));
+        assertEquals(1, WarmStart.apply(problem, previous));
+        assertEquals(9 * 60, problem.getLessonList().get(0).getStartMinuteOfWeek());
+        assertNull(problem.getLessonList().get(1).getTimeslot());
+        assertNull(problem.getLessonList().get(1).getRoom());
+    }
+
+    @Test
+    void changedDurationStaysUnassigned() throws IOException {
+        TimetableSnapshot previous = previous();
+        TimeTable problem = parse(PLAN.replace(".45", ".60"));
+        assertEquals(1, WarmStart.apply(problem, previous));
+        assertNull(problem.getLessonList().get(1).getTimeslot());
+    }
+
+    /**
+     * Alma had two lessons and has one now: it's unknown which one she kept, so she is planned from scratch.
+     */
+    @Test
+    void changedLessonCountStaysUnassigned() throws IOException {
+        TimetableSnapshot previous = TimetableSnapshot.parse(List.of(
+                "Score: 0hard/0soft",
+                "Alma: 08:00-08:30 (MONDAY) Innsbruck",
+                "Alma: 09:00-09:30 (MONDAY) Innsbruck",
+                "Arno: 14:15-15:00 (TUESDAY) Sistrans"));
+        TimeTable problem = parse(PLAN);
+        assertEquals(1, WarmStart.apply(problem, previous));
+        assertNull(problem.getLessonList().get(0).getTimeslot());
+        assertEquals(Timeslot.MINUTES_PER_DAY + 14 * 60 + 15, problem.getLessonList().get(1).getStartMinuteOfWeek());
+    }
+
+    private static TimetableSnapshot previous() throws IOException {
+        TimeTable solution = parse(PLAN);
+        assign(solution.getLessonList().get(0), DayOfWeek.MONDAY, 9 * 60);
+        assign(solution.getLessonList().get(1), DayOfWeek.TUESDAY, 14 * 60);
+        return TimetableSnapshot.of(solution);
+    }
+
+    private static void assign(Lesson lesson, DayOfWeek dayOfWeek, int startMinuteOfDay) {
+        lesson.setTimeslot(lesson.findPossibleTimeslot(dayOfWeek.ordinal() * Timeslot.MINUTES_PER_DAY
+                + startMinuteOfDay));
+        // Every student has a single location
+        lesson.setRoom(lesson.getPossibleRoomList().get(0));
+    }
+
+    private static TimeTable parse(String plan) throws IOException {
+        return new PlanParser().parse(new StringReader(plan));
+    }
+}
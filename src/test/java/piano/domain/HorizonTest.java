@@ -0,0 +1,64 @@
+package piano.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HorizonTest {
+
+    private static final LocalDate FIRST_MONDAY = LocalDate.of(2024, 9, 2);
+
+    @Test
+    void termBoundaries() {
+        Horizon horizon = new Horizon(FIRST_MONDAY, 4, Set.of());
+        assertEquals(-1, horizon.weekOf(FIRST_MONDAY.minusDays(1)));
+        assertEquals(0, horizon.weekOf(FIRST_MONDAY));
+        assertEquals(0, horizon.weekOf(LocalDate.of(2024, 9, 8)));
+        assertEquals(1, horizon.weekOf(LocalDate.of(2024, 9, 9)));
+        assertEquals(3, horizon.weekOf(LocalDate.of(2024, 9, 29)));
+        assertEquals(-1, horizon.weekOf(LocalDate.of(2024, 9, 30)));
+        assertEquals(0b1111L, horizon.getAllWeeksMask());
+        assertEquals(LocalDate.of(2024, 9, 29), horizon.dateOf(3, DayOfWeek.SUNDAY));
+    }
+
+    @Test
+    void holidays() {
+        // Monday of week 2 and a date after the term
+        Horizon horizon = new Horizon(FIRST_MONDAY, 4, Set.of(LocalDate.of(2024, 9, 16), LocalDate.of(2024, 12, 24)));
+        assertEquals(0b1011L, horizon.getOpenWeekMask(DayOfWeek.MONDAY));
+        assertEquals(0b1111L, horizon.getOpenWeekMask(DayOfWeek.TUESDAY));
+        assertEquals(List.of(LocalDate.of(2024, 9, 2), LocalDate.of(2024, 9, 9), LocalDate.of(2024, 9, 23)),
+                horizon.datesOf(horizon.getOpenWeekMask(DayOfWeek.MONDAY), DayOfWeek.MONDAY));
+    }
+
+    @Test
+    void maxWeekCount() {
+        Horizon horizon = new Horizon(FIRST_MONDAY, Horizon.MAX_WEEK_COUNT, Set.of(FIRST_MONDAY.plusWeeks(63)));
+        assertEquals(-1L, horizon.getAllWeeksMask());
+        assertEquals(Long.MAX_VALUE, horizon.getOpenWeekMask(DayOfWeek.MONDAY));
+        assertEquals(63, horizon.weekOf(FIRST_MONDAY.plusWeeks(63)));
+        assertEquals(-1, horizon.weekOf(FIRST_MONDAY.plusWeeks(64)));
+    }
+
+    @Test
+    void undated() {
+        assertEquals(1L, Horizon.ONE_WEEK.getAllWeeksMask());
+        assertEquals(-1, Horizon.ONE_WEEK.weekOf(FIRST_MONDAY));
+        assertThrows(IllegalStateException.class, () -> Horizon.ONE_WEEK.dateOf(0, DayOfWeek.MONDAY));
+    }
+
+    @Test
+    void invalid() {
+        assertThrows(IllegalArgumentException.class, () -> new Horizon(FIRST_MONDAY, 0, Set.of()));
+        assertThrows(IllegalArgumentException.class, () -> new Horizon(FIRST_MONDAY, Horizon.MAX_WEEK_COUNT + 1,
+                Set.of()));
+        assertThrows(IllegalArgumentException.class, () -> new Horizon(FIRST_MONDAY.plusDays(1), 4, Set.of()));
+        assertThrows(IllegalArgumentException.class, () -> new Horizon(null, 1, Set.of(FIRST_MONDAY)));
+    }
+}
@@ -0,0 +1,61 @@
+package piano.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecurrenceTest {
+
+    private static final LocalDate FIRST_MONDAY = LocalDate.of(2024, 9, 2);
+
+    @Test
+    void weekly() {
+        long[] weekMasks = Recurrence.WEEKLY.weekMasks(new Horizon(FIRST_MONDAY, 5, Set.of()));
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            assertEquals(0b11111L, weekMasks[dayOfWeek.ordinal()]);
+        }
+        assertEquals(1L, Recurrence.WEEKLY.weekMasks(Horizon.ONE_WEEK)[DayOfWeek.FRIDAY.ordinal()]);
+    }
+
+    @Test
+    void biweekly() {
+        Horizon horizon = new Horizon(FIRST_MONDAY, 5, Set.of());
+        assertEquals(0b10101L, new Recurrence(2, 0, Set.of()).weekMasks(horizon)[DayOfWeek.MONDAY.ordinal()]);
+        assertEquals(0b01010L, new Recurrence(2, 1, Set.of()).weekMasks(horizon)[DayOfWeek.MONDAY.ordinal()]);
+        // A first week after the term leaves no lessons
+        assertEquals(0L, new Recurrence(8, 5, Set.of()).weekMasks(horizon)[DayOfWeek.MONDAY.ordinal()]);
+    }
+
+    /**
+     * Holidays and exceptions only remove their own day: the holiday is Monday of week 3, the exceptions are
+     * Tuesday of week 1, Tuesday of week 2 (no lesson anyway) and a date after the term.
+     */
+    @Test
+    void excludedDates() {
+        Horizon horizon = new Horizon(FIRST_MONDAY, 5, Set.of(LocalDate.of(2024, 9, 23)));
+        Recurrence recurrence = new Recurrence(2, 1, Set.of(LocalDate.of(2024, 9, 10), LocalDate.of(2024, 9, 17),
+                LocalDate.of(2025, 1, 7)));
+        long[] weekMasks = recurrence.weekMasks(horizon);
+        assertEquals(0b00010L, weekMasks[DayOfWeek.MONDAY.ordinal()]);
+        assertEquals(0b01000L, weekMasks[DayOfWeek.TUESDAY.ordinal()]);
+        assertEquals(0b01010L, weekMasks[DayOfWeek.WEDNESDAY.ordinal()]);
+    }
+
+    @Test
+    void lastWeekOfLongestTerm() {
+        Horizon horizon = new Horizon(FIRST_MONDAY, Horizon.MAX_WEEK_COUNT, Set.of());
+        assertEquals(-1L, Recurrence.WEEKLY.weekMasks(horizon)[DayOfWeek.MONDAY.ordinal()]);
+        assertEquals(Long.MIN_VALUE, new Recurrence(63, 63, Set.of()).weekMasks(horizon)[DayOfWeek.MONDAY.ordinal()]);
+    }
+
+    @Test
+    void invalid() {
+        assertThrows(IllegalArgumentException.class, () -> new Recurrence(0, 0, Set.of()));
+        assertThrows(IllegalArgumentException.class, () -> new Recurrence(2, -1, Set.of()));
+    }
+}
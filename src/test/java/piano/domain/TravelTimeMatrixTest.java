@@ -0,0 +1,93 @@
+package piano.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TravelTimeMatrixTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void asymmetric() throws IOException {
+        Path file = write("""
+                ,Innsbruck,Sistrans
+                Innsbruck,0,25
+                Sistrans,30,0
+                """);
+        List<Room> rooms = TravelTimeMatrix.readRooms(file);
+        assertEquals(List.of("Innsbruck", "Sistrans"), rooms.stream().map(Room::getName).toList());
+
+        TravelTimeMatrix matrix = TravelTimeMatrix.read(file, rooms);
+        assertEquals(25, matrix.getTravelTimeInMin(rooms.get(0), rooms.get(1)));
+        assertEquals(30, matrix.getTravelTimeInMin(rooms.get(1), rooms.get(0)));
+        assertEquals(0, matrix.getTravelTimeInMin(rooms.get(0), rooms.get(0)));
+    }
+
+    /**
+     * Igls is in the plan but not in the file, Sistrans has no line of its own: their pairs keep the default. Blanks
+     * around names and values and blank lines are ignored.
+     */
+    @Test
+    void missingLocation() throws IOException {
+        Path file = write("""
+                , Innsbruck , Sistrans
+                Innsbruck,  0,  10
+
+                """);
+        List<Room> rooms = List.of(new Room(0, "Innsbruck"), new Room(1, "Sistrans"), new Room(2, "Igls"));
+        TravelTimeMatrix matrix = TravelTimeMatrix.read(file, rooms);
+        assertEquals(10, matrix.getTravelTimeInMin(rooms.get(0), rooms.get(1)));
+        assertEquals(TravelTimeMatrix.DEFAULT_TRAVEL_TIME_IN_MIN, matrix.getTravelTimeInMin(rooms.get(1), rooms.get(0)));
+        assertEquals(TravelTimeMatrix.DEFAULT_TRAVEL_TIME_IN_MIN, matrix.getTravelTimeInMin(rooms.get(0), rooms.get(2)));
+        assertEquals(0, matrix.getTravelTimeInMin(rooms.get(2), rooms.get(2)));
+    }
+
+    @Test
+    void unknownLocation() throws IOException {
+        List<Room> rooms = List.of(new Room(0, "Innsbruck"));
+        assertMessage(",Innsbruck\nIgls,5", rooms, "Line 2", "unknown room (Igls)");
+        assertMessage(",Innsbruck,Igls\nInnsbruck,0,5", rooms, "Line 1", "unknown room (Igls)");
+    }
+
+    @Test
+    void malformedLine() throws IOException {
+        List<Room> rooms = List.of(new Room(0, "Innsbruck"), new Room(1, "Sistrans"));
+        assertMessage(",Innsbruck,Sistrans\nInnsbruck,0", rooms, "Line 2", "has 2 cells, expected 3");
+        assertMessage(",Innsbruck,Sistrans\nInnsbruck,0,25,5", rooms, "Line 2", "has 4 cells, expected 3");
+        assertMessage(",Innsbruck,Sistrans\nInnsbruck,0,25\nSistrans,0,half an hour", rooms, "Line 3",
+                "invalid travel time (half an hour)");
+        assertMessage(",Innsbruck,Sistrans\nInnsbruck,0,-5", rooms, "Line 2", "negative travel time (-5)");
+    }
+
+    @Test
+    void emptyFile() throws IOException {
+        Path file = write("");
+        List<Room> rooms = List.of(new Room(0, "Innsbruck"), new Room(1, "Sistrans"));
+        assertTrue(TravelTimeMatrix.readRooms(file).isEmpty());
+        assertEquals(TravelTimeMatrix.DEFAULT_TRAVEL_TIME_IN_MIN,
+                TravelTimeMatrix.read(file, rooms).getTravelTimeInMin(rooms.get(0), rooms.get(1)));
+    }
+
+    private void assertMessage(String csv, List<Room> rooms, String... parts) throws IOException {
+        Path file = write(csv);
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> TravelTimeMatrix.read(file, rooms));
+        for (String part : parts) {
+            assertTrue(exception.getMessage().contains(part), exception.getMessage());
+        }
+    }
+
+    private Path write(String csv) throws IOException {
+        return Files.writeString(Files.createTempFile(tempDir, "travel", ".csv"), csv);
+    }
+}
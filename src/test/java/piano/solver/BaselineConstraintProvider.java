@@ -0,0 +1,208 @@
+package piano.solver;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.score.stream.Constraint;
+import ai.timefold.solver.core.api.score.stream.ConstraintFactory;
+import ai.timefold.solver.core.api.score.stream.ConstraintProvider;
+import ai.timefold.solver.core.api.score.stream.tri.TriConstraintStream;
+import piano.domain.Lesson;
+import piano.domain.Room;
+import piano.domain.Teacher;
+import piano.domain.TravelTimeMatrix;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static ai.timefold.solver.core.api.score.stream.ConstraintCollectors.toList;
+
+/**
+ * The constraints before the next lesson shadow variable: the lessons are grouped per teacher and day, and every
+ * constraint sorts and walks through the whole day again, once per week of the horizon. Slow, but simple enough to
+ * serve as the oracle of {@link ScoreEquivalenceTest}. Only for fully assigned solutions.
+ */
+public class BaselineConstraintProvider implements ConstraintProvider {
+
+    @Override
+    public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+        return new Constraint[] {
+                // Hard
+                noOverlapConstraint(constraintFactory),
+                possibleTimeAndPlaceConstraint(constraintFactory),
+                roomCapacityConstraint(constraintFactory),
+                locationChangeBreakConstraint(constraintFactory),
+
+                // Soft
+                locationStabilityConstraint(constraintFactory),
+                travelTimeConstraint(constraintFactory),
+                consecutiveLessonsConstraint(constraintFactory),
+        };
+    }
+
+    private static TriConstraintStream<Teacher, DayOfWeek, List<Lesson>> lessonsPerDay(
+            ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEach(Lesson.class)
+                .groupBy(Lesson::getTeacher, lesson -> lesson.getTimeslot().getDayOfWeek(), toList());
+    }
+
+    /**
+     * The lessons of the day in every week of the horizon, sorted by start.
+     */
+    private static List<List<Lesson>> sortedWeeks(DayOfWeek dayOfWeek, List<Lesson> dayLessons) {
+        List<Lesson> sortedLessons = new ArrayList<>(dayLessons);
+        sortedLessons.sort(Comparator.comparingInt(Lesson::getStartMinuteOfDay).thenComparing(Lesson::getId));
+        List<List<Lesson>> weeks = new ArrayList<>();
+        for (int week = 0; week < Long.SIZE; week++) {
+            long weekBit = 1L << week;
+            List<Lesson> lessons = sortedLessons.stream()
+                    .filter(lesson -> (lesson.getWeekMasks()[dayOfWeek.ordinal()] & weekBit) != 0L)
+                    .toList();
+            if (!lessons.isEmpty()) {
+                weeks.add(lessons);
+            }
+        }
+        return weeks;
+    }
+
+    private static int between(Lesson lesson, Lesson nextLesson) {
+        return nextLesson.getStartMinuteOfDay() - lesson.getEndMinuteOfDay();
+    }
+
+    Constraint noOverlapConstraint(ConstraintFactory constraintFactory) {
+        return lessonsPerDay(constraintFactory)
+                .penalize(HardSoftScore.ONE_HARD, (teacher, dayOfWeek, dayLessons) -> {
+                    int penalty = 0;
+                    for (List<Lesson> lessons : sortedWeeks(dayOfWeek, dayLessons)) {
+                        for (int i = 0; i < lessons.size() - 1; i++) {
+                            if (between(lessons.get(i), lessons.get(i + 1)) < 0) {
+                                penalty++;
+                            }
+                        }
+                    }
+                    return penalty;
+                })
+                .asConstraint("noOverlapConstraint");
+    }
+
+    Constraint possibleTimeAndPlaceConstraint(ConstraintFactory constraintFactory) {
+        return lessonsPerDay(constraintFactory)
+                .penalize(HardSoftScore.ONE_HARD, (teacher, dayOfWeek, dayLessons) -> {
+                    int penalty = 0;
+                    for (Lesson lesson : dayLessons) {
+                        if (!lesson.getStudent().isAvailable(dayOfWeek, lesson.getRoom(), lesson.getStartMinuteOfDay())) {
+                            penalty++;
+                        }
+                    }
+                    return penalty;
+                })
+                .asConstraint("possibleTimeAndPlaceConstraint");
+    }
+
+    Constraint roomCapacityConstraint(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEach(Lesson.class)
+                .groupBy(Lesson::getRoom, toList())
+                .penalize(HardSoftScore.ONE_HARD, (room, roomLessons) -> {
+                    int penalty = 0;
+                    for (Lesson lesson : roomLessons) {
+                        int runningCount = 0;
+                        for (Lesson otherLesson : roomLessons) {
+                            boolean startsBefore = otherLesson.getStartMinuteOfWeek() < lesson.getStartMinuteOfWeek()
+                                    || otherLesson.getStartMinuteOfWeek() == lesson.getStartMinuteOfWeek()
+                                    && otherLesson.getId() < lesson.getId();
+                            if (startsBefore && lesson.getStartMinuteOfWeek() < otherLesson.getEndMinuteOfWeek()
+                                    && (lesson.getWeekMask() & otherLesson.getWeekMask()) != 0L) {
+                                runningCount++;
+                            }
+                        }
+                        penalty += Math.max(0, runningCount + 1 - room.getCapacity());
+                    }
+                    return penalty;
+                })
+                .asConstraint("roomCapacityConstraint");
+    }
+
+    Constraint locationChangeBreakConstraint(ConstraintFactory constraintFactory) {
+        return lessonsPerDay(constraintFactory)
+                .join(TravelTimeMatrix.class)
+                .penalize(HardSoftScore.ONE_SOFT, (teacher, dayOfWeek, dayLessons, travelTimeMatrix) -> {
+                    int penalty = 0;
+                    for (List<Lesson> lessons : sortedWeeks(dayOfWeek, dayLessons)) {
+                        for (int i = 0; i < lessons.size() - 1; i++) {
+                            Room room = lessons.get(i).getRoom();
+                            Room nextRoom = lessons.get(i + 1).getRoom();
+                            if (room != nextRoom) {
+                                int between = between(lessons.get(i), lessons.get(i + 1));
+                                int travelTimeInMin = travelTimeMatrix.getTravelTimeInMin(room, nextRoom);
+                                if (between < travelTimeInMin) {
+                                    penalty += travelTimeInMin - between;
+                                } else if (between > travelTimeInMin + 20) {
+                                    penalty += between - travelTimeInMin - 20;
+                                }
+                            }
+                        }
+                    }
+                    return penalty;
+                })
+                .asConstraint("locationChangeBreakConstraint");
+    }
+
+    Constraint locationStabilityConstraint(ConstraintFactory constraintFactory) {
+        return lessonsPerDay(constraintFactory)
+                .penalize(HardSoftScore.ONE_SOFT, (teacher, dayOfWeek, dayLessons) -> {
+                    int penalty = 0;
+                    for (List<Lesson> lessons : sortedWeeks(dayOfWeek, dayLessons)) {
+                        int roomChangeCount = 0;
+                        for (int i = 0; i < lessons.size() - 1; i++) {
+                            if (lessons.get(i).getRoom() != lessons.get(i + 1).getRoom()) {
+                                roomChangeCount++;
+                            }
+                        }
+                        if (roomChangeCount == 2) {
+                            penalty += 100;
+                        } else if (roomChangeCount > 2) {
+                            penalty += 1000;
+                        }
+                    }
+                    return penalty;
+                })
+                .asConstraint("locationStabilityConstraint");
+    }
+
+    Constraint travelTimeConstraint(ConstraintFactory constraintFactory) {
+        return lessonsPerDay(constraintFactory)
+                .join(TravelTimeMatrix.class)
+                .penalize(HardSoftScore.ONE_SOFT, (teacher, dayOfWeek, dayLessons, travelTimeMatrix) -> {
+                    int penalty = 0;
+                    for (List<Lesson> lessons : sortedWeeks(dayOfWeek, dayLessons)) {
+                        for (int i = 0; i < lessons.size() - 1; i++) {
+                            Room room = lessons.get(i).getRoom();
+                            Room nextRoom = lessons.get(i + 1).getRoom();
+                            if (room != nextRoom) {
+                                penalty += travelTimeMatrix.getTravelTimeInMin(room, nextRoom);
+                            }
+                        }
+                    }
+                    return penalty;
+                })
+                .asConstraint("travelTimeConstraint");
+    }
+
+    Constraint consecutiveLessonsConstraint(ConstraintFactory constraintFactory) {
+        return lessonsPerDay(constraintFactory)
+                .reward(HardSoftScore.ONE_SOFT, (teacher, dayOfWeek, dayLessons) -> {
+                    int reward = 0;
+                    for (List<Lesson> lessons : sortedWeeks(dayOfWeek, dayLessons)) {
+                        for (int i = 0; i < lessons.size() - 1; i++) {
+                            if (between(lessons.get(i), lessons.get(i + 1)) == 0) {
+                                reward++;
+                            }
+                        }
+                    }
+                    return reward;
+                })
+                .asConstraint("consecutiveLessonsConstraint");
+    }
+}
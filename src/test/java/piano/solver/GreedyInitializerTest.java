@@ -0,0 +1,59 @@
+package piano.solver;
+
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import org.junit.jupiter.api.Test;
+import piano.PlanParser;
+import piano.TimeTableApp;
+import piano.domain.Lesson;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GreedyInitializerTest {
+
+    private static final String PLAN = """
+            +Long
+            .120
+            -Innsbruck
+            MO 10:00-12:00
+
+            +Short
+            .30
+            -Innsbruck
+            MO 10:30-11:00
+
+            +Late
+            .30
+            -Innsbruck
+            MO 11:00-13:00
+            """;
+
+    /**
+     * The pinned lesson from 10:00 to 12:00 covers 11:00, although the lesson that starts last before 11:00 ends
+     * at 11:00.
+     */
+    @Test
+    void preAssignedLongLessonCoversLaterStart() throws IOException {
+        TimeTable problem = new PlanParser().parse(new StringReader(PLAN));
+        List<Lesson> lessons = problem.getLessonList();
+        for (Lesson lesson : lessons.subList(0, 2)) {
+            lesson.setTimeslot(lesson.getPossibleTimeslotList().get(0));
+            lesson.setRoom(lesson.getPossibleRoomList().get(0));
+        }
+        lessons.get(0).setPinned(true);
+
+        TimeTable solution = SolverFactory.<TimeTable>create(new SolverConfig(TimeTableApp.createSolverConfig())
+                        .withPhases(TimeTableApp.createGreedyInitializerPhaseConfig()))
+                .buildSolver()
+                .solve(problem);
+
+        Timeslot timeslot = solution.getLessonList().get(2).getTimeslot();
+        assertEquals(Timeslot.toLocalTime(12 * 60), timeslot.getStartTime());
+    }
+}
@@ -0,0 +1,175 @@
+package piano.solver;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.EnvironmentMode;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import piano.PlanGenerator;
+import piano.PlanParser;
+import piano.TimeTableApp;
+import piano.domain.Lesson;
+import piano.domain.Room;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+import piano.domain.TravelTimeMatrix;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The constraint streams over the next lessons must score exactly like the per-day constraint streams they replaced,
+ * kept as {@link BaselineConstraintProvider}.
+ */
+class ScoreEquivalenceTest {
+
+    private static final String TERM_PLAN = """
+            =2024-09-02 6
+            !2024-09-16
+            *Anna
+            +Thomas
+            .30
+            /2
+            -Innsbruck
+            MO 08:00-10:00
+            TU 08:00-10:00
+
+            +Britta
+            .45
+            /2+1
+            -Innsbruck
+            MO 08:00-10:00
+            -Sistrans
+            MO 08:00-10:00
+
+            +Peter
+            .30
+            !2024-09-09
+            -Sistrans
+            MO 08:00-11:00
+
+            *Ben
+            +Hannes
+            .60
+            -Innsbruck
+            MO 08:00-11:00
+            """;
+
+    private static final String SHARED_ROOM_PLAN = """
+            @Innsbruck
+            *Anna
+            +Thomas
+            .30
+            -Innsbruck
+            MO 08:00-10:00
+
+            *Ben
+            +Hannes
+            .30
+            -Innsbruck
+            MO 08:00-10:00
+            """;
+
+    private final SolutionManager<TimeTable, HardSoftScore> solutionManager =
+            SolutionManager.create(SolverFactory.create(TimeTableApp.createSolverConfig()));
+    private final SolutionManager<TimeTable, HardSoftScore> baselineSolutionManager =
+            SolutionManager.create(SolverFactory.create(TimeTableApp.createSolverConfig()
+                    .withConstraintProviderClass(BaselineConstraintProvider.class)));
+
+    @ParameterizedTest
+    @ValueSource(longs = {0L, 1L, 2L, 3L, 4L})
+    void randomAssignmentsOfGeneratedPlans(long seed) throws IOException {
+        TimeTable timeTable = new PlanParser().parse(new StringReader(PlanGenerator.generatePlan(60, 3, seed)));
+        timeTable.setTravelTimeMatrix(new TravelTimeMatrix(2, new int[] {0, 15, 30, 0}));
+        Random random = new Random(seed);
+        for (int i = 0; i < 20; i++) {
+            assignRandomly(timeTable, random);
+            assertSameScore(timeTable);
+        }
+    }
+
+    @Test
+    void randomAssignmentsOfTerm() throws IOException {
+        TimeTable timeTable = new PlanParser().parse(new StringReader(TERM_PLAN));
+        Random random = new Random(0L);
+        for (int i = 0; i < 200; i++) {
+            assignRandomly(timeTable, random);
+            assertSameScore(timeTable);
+        }
+    }
+
+    /**
+     * The incrementally calculated score of the best solution after local search moves.
+     */
+    @Test
+    void solvedGeneratedPlan() throws IOException {
+        TimeTable problem = new PlanParser().parse(new StringReader(PlanGenerator.generatePlan(40, 2, 0L)));
+        TimeTable solution = SolverFactory.<TimeTable>create(TimeTableApp.createSolverConfig()
+                        .withTerminationConfig(new TerminationConfig().withScoreCalculationCountLimit(5000L)))
+                .buildSolver()
+                .solve(problem);
+        HardSoftScore incrementalScore = solution.getScore();
+        assertEquals(baselineSolutionManager.update(solution), incrementalScore);
+    }
+
+    /**
+     * Full assert recalculates the score from scratch after every move, so a next lesson pair that
+     * {@link NextLessonVariableListener} failed to update fails the solve.
+     */
+    @Test
+    void solveWithFullAssert() throws IOException {
+        TimeTable problem = new PlanParser().parse(new StringReader(TERM_PLAN));
+        problem.setTravelTimeMatrix(new TravelTimeMatrix(2, new int[] {0, 15, 30, 0}));
+        TimeTable solution = SolverFactory.<TimeTable>create(TimeTableApp.createSolverConfig()
+                        .withEnvironmentMode(EnvironmentMode.FULL_ASSERT)
+                        .withTerminationConfig(new TerminationConfig().withScoreCalculationCountLimit(2000L)))
+                .buildSolver()
+                .solve(problem);
+        HardSoftScore incrementalScore = solution.getScore();
+        assertEquals(baselineSolutionManager.update(solution), incrementalScore);
+    }
+
+    /**
+     * Two lessons in a room for one share it once, no matter whether they start together.
+     */
+    @Test
+    void clashInRoomCountedOnce() throws IOException {
+        TimeTable timeTable = new PlanParser().parse(new StringReader(SHARED_ROOM_PLAN));
+        List<Lesson> lessons = timeTable.getLessonList();
+        Room room = timeTable.getRoomList().get(0);
+        for (int secondStartIndex : new int[] {0, 1}) {
+            List<Timeslot> timeslots = lessons.get(0).getPossibleTimeslotList();
+            lessons.get(0).setTimeslot(timeslots.get(0));
+            lessons.get(1).setTimeslot(timeslots.get(secondStartIndex));
+            lessons.forEach(lesson -> lesson.setRoom(room));
+            assertSameScore(timeTable);
+            assertEquals(-1, timeTable.getScore().hardScore());
+        }
+    }
+
+    private void assertSameScore(TimeTable timeTable) {
+        HardSoftScore expectedScore = baselineSolutionManager.update(timeTable);
+        assertEquals(expectedScore, solutionManager.update(timeTable));
+    }
+
+    /**
+     * Mostly within the possible ranges, to get consecutive lessons, sometimes anywhere.
+     */
+    private static void assignRandomly(TimeTable timeTable, Random random) {
+        for (Lesson lesson : timeTable.getLessonList()) {
+            List<Timeslot> timeslots = random.nextInt(10) == 0
+                    ? timeTable.getTimeslotList()
+                    : lesson.getPossibleTimeslotList();
+            List<Room> rooms = random.nextInt(10) == 0 ? timeTable.getRoomList() : lesson.getPossibleRoomList();
+            lesson.setTimeslot(timeslots.get(random.nextInt(timeslots.size())));
+            lesson.setRoom(rooms.get(random.nextInt(rooms.size())));
+        }
+    }
+}
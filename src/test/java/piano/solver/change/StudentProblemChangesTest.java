@@ -0,0 +1,195 @@
+package piano.solver.change;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+import ai.timefold.solver.core.impl.solver.DefaultSolverFactory;
+import ai.timefold.solver.core.impl.solver.change.DefaultProblemChangeDirector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import piano.Combination;
+import piano.PlanParser;
+import piano.TimeTableApp;
+import piano.domain.Lesson;
+import piano.domain.Room;
+import piano.domain.Student;
+import piano.domain.Teacher;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The problem changes applied to the working solution of a real score director, as the solver does.
+ */
+class StudentProblemChangesTest {
+
+    // Alma is pinned on Monday in Innsbruck, Arno is assigned on Tuesday in Sistrans
+    private static final String PLAN = """
+            @Innsbruck
+            @Sistrans
+            *Anna
+            +Alma
+            .30
+            -Innsbruck
+            MO 08:00-10:00
+
+            +Arno
+            .30
+            -Sistrans
+            TU 08:00-10:00
+            """;
+
+    private static final DefaultSolverFactory<TimeTable> SOLVER_FACTORY =
+            (DefaultSolverFactory<TimeTable>) SolverFactory.<TimeTable>create(TimeTableApp.createSolverConfig());
+
+    private InnerScoreDirector<TimeTable, HardSoftScore> scoreDirector;
+    private TimeTable timeTable;
+    private Lesson alma;
+    private Lesson arno;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        timeTable = new PlanParser().parse(new StringReader(PLAN));
+        alma = timeTable.getLessonList().get(0);
+        arno = timeTable.getLessonList().get(1);
+        alma.setTimeslot(alma.findPossibleTimeslot(8 * 60));
+        alma.setRoom(room(0));
+        alma.setPinned(true);
+        arno.setTimeslot(arno.findPossibleTimeslot(Timeslot.MINUTES_PER_DAY + 8 * 60));
+        arno.setRoom(room(1));
+        scoreDirector = SOLVER_FACTORY.<HardSoftScore>getScoreDirectorFactory().buildScoreDirector();
+        scoreDirector.setWorkingSolution(timeTable);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scoreDirector.close();
+    }
+
+    @Test
+    void addStudent() {
+        List<Student> students = timeTable.getStudentList();
+        Teacher ben = new Teacher(1, "Ben");
+        Student bea = student("Bea", ben, 0, DayOfWeek.WEDNESDAY, "08:00", "10:00");
+        apply(new AddStudentProblemChange(bea, "Violin", "Year 2"));
+
+        assertEquals(List.of("Alma", "Arno", "Bea"), timeTable.getStudentList().stream().map(Student::getName).toList());
+        // The list of the previous best solution is left alone
+        assertEquals(2, students.size());
+        Lesson beasLesson = timeTable.getLessonList().get(2);
+        assertSame(bea, beasLesson.getStudent());
+        assertEquals(2L, beasLesson.getId());
+        assertEquals("Violin", beasLesson.getSubject());
+        assertEquals("Year 2", beasLesson.getStudentGroup());
+        assertNull(beasLesson.getTimeslot());
+        assertEquals(DayOfWeek.WEDNESDAY, beasLesson.getPossibleTimeslotList().get(0).getDayOfWeek());
+        assertEquals(List.of(room(0)), beasLesson.getPossibleRoomList());
+
+        // Without a subject the lessons of the same teacher are used, of any teacher if it has none
+        apply(new AddStudentProblemChange(student("Bruno", ben, 0, DayOfWeek.WEDNESDAY, "08:00", "10:00")));
+        apply(new AddStudentProblemChange(student("Alois", alma.getTeacher(), 0, DayOfWeek.WEDNESDAY, "08:00",
+                "10:00")));
+        apply(new AddStudentProblemChange(student("Clara", new Teacher(2, "Carl"), 0, DayOfWeek.WEDNESDAY, "08:00",
+                "10:00")));
+        assertEquals(List.of("Piano", "Piano", "Violin", "Violin", "Piano", "Piano"),
+                timeTable.getLessonList().stream().map(Lesson::getSubject).toList());
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L), timeTable.getLessonList().stream().map(Lesson::getId).toList());
+    }
+
+    @Test
+    void removeStudent() {
+        apply(new RemoveStudentProblemChange("Arno"));
+        assertEquals(List.of(alma), timeTable.getLessonList());
+        assertEquals(List.of("Alma"), timeTable.getStudentList().stream().map(Student::getName).toList());
+
+        // A second removal of the same student changes nothing
+        apply(new RemoveStudentProblemChange("Arno"));
+        assertEquals(List.of(alma), timeTable.getLessonList());
+    }
+
+    @Test
+    void changedStudentStillFits() {
+        Student newAlma = student("Alma", alma.getTeacher(), 0, DayOfWeek.MONDAY, "07:30", "09:00");
+        apply(new ChangeStudentProblemChange(newAlma));
+
+        assertSame(newAlma, alma.getStudent());
+        assertEquals(List.of(newAlma, arno.getStudent()), timeTable.getStudentList());
+        assertTrue(alma.isPinned());
+        assertEquals(8 * 60, alma.getStartMinuteOfWeek());
+        assertSame(room(0), alma.getRoom());
+        // The possible timeslots follow the new window
+        List<Timeslot> timeslots = alma.getPossibleTimeslotList();
+        assertEquals(8 * 60 + 30, timeslots.get(timeslots.size() - 1).getStartMinuteOfWeek());
+    }
+
+    @Test
+    void changedStudentNoLongerFitsPinnedLesson() {
+        Student newAlma = student("Alma", alma.getTeacher(), 1, DayOfWeek.MONDAY, "08:00", "10:00");
+        apply(new ChangeStudentProblemChange(newAlma));
+
+        assertSame(newAlma, alma.getStudent());
+        assertFalse(alma.isPinned());
+        assertNull(alma.getTimeslot());
+        assertNull(alma.getRoom());
+        assertEquals(List.of(room(1)), alma.getPossibleRoomList());
+        // The other lesson stays where it is
+        assertEquals(Timeslot.MINUTES_PER_DAY + 8 * 60, arno.getStartMinuteOfWeek());
+    }
+
+    @Test
+    void changedStudentAlreadyRemoved() {
+        apply(new RemoveStudentProblemChange("Alma"));
+        apply(new ChangeStudentProblemChange(student("Alma", alma.getTeacher(), 0, DayOfWeek.MONDAY, "08:00",
+                "10:00")));
+        assertEquals(List.of("Arno"), timeTable.getStudentList().stream().map(Student::getName).toList());
+        assertEquals(List.of(arno), timeTable.getLessonList());
+    }
+
+    @Test
+    void pinLessons() {
+        apply(new PinLessonsProblemChange(Set.of(0L, 1L), true));
+        assertTrue(alma.isPinned());
+        assertTrue(arno.isPinned());
+
+        apply(new PinLessonsProblemChange(Set.of(0L), false));
+        assertFalse(alma.isPinned());
+        assertTrue(arno.isPinned());
+
+        // Unassigned lessons are never pinned
+        apply(new AddStudentProblemChange(student("Bea", alma.getTeacher(), 0, DayOfWeek.WEDNESDAY, "08:00",
+                "10:00")));
+        apply(new PinLessonsProblemChange(Set.of(2L), true));
+        assertFalse(timeTable.getLessonList().get(2).isPinned());
+    }
+
+    private void apply(ProblemChange<TimeTable> problemChange) {
+        problemChange.doChange(timeTable, new DefaultProblemChangeDirector<>(scoreDirector));
+        scoreDirector.triggerVariableListeners();
+        scoreDirector.calculateScore();
+    }
+
+    private Room room(int index) {
+        return timeTable.getRoomList().get(index);
+    }
+
+    private Student student(String name, Teacher teacher, int roomIndex, DayOfWeek dayOfWeek, String from,
+            String to) {
+        Combination combination = new Combination(room(roomIndex));
+        combination.timeSlot = new Timeslot(dayOfWeek, LocalTime.parse(from), LocalTime.parse(to));
+        return new Student(name, teacher, 30, List.of(combination), timeTable.getRoomList().size());
+    }
+}
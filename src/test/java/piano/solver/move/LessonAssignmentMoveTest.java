@@ -0,0 +1,240 @@
+package piano.solver.move;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.impl.heuristic.move.Move;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+import ai.timefold.solver.core.impl.solver.DefaultSolverFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import piano.PlanParser;
+import piano.TimeTableApp;
+import piano.domain.Lesson;
+import piano.domain.Room;
+import piano.domain.TimeTable;
+import piano.domain.Timeslot;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The moves of the custom move factories on a working solution of a real score director.
+ */
+class LessonAssignmentMoveTest {
+
+    // Anna at 08:00, Ben at 08:30 and Carl at 09:00 follow each other, Carl's windows leave a gap, Dora is pinned
+    private static final String PLAN = """
+            @Innsbruck
+            @Sistrans
+            +Anna
+            .30
+            -Innsbruck
+            MO 08:00-09:00
+            -Sistrans
+            MO 08:00-09:00
+
+            +Ben
+            .30
+            -Innsbruck
+            MO 08:00-10:00
+
+            +Carl
+            .30
+            -Innsbruck
+            MO 08:00-08:35
+            MO 09:00-10:00
+
+            +Dora
+            .30
+            -Innsbruck
+            TU 08:00-10:00
+            """;
+
+    private static final DefaultSolverFactory<TimeTable> SOLVER_FACTORY =
+            (DefaultSolverFactory<TimeTable>) SolverFactory.<TimeTable>create(TimeTableApp.createSolverConfig());
+
+    private InnerScoreDirector<TimeTable, HardSoftScore> scoreDirector;
+    private TimeTable timeTable;
+    private Lesson anna;
+    private Lesson ben;
+    private Lesson carl;
+    private Lesson dora;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        timeTable = new PlanParser().parse(new StringReader(PLAN));
+        List<Lesson> lessons = timeTable.getLessonList();
+        anna = lessons.get(0);
+        ben = lessons.get(1);
+        carl = lessons.get(2);
+        dora = lessons.get(3);
+        assign(anna, 8 * 60, 0);
+        assign(ben, 8 * 60 + 30, 0);
+        assign(carl, 9 * 60, 0);
+        assign(dora, Timeslot.MINUTES_PER_DAY + 8 * 60, 0);
+        dora.setPinned(true);
+        scoreDirector = createScoreDirector(timeTable);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scoreDirector.close();
+    }
+
+    @Test
+    void undoRestoresAssignmentsNextLessonsAndScore() {
+        HardSoftScore score = scoreDirector.calculateScore();
+        List<Object> state = state(timeTable);
+        assertEquals(List.of(ben), anna.getNextLessons());
+
+        List<LessonAssignmentMove> moves = new AdjacentLessonSwapMoveListFactory().createMoveList(timeTable);
+        moves.add(new LessonAssignmentMove(anna, anna.findPossibleTimeslot(8 * 60 + 15), room(1)));
+        for (LessonAssignmentMove move : moves) {
+            assertTrue(move.isMoveDoable(scoreDirector), move.toString());
+            Move<TimeTable> undoMove = move.doMove(scoreDirector);
+            assertFalse(state.equals(state(timeTable)), move.toString());
+            scoreDirector.calculateScore();
+            undoMove.doMove(scoreDirector);
+            assertEquals(score, scoreDirector.calculateScore(), move.toString());
+            assertEquals(state, state(timeTable), move.toString());
+        }
+    }
+
+    @Test
+    void adjacentSwapPacksLessonsBackToBack() {
+        List<LessonAssignmentMove> moves = new AdjacentLessonSwapMoveListFactory().createMoveList(timeTable);
+        // Carl can't start at 08:30, so Ben and Carl aren't swapped
+        assertEquals(1, moves.size(), moves.toString());
+        moves.get(0).doMove(scoreDirector);
+        assertEquals(8 * 60, ben.getStartMinuteOfWeek());
+        assertEquals(8 * 60 + 30, anna.getStartMinuteOfWeek());
+        assertEquals(List.of(anna), ben.getNextLessons());
+    }
+
+    @Test
+    void pinnedLessonNotDoable() {
+        LessonAssignmentMove move = new LessonAssignmentMove(dora,
+                dora.findPossibleTimeslot(Timeslot.MINUTES_PER_DAY + 9 * 60), room(0));
+        assertFalse(move.isMoveDoable(scoreDirector));
+
+        // The custom factories create moves for pinned lessons too
+        Iterator<LessonAssignmentMove> iterator = new WindowChangeMoveIteratorFactory()
+                .createOriginalMoveIterator(scoreDirector);
+        while (iterator.hasNext()) {
+            LessonAssignmentMove windowChange = iterator.next();
+            if (windowChange.getPlanningEntities().contains(dora)) {
+                assertFalse(windowChange.isMoveDoable(scoreDirector), windowChange.toString());
+            }
+        }
+    }
+
+    @Test
+    void unchangedAssignmentNotDoable() {
+        assertFalse(new LessonAssignmentMove(anna, anna.getTimeslot(), anna.getRoom()).isMoveDoable(scoreDirector));
+    }
+
+    /**
+     * Carl starts at 09:00, the first start of a window. The window before it only allows 08:00 and 08:05, the shift
+     * doesn't jump back there.
+     */
+    @Test
+    void shiftOutOfWindowNotDoable() {
+        List<Integer> carlsStarts = new ArrayList<>();
+        Iterator<LessonAssignmentMove> iterator = new ShiftLessonMoveIteratorFactory()
+                .createOriginalMoveIterator(scoreDirector);
+        while (iterator.hasNext()) {
+            LessonAssignmentMove move = iterator.next();
+            if (move.getPlanningEntities().contains(carl)) {
+                carlsStarts.add(((Timeslot) move.getPlanningValues().iterator().next()).getStartMinuteOfWeek());
+            }
+        }
+        assertEquals(List.of(9 * 60 + 5, 9 * 60 + 10), carlsStarts);
+
+        Random random = new Random(0L);
+        Iterator<LessonAssignmentMove> randomIterator = new ShiftLessonMoveIteratorFactory()
+                .createRandomMoveIterator(scoreDirector, random);
+        for (int i = 0; i < 200; i++) {
+            LessonAssignmentMove move = randomIterator.next();
+            if (move.getPlanningEntities().contains(carl) && move.isMoveDoable(scoreDirector)) {
+                Timeslot timeslot = (Timeslot) move.getPlanningValues().iterator().next();
+                assertTrue(timeslot.getStartMinuteOfWeek() > 9 * 60, move.toString());
+            }
+        }
+    }
+
+    @Test
+    void windowChangeOnlyToAvailableRooms() {
+        Iterator<LessonAssignmentMove> iterator = new WindowChangeMoveIteratorFactory()
+                .createOriginalMoveIterator(scoreDirector);
+        while (iterator.hasNext()) {
+            LessonAssignmentMove move = iterator.next();
+            Lesson lesson = (Lesson) move.getPlanningEntities().iterator().next();
+            List<?> values = List.copyOf(move.getPlanningValues());
+            Timeslot timeslot = (Timeslot) values.get(0);
+            Room room = (Room) values.get(1);
+            assertTrue(lesson.getStudent().isAvailable(timeslot.getDayOfWeek(), room, timeslot.getStartMinuteOfDay()),
+                    move.toString());
+        }
+    }
+
+    @Test
+    void rebase() {
+        TimeTable clone = scoreDirector.cloneSolution(timeTable);
+        try (InnerScoreDirector<TimeTable, HardSoftScore> cloneScoreDirector = createScoreDirector(clone)) {
+            LessonAssignmentMove move = new AdjacentLessonSwapMoveListFactory().createMoveList(timeTable).get(0);
+            LessonAssignmentMove rebasedMove = move.rebase(cloneScoreDirector);
+
+            Lesson clonedAnna = clone.getLessonList().get(0);
+            Lesson clonedBen = clone.getLessonList().get(1);
+            assertNotSame(anna, clonedAnna);
+            assertEquals(List.of(clonedAnna, clonedBen), List.copyOf(rebasedMove.getPlanningEntities()));
+            assertEquals(List.copyOf(move.getPlanningValues()), List.copyOf(rebasedMove.getPlanningValues()));
+
+            rebasedMove.doMove(cloneScoreDirector);
+            assertEquals(8 * 60 + 30, clonedAnna.getStartMinuteOfWeek());
+            assertSame(clone.getRoomList().get(0), clonedAnna.getRoom());
+            // The original solution is untouched
+            assertEquals(8 * 60, anna.getStartMinuteOfWeek());
+        }
+    }
+
+    private Room room(int index) {
+        return timeTable.getRoomList().get(index);
+    }
+
+    private void assign(Lesson lesson, int startMinuteOfWeek, int roomIndex) {
+        lesson.setTimeslot(lesson.findPossibleTimeslot(startMinuteOfWeek));
+        lesson.setRoom(timeTable.getRoomList().get(roomIndex));
+    }
+
+    private static InnerScoreDirector<TimeTable, HardSoftScore> createScoreDirector(TimeTable timeTable) {
+        InnerScoreDirector<TimeTable, HardSoftScore> scoreDirector =
+                SOLVER_FACTORY.<HardSoftScore>getScoreDirectorFactory().buildScoreDirector();
+        scoreDirector.setWorkingSolution(timeTable);
+        return scoreDirector;
+    }
+
+    /**
+     * Timeslot, room and next lessons of every lesson
+     */
+    private static List<Object> state(TimeTable timeTable) {
+        List<Object> state = new ArrayList<>();
+        for (Lesson lesson : timeTable.getLessonList()) {
+            state.add(lesson.getTimeslot());
+            state.add(lesson.getRoom());
+            state.add(List.copyOf(lesson.getNextLessons()));
+        }
+        return state;
+    }
+}